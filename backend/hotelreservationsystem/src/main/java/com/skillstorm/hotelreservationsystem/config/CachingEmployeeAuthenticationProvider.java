@@ -0,0 +1,225 @@
+package com.skillstorm.hotelreservationsystem.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.hotelreservationsystem.models.Employee;
+import com.skillstorm.hotelreservationsystem.repositories.EmployeeRepository;
+import com.skillstorm.hotelreservationsystem.services.EmployeeUserDetailsService;
+
+/**
+ * Authentication provider for employee Basic Auth that caches successful credential checks.
+ * <p>
+ * Verifying a Basic Auth header normally costs a MongoDB read plus a full BCrypt comparison
+ * (roughly 100ms of CPU). After the first successful check, this provider remembers the
+ * verified principal under an HMAC-SHA256 of the username and password, keyed with a random
+ * secret generated when the JVM starts. Later requests with the same credentials skip the BCrypt
+ * comparison: they cost one HMAC, a map lookup, and a lookup by {@code _id} that re-reads the
+ * employee's email, password hash, roles and active flag. The entry is only used if those still
+ * match the cached principal, so a deactivation, demotion or password change made on any
+ * application node, or directly in the database, takes effect on the next request. Raw passwords
+ * are never stored, and the cache keys cannot be brute-forced offline because the secret never
+ * leaves memory.
+ * </p>
+ * <p>
+ * Entries expire after a short TTL, the cache is bounded with least-recently-used eviction, and
+ * {@link EmployeeAuthCacheInvalidator} evicts an employee's entries as soon as the employee
+ * document is saved or deleted through this node.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Component
+public class CachingEmployeeAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final DaoAuthenticationProvider delegate;
+    private final EmployeeRepository employeeRepository;
+    private final SecretKeySpec secret;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    /**
+     * Verified credentials keyed by HMAC, in least-recently-used order.
+     */
+    private final LinkedHashMap<String, CachedCredential> cache;
+
+    /**
+     * A verified principal and the time its cache entry expires.
+     *
+     * @param employee The authenticated employee.
+     * @param expiresAtNanos The {@link System#nanoTime()} after which the entry is stale.
+     */
+    private record CachedCredential(Employee employee, long expiresAtNanos) {
+    }
+
+    /**
+     * Constructs a new CachingEmployeeAuthenticationProvider.
+     *
+     * @param userDetailsService The service that loads employees by email.
+     * @param passwordEncoder The encoder used to verify password hashes.
+     * @param employeeRepository The repository used to re-validate cached credentials.
+     * @param ttl How long a verified credential stays cached.
+     * @param maxEntries The maximum number of cached credentials.
+     */
+    public CachingEmployeeAuthenticationProvider(
+            EmployeeUserDetailsService userDetailsService,
+            PasswordEncoder passwordEncoder,
+            EmployeeRepository employeeRepository,
+            @Value("${app.security.employee-auth-cache.ttl:PT5M}") Duration ttl,
+            @Value("${app.security.employee-auth-cache.max-entries:1000}") int maxEntries
+    ) {
+        this.delegate = new DaoAuthenticationProvider(userDetailsService);
+        this.delegate.setPasswordEncoder(passwordEncoder);
+        this.employeeRepository = employeeRepository;
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.secret = new SecretKeySpec(key, HMAC_ALGORITHM);
+
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCredential> eldest) {
+                return size() > CachingEmployeeAuthenticationProvider.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Authenticates a username/password token, using the cache when the same credentials were verified recently.
+     *
+     * @param authentication The username/password authentication request.
+     * @return A fully authenticated token.
+     * @throws AuthenticationException if the credentials are invalid or the account is disabled.
+     */
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (username == null || credentials == null) {
+            return delegate.authenticate(authentication);
+        }
+
+        String key = cacheKey(username, credentials.toString());
+        long now = System.nanoTime();
+
+        CachedCredential cached;
+        synchronized (cache) {
+            cached = cache.get(key);
+            if (cached != null && now - cached.expiresAtNanos() > 0) {
+                cache.remove(key);
+                cached = null;
+            }
+        }
+
+        if (cached != null && !isCurrent(cached.employee())) {
+            invalidate(cached.employee().getId());
+            cached = null;
+        }
+
+        if (cached != null) {
+            Employee employee = cached.employee();
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    employee, null, employee.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        Authentication verified = delegate.authenticate(authentication);
+        if (verified.getPrincipal() instanceof Employee employee) {
+            synchronized (cache) {
+                cache.put(key, new CachedCredential(employee, now + ttlNanos));
+            }
+        }
+        return verified;
+    }
+
+    /**
+     * Indicates that this provider handles username/password tokens.
+     *
+     * @param authentication The authentication type.
+     * @return True for {@link UsernamePasswordAuthenticationToken}.
+     */
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    /**
+     * Removes every cached credential belonging to an employee.
+     *
+     * @param employeeId The MongoDB ID of the employee whose credentials changed.
+     */
+    public void invalidate(String employeeId) {
+        if (employeeId == null) return;
+        synchronized (cache) {
+            cache.values().removeIf(c -> employeeId.equals(c.employee().getId()));
+        }
+    }
+
+    /**
+     * Removes every cached credential.
+     */
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Checks a cached principal against the employee's stored credentials.
+     *
+     * @param cachedEmployee The employee as it was when the credentials were verified.
+     * @return True if the employee still exists with the same email, password hash, roles and active flag.
+     */
+    private boolean isCurrent(Employee cachedEmployee) {
+        if (cachedEmployee.getId() == null) return false;
+        return employeeRepository.findCredentialsById(cachedEmployee.getId())
+                .map(stored -> stored.isActive() == cachedEmployee.isActive()
+                        && Objects.equals(stored.getEmail(), cachedEmployee.getEmail())
+                        && Objects.equals(stored.getPasswordHash(), cachedEmployee.getPasswordHash())
+                        && Objects.equals(stored.getRoles(), cachedEmployee.getRoles()))
+                .orElse(false);
+    }
+
+    /**
+     * Computes the cache key for a username and password.
+     *
+     * @param username The username (employee email).
+     * @param password The raw password.
+     * @return The Base64-encoded HMAC-SHA256 of the credentials.
+     */
+    private String cacheKey(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secret);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
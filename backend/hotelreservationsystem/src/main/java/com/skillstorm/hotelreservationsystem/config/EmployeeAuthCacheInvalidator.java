@@ -0,0 +1,64 @@
+package com.skillstorm.hotelreservationsystem.config;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.hotelreservationsystem.models.Employee;
+
+/**
+ * Evicts cached employee credentials when an employee document changes.
+ * <p>
+ * Listens for Spring Data MongoDB save and delete events on {@link Employee}, so deactivating an
+ * employee, changing their password or roles, or deleting them frees the cached entries right away.
+ * These events only fire on the node that made the change; other nodes drop their stale entries
+ * on the next cache hit, when {@link CachingEmployeeAuthenticationProvider} re-reads the stored
+ * credentials.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Component
+public class EmployeeAuthCacheInvalidator extends AbstractMongoEventListener<Employee> {
+
+    private final CachingEmployeeAuthenticationProvider authenticationProvider;
+
+    /**
+     * Constructs a new EmployeeAuthCacheInvalidator.
+     *
+     * @param authenticationProvider The caching provider whose entries are evicted.
+     */
+    public EmployeeAuthCacheInvalidator(CachingEmployeeAuthenticationProvider authenticationProvider) {
+        this.authenticationProvider = authenticationProvider;
+    }
+
+    /**
+     * Evicts the saved employee's cached credentials.
+     *
+     * @param event The after-save event.
+     */
+    @Override
+    public void onAfterSave(AfterSaveEvent<Employee> event) {
+        authenticationProvider.invalidate(event.getSource().getId());
+    }
+
+    /**
+     * Evicts the deleted employee's cached credentials, or the whole cache if the delete
+     * was not by ID (for example a delete-by-query).
+     *
+     * @param event The after-delete event.
+     */
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Employee> event) {
+        Document filter = event.getSource();
+        Object id = filter.get("_id");
+        if (id != null && !(id instanceof Document)) {
+            authenticationProvider.invalidate(id.toString());
+        } else {
+            authenticationProvider.invalidateAll();
+        }
+    }
+}
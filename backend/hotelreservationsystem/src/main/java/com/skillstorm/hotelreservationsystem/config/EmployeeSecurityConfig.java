@@ -3,6 +3,7 @@ package com.skillstorm.hotelreservationsystem.config;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
@@ -34,14 +35,17 @@ public class EmployeeSecurityConfig {
      * <p>
      * Configures Basic Authentication, CSRF protection, session management,
      * and role-based access control for employee and admin operations.
+     * Basic credentials are verified by {@link CachingEmployeeAuthenticationProvider},
+     * so repeated requests with the same header skip the database read and BCrypt check.
      * </p>
      *
      * @param http The HttpSecurity builder.
+     * @param employeeAuthenticationProvider The caching provider used for Basic Auth.
      * @return The built SecurityFilterChain for employee endpoints.
      * @throws Exception If an error occurs during configuration.
      */
     @Bean
-    public SecurityFilterChain employeeFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain employeeFilterChain(HttpSecurity http, CachingEmployeeAuthenticationProvider employeeAuthenticationProvider) throws Exception {
 
         CsrfTokenRequestAttributeHandler requestHandler = new CsrfTokenRequestAttributeHandler();
         requestHandler.setCsrfRequestAttributeName(null);
@@ -77,7 +81,8 @@ public class EmployeeSecurityConfig {
                 .anyRequest().hasAnyRole("ADMIN", "EMPLOYEE")
             )
 
-            // Basic auth for employees
+            // Basic auth for employees, verified through the credential cache
+            .authenticationManager(new ProviderManager(employeeAuthenticationProvider))
             .httpBasic(Customizer.withDefaults())
 
             // Prevent browser Basic Auth popup:
@@ -0,0 +1,48 @@
+package com.skillstorm.hotelreservationsystem.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration class for the local mail sink.
+ * <p>
+ * When {@code app.mail.sink} is set to {@code memory} or {@code file}, this configuration
+ * registers a {@link SinkMailSender} as the application's {@code JavaMailSender}, which replaces
+ * Spring Boot's SMTP sender. This allows the email outbox to be exercised and load-tested
+ * without a real mail server. The property is unset in normal deployments.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.mail", name = "sink")
+public class MailSinkConfig {
+
+    /**
+     * Creates the sink mail sender.
+     *
+     * @param sink The sink mode ("memory" or "file").
+     * @param directory The directory for captured {@code .eml} files in file mode.
+     * @param capacity The number of recent messages kept in memory mode.
+     * @param connectDelayMs Simulated connection time per batch, in milliseconds.
+     * @param messageDelayMs Simulated transmission time per message, in milliseconds.
+     * @return A configured SinkMailSender instance.
+     */
+    @Bean
+    public SinkMailSender sinkMailSender(
+            @Value("${app.mail.sink}") String sink,
+            @Value("${app.mail.sink-directory:mail-sink}") String directory,
+            @Value("${app.mail.sink-capacity:1000}") int capacity,
+            @Value("${app.mail.sink-connect-delay-ms:0}") long connectDelayMs,
+            @Value("${app.mail.sink-message-delay-ms:0}") long messageDelayMs
+    ) {
+        SinkMailSender.Mode mode = SinkMailSender.Mode.valueOf(sink.trim().toUpperCase());
+        System.out.println("Mail sink enabled (" + mode + "); emails will not be sent over SMTP.");
+        return new SinkMailSender(mode, Path.of(directory), capacity, connectDelayMs, messageDelayMs);
+    }
+}
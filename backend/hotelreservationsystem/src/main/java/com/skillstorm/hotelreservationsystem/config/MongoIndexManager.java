@@ -0,0 +1,210 @@
+package com.skillstorm.hotelreservationsystem.config;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.hotelreservationsystem.dto.IndexReport;
+import com.skillstorm.hotelreservationsystem.models.EmailOutboxMessage;
+import com.skillstorm.hotelreservationsystem.models.Employee;
+import com.skillstorm.hotelreservationsystem.models.JobRun;
+import com.skillstorm.hotelreservationsystem.models.Reservation;
+import com.skillstorm.hotelreservationsystem.models.RevenueDaily;
+import com.skillstorm.hotelreservationsystem.models.Room;
+import com.skillstorm.hotelreservationsystem.models.RoomCalendarHistory;
+import com.skillstorm.hotelreservationsystem.models.RoomNight;
+import com.skillstorm.hotelreservationsystem.models.RoomType;
+import com.skillstorm.hotelreservationsystem.models.User;
+
+/**
+ * Creates and reports on the MongoDB indexes declared on entity classes.
+ * <p>
+ * Spring Boot does not create annotated indexes automatically ({@code auto-index-creation}
+ * is off), so every entity listed here has its {@code @Indexed}/{@code @CompoundIndex}
+ * definitions resolved and created explicitly when the application starts. Creating an index that
+ * already exists is a no-op. A unique index that cannot be built (for example over duplicate data)
+ * stops startup, because correctness depends on it: {@code room_night_unique} prevents double
+ * bookings and {@code outbox_dedupe_key} prevents duplicate emails. Any other index only affects
+ * performance, so a failure to build it is logged and skipped. Runs before any other startup
+ * listener so that later listeners can rely on the indexes.
+ * </p>
+ * <p>
+ * {@link #report()} compares the declared indexes with the ones that exist and reads
+ * {@code $indexStats} usage counters, so missing and unused indexes can be spotted from the
+ * admin diagnostics endpoint. Usage counters reset whenever the MongoDB server restarts.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Component
+public class MongoIndexManager {
+
+    /**
+     * Entity classes whose annotated indexes are created at startup and covered by the report.
+     */
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(
+            Room.class,
+            RoomType.class,
+            RoomNight.class,
+            Reservation.class,
+            User.class,
+            Employee.class,
+            EmailOutboxMessage.class,
+            RevenueDaily.class,
+            JobRun.class,
+            RoomCalendarHistory.class
+    );
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs a new MongoIndexManager with the specified MongoTemplate.
+     *
+     * @param mongoTemplate The MongoTemplate used to create and inspect indexes.
+     */
+    public MongoIndexManager(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Creates the annotated indexes of every registered entity.
+     *
+     * @throws IllegalStateException if a unique index cannot be created.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void ensureIndexes() {
+        IndexResolver resolver = resolver();
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            IndexOperations indexOps = mongoTemplate.indexOps(entity);
+            for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+                try {
+                    indexOps.createIndex(index);
+                } catch (RuntimeException e) {
+                    String description = index.getIndexKeys().toJson() + " on " + mongoTemplate.getCollectionName(entity);
+                    if (index.getIndexOptions().getBoolean("unique", false)) {
+                        throw new IllegalStateException("Could not create unique index " + description, e);
+                    }
+                    System.err.println("Could not create index " + description + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports declared, missing, and unused indexes for every registered entity.
+     *
+     * @return One report per collection.
+     */
+    public List<IndexReport> report() {
+        IndexResolver resolver = resolver();
+        List<IndexReport> reports = new ArrayList<>();
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            String collection = mongoTemplate.getCollectionName(entity);
+
+            Set<String> declared = new LinkedHashSet<>();
+            for (IndexDefinition index : resolver.resolveIndexFor(entity)) {
+                String name = index.getIndexOptions().getString("name");
+                declared.add(name != null ? name : defaultName(index.getIndexKeys()));
+            }
+
+            List<IndexReport.IndexUsage> usages = usage(collection, declared);
+
+            List<String> missing = new ArrayList<>(declared);
+            List<String> unused = new ArrayList<>();
+            for (IndexReport.IndexUsage usage : usages) {
+                missing.remove(usage.name());
+                if (usage.accesses() == 0 && !"_id_".equals(usage.name())) {
+                    unused.add(usage.name());
+                }
+            }
+
+            reports.add(new IndexReport(collection, usages, missing, unused));
+        }
+        return reports;
+    }
+
+    /**
+     * Lists the indexes that exist on a collection with their usage counters.
+     * <p>
+     * Falls back to the plain index list, with accesses reported as -1, when {@code $indexStats}
+     * is not permitted for the connected user.
+     * </p>
+     *
+     * @param collection The collection name.
+     * @param declared The names of the indexes declared on the entity.
+     * @return The existing indexes.
+     */
+    private List<IndexReport.IndexUsage> usage(String collection, Set<String> declared) {
+        List<IndexReport.IndexUsage> usages = new ArrayList<>();
+        if (!mongoTemplate.collectionExists(collection)) {
+            return usages;
+        }
+
+        try {
+            List<Document> pipeline = List.of(new Document("$indexStats", new Document()));
+            for (Document stat : mongoTemplate.getCollection(collection).aggregate(pipeline)) {
+                String name = stat.getString("name");
+                Document accesses = stat.get("accesses", Document.class);
+                Number ops = accesses != null ? accesses.get("ops", Number.class) : null;
+                Date since = accesses != null ? accesses.getDate("since") : null;
+                usages.add(new IndexReport.IndexUsage(
+                        name,
+                        stat.get("key", Document.class).toJson(),
+                        ops != null ? ops.longValue() : -1,
+                        since != null ? since.toInstant() : null,
+                        declared.contains(name)
+                ));
+            }
+        } catch (RuntimeException e) {
+            System.err.println("$indexStats unavailable for " + collection + ": " + e.getMessage());
+            usages.clear();
+            for (IndexInfo info : mongoTemplate.indexOps(collection).getIndexInfo()) {
+                usages.add(new IndexReport.IndexUsage(info.getName(), info.getIndexFields().toString(), -1,
+                        null, declared.contains(info.getName())));
+            }
+        }
+        return usages;
+    }
+
+    /**
+     * Computes MongoDB's default name for an index without an explicit name (e.g. {@code field_1}).
+     *
+     * @param keys The index keys.
+     * @return The default index name.
+     */
+    private String defaultName(Document keys) {
+        StringBuilder name = new StringBuilder();
+        for (String field : keys.keySet()) {
+            if (name.length() > 0) name.append('_');
+            name.append(field).append('_').append(keys.get(field));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Creates an index resolver over the application's mapping context.
+     *
+     * @return The index resolver.
+     */
+    private IndexResolver resolver() {
+        return IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+    }
+}
@@ -0,0 +1,42 @@
+package com.skillstorm.hotelreservationsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+/**
+ * Configuration class for MongoDB multi-document transactions.
+ * <p>
+ * Registers a {@link MongoTransactionManager} so that booking flows write the reservation, the
+ * room calendar, the night claims and the confirmation email's outbox entry atomically.
+ * Transactions need a replica set
+ * (MongoDB Atlas and DocumentDB clusters are; a local {@code mongod} must be started with
+ * {@code --replSet}). Set {@code app.mongo.transactions.enabled=false} to run against a
+ * standalone server, in which case the flows run without a transaction as before.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.mongo.transactions", name = "enabled", matchIfMissing = true)
+public class MongoTransactionConfig {
+
+    /**
+     * Creates the transaction manager.
+     *
+     * @param databaseFactory The MongoDB database factory.
+     * @param commitRetries How many times a commit with an unknown result is retried.
+     * @return A configured RetryingMongoTransactionManager instance.
+     */
+    @Bean
+    public MongoTransactionManager transactionManager(
+            MongoDatabaseFactory databaseFactory,
+            @Value("${app.mongo.transactions.commit-retries:3}") int commitRetries
+    ) {
+        return new RetryingMongoTransactionManager(databaseFactory, commitRetries);
+    }
+}
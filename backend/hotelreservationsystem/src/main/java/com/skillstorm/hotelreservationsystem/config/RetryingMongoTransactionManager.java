@@ -0,0 +1,61 @@
+package com.skillstorm.hotelreservationsystem.config;
+
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.MongoTransactionManager;
+
+import com.mongodb.MongoException;
+
+/**
+ * MongoDB transaction manager that retries commits whose outcome is unknown.
+ * <p>
+ * A commit that fails with the {@code UnknownTransactionCommitResult} label (for example a
+ * network error or primary failover while committing) may or may not have been applied.
+ * Committing again is safe: the server either applies the commit or reports that it already
+ * has. Only the commit is retried here; replaying the whole transaction is left to callers,
+ * and only for {@code TransientTransactionError}, see
+ * {@code com.skillstorm.hotelreservationsystem.services.TransactionRunner}.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public class RetryingMongoTransactionManager extends MongoTransactionManager {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int commitRetries;
+
+    /**
+     * Constructs a new RetryingMongoTransactionManager.
+     *
+     * @param databaseFactory The MongoDB database factory.
+     * @param commitRetries How many times a commit with an unknown result is retried.
+     */
+    public RetryingMongoTransactionManager(MongoDatabaseFactory databaseFactory, int commitRetries) {
+        super(databaseFactory);
+        this.commitRetries = Math.max(0, commitRetries);
+    }
+
+    /**
+     * Commits the transaction, retrying while the commit result is unknown.
+     *
+     * @param transactionObject The transaction to commit.
+     * @throws Exception if the commit fails for another reason or the retries are exhausted.
+     */
+    @Override
+    protected void doCommit(MongoTransactionObject transactionObject) throws Exception {
+        int retries = 0;
+        while (true) {
+            try {
+                transactionObject.commitTransaction();
+                return;
+            } catch (MongoException e) {
+                if (retries >= commitRetries || !e.hasErrorLabel(MongoException.UNKNOWN_TRANSACTION_COMMIT_RESULT_LABEL)) {
+                    throw e;
+                }
+                retries++;
+                System.err.println("Commit result unknown, retrying commit (" + retries + "/" + commitRetries + "): " + e.getMessage());
+            }
+        }
+    }
+}
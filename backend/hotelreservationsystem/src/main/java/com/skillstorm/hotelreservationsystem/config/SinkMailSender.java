@@ -0,0 +1,167 @@
+package com.skillstorm.hotelreservationsystem.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * A {@link JavaMailSenderImpl} that captures messages locally instead of talking to an SMTP server.
+ * <p>
+ * Used for development and load testing. In {@code memory} mode the most recent messages are
+ * kept in a bounded buffer; in {@code file} mode every message is written as an {@code .eml}
+ * file. Messages still go through the normal {@code SimpleMailMessage} to {@code MimeMessage}
+ * conversion, and an optional per-connection and per-message delay can simulate SMTP latency so
+ * that batching effects show up in the mail diagnostics.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public class SinkMailSender extends JavaMailSenderImpl {
+
+    /**
+     * Where captured messages are stored.
+     */
+    public enum Mode {
+        /** Keep the most recent messages in memory. */
+        MEMORY,
+        /** Write each message to an .eml file. */
+        FILE
+    }
+
+    private final Mode mode;
+    private final Path directory;
+    private final int capacity;
+    private final long connectDelayMs;
+    private final long messageDelayMs;
+
+    private final Deque<MimeMessage> recent = new ArrayDeque<>();
+    private final AtomicLong captured = new AtomicLong();
+
+    /**
+     * Constructs a new SinkMailSender.
+     *
+     * @param mode Where captured messages are stored.
+     * @param directory The directory for {@code .eml} files (file mode only).
+     * @param capacity The number of recent messages kept (memory mode only).
+     * @param connectDelayMs Simulated connection and handshake time per batch, in milliseconds.
+     * @param messageDelayMs Simulated transmission time per message, in milliseconds.
+     */
+    public SinkMailSender(Mode mode, Path directory, int capacity, long connectDelayMs, long messageDelayMs) {
+        this.mode = mode;
+        this.directory = directory;
+        this.capacity = Math.max(1, capacity);
+        this.connectDelayMs = connectDelayMs;
+        this.messageDelayMs = messageDelayMs;
+    }
+
+    /**
+     * Captures a batch of messages as if they were sent over one SMTP connection.
+     *
+     * @param mimeMessages The messages to capture.
+     * @param originalMessages The messages they were created from (may be null).
+     * @throws MailException if any message could not be captured.
+     */
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        pause(connectDelayMs);
+
+        Map<Object, Exception> failed = new LinkedHashMap<>();
+        for (int i = 0; i < mimeMessages.length; i++) {
+            MimeMessage message = mimeMessages[i];
+            try {
+                if (message.getSentDate() == null) {
+                    message.setSentDate(new java.util.Date());
+                }
+                message.saveChanges();
+                store(message);
+                captured.incrementAndGet();
+                pause(messageDelayMs);
+            } catch (MessagingException | IOException e) {
+                Object original = (originalMessages != null) ? originalMessages[i] : message;
+                failed.put(original, e);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            throw new MailSendException(failed);
+        }
+    }
+
+    /**
+     * Gets the total number of messages captured since startup.
+     *
+     * @return The captured message count.
+     */
+    public long getCapturedCount() {
+        return captured.get();
+    }
+
+    /**
+     * Gets a copy of the most recently captured messages (memory mode only).
+     *
+     * @return The recent messages, oldest first.
+     */
+    public synchronized List<MimeMessage> getRecentMessages() {
+        return List.copyOf(recent);
+    }
+
+    /**
+     * Gets the storage mode of this sink.
+     *
+     * @return The mode.
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Stores one message according to the configured mode.
+     *
+     * @param message The message to store.
+     * @throws MessagingException if the message cannot be serialized.
+     * @throws IOException if the message file cannot be written.
+     */
+    private void store(MimeMessage message) throws MessagingException, IOException {
+        if (mode == Mode.FILE) {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(System.currentTimeMillis() + "-" + captured.get() + ".eml");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                message.writeTo(out);
+            }
+        } else {
+            synchronized (this) {
+                if (recent.size() >= capacity) recent.removeFirst();
+                recent.addLast(message);
+            }
+        }
+    }
+
+    /**
+     * Sleeps to simulate network latency.
+     *
+     * @param millis The delay in milliseconds.
+     */
+    private void pause(long millis) {
+        if (millis <= 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.skillstorm.hotelreservationsystem.controllers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.skillstorm.hotelreservationsystem.config.MongoIndexManager;
+import com.skillstorm.hotelreservationsystem.config.SinkMailSender;
+import com.skillstorm.hotelreservationsystem.dto.CalendarCompactionResult;
+import com.skillstorm.hotelreservationsystem.dto.IndexReport;
+import com.skillstorm.hotelreservationsystem.dto.MailDiagnosticsResponse;
+import com.skillstorm.hotelreservationsystem.dto.RoomTypeCatalogStats;
+import com.skillstorm.hotelreservationsystem.dto.SearchCacheStats;
+import com.skillstorm.hotelreservationsystem.dto.TransactionStats;
+import com.skillstorm.hotelreservationsystem.models.JobRun;
+import com.skillstorm.hotelreservationsystem.models.Reservation;
+import com.skillstorm.hotelreservationsystem.services.EmailOutboxService;
+import com.skillstorm.hotelreservationsystem.services.EmployeeReservationService;
+import com.skillstorm.hotelreservationsystem.services.JobLockService;
+import com.skillstorm.hotelreservationsystem.services.RoomCalendarCompactionService;
+import com.skillstorm.hotelreservationsystem.services.RoomTypeCatalog;
+import com.skillstorm.hotelreservationsystem.services.SearchResultCache;
+import com.skillstorm.hotelreservationsystem.services.TransactionRunner;
+
+/**
+ * REST controller for admin diagnostics.
+ * <p>
+ * This controller exposes runtime metrics for background subsystems such as the email outbox
+ * and in-process caches, MongoDB index usage and query plans, booking transactions, and scheduled job runs,
+ * and lets admins trigger room calendar compaction.
+ * All endpoints require the ADMIN role.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("employees/admin/diagnostics")
+public class EmployeeDiagnosticsController {
+
+    private final EmailOutboxService emailOutboxService;
+    private final ObjectProvider<SinkMailSender> sinkMailSender;
+    private final RoomTypeCatalog roomTypeCatalog;
+    private final SearchResultCache searchResultCache;
+    private final MongoIndexManager mongoIndexManager;
+    private final EmployeeReservationService employeeReservationService;
+    private final JobLockService jobLockService;
+    private final TransactionRunner transactionRunner;
+    private final RoomCalendarCompactionService roomCalendarCompactionService;
+
+    /**
+     * Constructs a new EmployeeDiagnosticsController with the required services.
+     *
+     * @param emailOutboxService The service for outbox delivery and metrics.
+     * @param sinkMailSender The local mail sink, if enabled.
+     * @param roomTypeCatalog The cached room type catalog.
+     * @param searchResultCache The room search result cache.
+     * @param mongoIndexManager The component that creates and reports on MongoDB indexes.
+     * @param employeeReservationService The service for employee reservation searches.
+     * @param jobLockService The service that runs scheduled jobs and records their history.
+     * @param transactionRunner The runner that executes booking flows in retried transactions.
+     * @param roomCalendarCompactionService The service that archives past room calendar ranges.
+     */
+    public EmployeeDiagnosticsController(EmailOutboxService emailOutboxService, ObjectProvider<SinkMailSender> sinkMailSender,
+            RoomTypeCatalog roomTypeCatalog, SearchResultCache searchResultCache, MongoIndexManager mongoIndexManager,
+            EmployeeReservationService employeeReservationService, JobLockService jobLockService,
+            TransactionRunner transactionRunner, RoomCalendarCompactionService roomCalendarCompactionService) {
+        this.emailOutboxService = emailOutboxService;
+        this.sinkMailSender = sinkMailSender;
+        this.roomTypeCatalog = roomTypeCatalog;
+        this.searchResultCache = searchResultCache;
+        this.mongoIndexManager = mongoIndexManager;
+        this.employeeReservationService = employeeReservationService;
+        this.jobLockService = jobLockService;
+        this.transactionRunner = transactionRunner;
+        this.roomCalendarCompactionService = roomCalendarCompactionService;
+    }
+
+    /**
+     * Retrieves mail delivery throughput and outbox queue depth.
+     *
+     * @return The current mail diagnostics.
+     */
+    @GetMapping("/mail")
+    public MailDiagnosticsResponse mail() {
+        return emailOutboxService.diagnostics();
+    }
+
+    /**
+     * Retrieves room type catalog size and hit/miss counts.
+     *
+     * @return The current catalog statistics.
+     */
+    @GetMapping("/room-types")
+    public RoomTypeCatalogStats roomTypes() {
+        return roomTypeCatalog.stats();
+    }
+
+    /**
+     * Retrieves room search cache size, hit/miss counts, coalesced callers and inventory version.
+     *
+     * @return The current search cache statistics.
+     */
+    @GetMapping("/search-cache")
+    public SearchCacheStats searchCache() {
+        return searchResultCache.stats();
+    }
+
+    /**
+     * Reports existing, missing, and unused MongoDB indexes for every collection.
+     *
+     * @return One index report per collection.
+     */
+    @GetMapping("/indexes")
+    public List<IndexReport> indexes() {
+        return mongoIndexManager.report();
+    }
+
+    /**
+     * Retrieves per-flow transaction metrics: commits, failures, aborts, retries and latency.
+     *
+     * @return One entry per booking flow that has run since startup.
+     */
+    @GetMapping("/transactions")
+    public List<TransactionStats> transactions() {
+        return transactionRunner.stats();
+    }
+
+    /**
+     * Lists recent scheduled job runs, newest first, with the node that ran each one,
+     * its duration, documents changed and outcome.
+     *
+     * @param job Filter by job name, e.g. "reservation-cleanup" (optional).
+     * @param limit The maximum number of runs to return (1 to 500, default: 50).
+     * @return The recent job runs.
+     * @throws ResponseStatusException if the limit is out of range.
+     */
+    @GetMapping("/jobs")
+    public List<JobRun> jobs(
+            @RequestParam(required = false) String job,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        if (limit < 1 || limit > 500) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Limit must be between 1 and 500.");
+        }
+        return jobLockService.recentRuns(job, limit);
+    }
+
+    /**
+     * Returns MongoDB's execution plan for an employee reservation search.
+     * <p>
+     * Accepts the same filter and paging parameters as {@code GET /employees/reservations}.
+     * </p>
+     *
+     * @param reservationId Filter by reservation ID (optional).
+     * @param guestEmail Filter by guest email address (optional).
+     * @param guest Filter by a prefix of the guest's first name, last name, or email (optional).
+     * @param roomTypeId Filter by room type ID (optional).
+     * @param status Filter by reservation status (optional).
+     * @param currentlyCheckedIn Filter by check-in status (optional).
+     * @param from Start date for date range filtering (optional).
+     * @param to End date for date range filtering (optional).
+     * @param page Page number for pagination (default: 0).
+     * @param size Number of items per page (default: 20).
+     * @param sortBy Field name to sort by (default: "checkIn").
+     * @param sortDir Sort direction (default: DESC).
+     * @return The explain output with execution statistics, as MongoDB extended JSON.
+     */
+    @GetMapping(value = "/reservations/explain", produces = MediaType.APPLICATION_JSON_VALUE)
+    public String explainReservationSearch(
+            @RequestParam(required = false) String reservationId,
+            @RequestParam(required = false) String guestEmail,
+            @RequestParam(required = false) String guest,
+            @RequestParam(required = false) String roomTypeId,
+            @RequestParam(required = false) Reservation.ReservationStatus status,
+            @RequestParam(required = false) Boolean currentlyCheckedIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "checkIn") String sortBy,
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir
+    ) {
+        PageRequest pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
+        Document plan = employeeReservationService.explainSearch(
+                reservationId,
+                guestEmail,
+                guest,
+                roomTypeId,
+                status,
+                currentlyCheckedIn,
+                from,
+                to,
+                pageable
+        );
+        return plan.toJson();
+    }
+
+    /**
+     * Runs the room calendar compaction now instead of waiting for the nightly schedule.
+     *
+     * @return The number of rooms compacted, ranges archived and approximate bytes reclaimed.
+     * @throws ResponseStatusException if another node is already running the compaction.
+     */
+    @PostMapping("/calendar/compact")
+    public CalendarCompactionResult compactCalendars() {
+        CalendarCompactionResult result = roomCalendarCompactionService.compactExclusive();
+        if (result == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Calendar compaction is already running on another node.");
+        }
+        return result;
+    }
+
+    /**
+     * Queues synthetic messages to load-test the outbox pipeline.
+     * <p>
+     * Only available while the local mail sink is enabled, so it can never send real email.
+     * </p>
+     *
+     * @param count The number of messages to queue (1 to 10,000).
+     * @return The number of messages queued.
+     * @throws ResponseStatusException if the mail sink is not enabled or the count is out of range.
+     */
+    @PostMapping("/mail/load-test")
+    public int mailLoadTest(@RequestParam(defaultValue = "100") int count) {
+        if (sinkMailSender.getIfAvailable() == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Mail load tests require app.mail.sink to be enabled.");
+        }
+        if (count < 1 || count > 10_000) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Count must be between 1 and 10000.");
+        }
+
+        List<SimpleMailMessage> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom("load-test@localhost");
+            message.setTo("guest" + i + "@localhost");
+            message.setSubject("Load test message " + i);
+            message.setText("Synthetic message " + i + " for mail throughput testing.");
+            messages.add(message);
+        }
+        return emailOutboxService.enqueueAll(messages).size();
+    }
+}
@@ -53,9 +53,16 @@ public class EmployeeReservationController {
 
     /**
      * Searches for reservations with multiple filter criteria and pagination.
+     * <p>
+     * By default pages are addressed by number and carry an exact total. Passing a {@code cursor}
+     * parameter (empty for the first page) switches to keyset pagination: {@code page} is ignored,
+     * each response carries a {@code nextCursor}, and the total is only computed when {@code total}
+     * is EXACT or ESTIMATE.
+     * </p>
      *
      * @param reservationId Filter by reservation ID (optional).
      * @param guestEmail Filter by guest email address (optional).
+     * @param guest Filter by a prefix of the guest's first name, last name, or email (optional).
      * @param roomTypeId Filter by room type ID (optional).
      * @param status Filter by reservation status (optional).
      * @param currentlyCheckedIn Filter by check-in status (optional).
@@ -65,12 +72,15 @@ public class EmployeeReservationController {
      * @param size Number of items per page (default: 20).
      * @param sortBy Field name to sort by (default: "checkIn").
      * @param sortDir Sort direction (default: DESC).
+     * @param cursor Keyset cursor from the previous page; empty for the first keyset page (optional).
+     * @param total How to compute the total in keyset mode (default: NONE).
      * @return A paginated response containing matching reservations.
      */
     @GetMapping
     public ReservationAdminSearchResponse<Reservation> search(
             @RequestParam(required = false) String reservationId,
             @RequestParam(required = false) String guestEmail,
+            @RequestParam(required = false) String guest,
             @RequestParam(required = false) String roomTypeId,
             @RequestParam(required = false) Reservation.ReservationStatus status,
             @RequestParam(required = false) Boolean currentlyCheckedIn,
@@ -79,12 +89,33 @@ public class EmployeeReservationController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
             @RequestParam(defaultValue = "checkIn") String sortBy,
-            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir
+            @RequestParam(defaultValue = "DESC") Sort.Direction sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "NONE") ReservationAdminSearchResponse.TotalMode total
     ) {
+        if (cursor != null) {
+            return employeeReservationService.searchKeyset(
+                    reservationId,
+                    guestEmail,
+                    guest,
+                    roomTypeId,
+                    status,
+                    currentlyCheckedIn,
+                    from,
+                    to,
+                    sortBy,
+                    sortDir,
+                    size,
+                    cursor,
+                    total
+            );
+        }
+
         PageRequest pageable = PageRequest.of(page, size, Sort.by(sortDir, sortBy));
         Page<Reservation> result = employeeReservationService.search(
                 reservationId,
                 guestEmail,
+                guest,
                 roomTypeId,
                 status,
                 currentlyCheckedIn,
@@ -0,0 +1,67 @@
+package com.skillstorm.hotelreservationsystem.controllers;
+
+import java.time.LocalDate;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.skillstorm.hotelreservationsystem.dto.RevenueReportResponse;
+import com.skillstorm.hotelreservationsystem.services.EmployeeReservationService;
+
+/**
+ * REST controller for admin maintenance of the revenue rollup.
+ * <p>
+ * This controller handles HTTP requests to verify the daily revenue rollup against the
+ * reservations collection and to rebuild it. A rebuild replaces the whole rollup and may lose
+ * increments from bookings made while it runs, so all endpoints require the ADMIN role.
+ * The everyday report stays at {@code GET /employees/reservations/reports/revenue}.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("employees/admin/reports/revenue")
+public class EmployeeRevenueAdminController {
+
+    private final EmployeeReservationService employeeReservationService;
+
+    /**
+     * Constructs a new EmployeeRevenueAdminController with the specified service.
+     *
+     * @param employeeReservationService The service for employee reservation operations.
+     */
+    public EmployeeRevenueAdminController(EmployeeReservationService employeeReservationService) {
+        this.employeeReservationService = employeeReservationService;
+    }
+
+    /**
+     * Retrieves a revenue report computed directly from the reservations collection.
+     * Used to verify the daily rollup behind {@code /employees/reservations/reports/revenue}.
+     *
+     * @param from The start date for the report (optional).
+     * @param to The end date for the report (optional).
+     * @return A revenue report with total and monthly breakdowns.
+     */
+    @GetMapping("/source")
+    public RevenueReportResponse revenueFromReservations(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return employeeReservationService.revenueFromReservations(from, to);
+    }
+
+    /**
+     * Rebuilds the daily revenue rollup from the reservations collection.
+     *
+     * @return The all-time revenue report from the rebuilt rollup.
+     */
+    @PostMapping("/rebuild")
+    public RevenueReportResponse rebuildRevenue() {
+        return employeeReservationService.rebuildRevenue();
+    }
+}
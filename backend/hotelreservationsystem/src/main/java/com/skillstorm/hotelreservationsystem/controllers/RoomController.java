@@ -3,11 +3,14 @@ package com.skillstorm.hotelreservationsystem.controllers;
 import com.skillstorm.hotelreservationsystem.dto.BookingSearchRequest;
 import com.skillstorm.hotelreservationsystem.dto.BookingSearchResult;
 import com.skillstorm.hotelreservationsystem.models.Room;
+import com.skillstorm.hotelreservationsystem.services.LeanSearchResponseWriter;
 import com.skillstorm.hotelreservationsystem.services.RoomService;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -28,14 +31,17 @@ import java.util.List;
 public class RoomController {
 
     private final RoomService roomService;
+    private final LeanSearchResponseWriter leanSearchResponseWriter;
 
     /**
-     * Constructs a new RoomController with the specified service.
+     * Constructs a new RoomController with the specified services.
      *
      * @param roomService The service for room operations.
+     * @param leanSearchResponseWriter The writer for the lean search response shape.
      */
-    public RoomController(RoomService roomService) {
+    public RoomController(RoomService roomService, LeanSearchResponseWriter leanSearchResponseWriter) {
         this.roomService = roomService;
+        this.leanSearchResponseWriter = leanSearchResponseWriter;
     }
 
     /**
@@ -99,6 +105,87 @@ public class RoomController {
             @RequestParam(required = false) String pcTier,
             @RequestParam(required = false) List<String> consoles
     ) {
+        BookingSearchRequest request = toSearchRequest(checkIn, checkOut, guests, minPrice, maxPrice, minBeds, minBedrooms,
+                accessible, petFriendly, nonSmoking, hasJacuzzi, pcCount, pcTier, consoles);
+        return roomService.searchRoomTypes(request);
+    }
+
+    /**
+     * Searches for available rooms and returns them in a lean response shape.
+     * <p>
+     * Accepts the same parameters as {@code /rooms/search}, but each room type is written once per
+     * group and each room as its ID, number and attribute flags only. Room calendars are never
+     * serialized. The body is streamed by {@link LeanSearchResponseWriter}.
+     * </p>
+     *
+     * @param checkIn The desired check-in date.
+     * @param checkOut The desired check-out date.
+     * @param guests The number of guests.
+     * @param minPrice The minimum price per night.
+     * @param maxPrice The maximum price per night.
+     * @param minBeds The minimum number of beds required.
+     * @param minBedrooms The minimum number of bedrooms required.
+     * @param accessible Whether the room must be accessible.
+     * @param petFriendly Whether the room must allow pets.
+     * @param nonSmoking Whether the room must be non-smoking.
+     * @param hasJacuzzi Whether the room must have a jacuzzi.
+     * @param pcCount The required number of gaming PCs.
+     * @param pcTier The required PC performance tier.
+     * @param consoles The list of required gaming consoles.
+     * @return A ResponseEntity streaming the lean search results as JSON.
+     */
+    @GetMapping("/search/lean")
+    public ResponseEntity<StreamingResponseBody> searchRoomsLean(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut,
+            @RequestParam(required = false) Integer guests,
+            
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            
+            @RequestParam(required = false) Integer minBeds,
+            @RequestParam(required = false) Integer minBedrooms,
+
+            @RequestParam(required = false) Boolean accessible,
+            @RequestParam(required = false) Boolean petFriendly,
+            @RequestParam(required = false) Boolean nonSmoking,
+            @RequestParam(required = false) Boolean hasJacuzzi,
+            
+            @RequestParam(required = false) Integer pcCount,
+            @RequestParam(required = false) String pcTier,
+            @RequestParam(required = false) List<String> consoles
+    ) {
+        BookingSearchRequest request = toSearchRequest(checkIn, checkOut, guests, minPrice, maxPrice, minBeds, minBedrooms,
+                accessible, petFriendly, nonSmoking, hasJacuzzi, pcCount, pcTier, consoles);
+        List<BookingSearchResult> results = roomService.searchRoomTypes(request);
+
+        StreamingResponseBody body = out -> leanSearchResponseWriter.write(results, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Maps search query parameters to a {@link BookingSearchRequest}.
+     *
+     * @param checkIn The desired check-in date.
+     * @param checkOut The desired check-out date.
+     * @param guests The number of guests.
+     * @param minPrice The minimum price per night.
+     * @param maxPrice The maximum price per night.
+     * @param minBeds The minimum number of beds required.
+     * @param minBedrooms The minimum number of bedrooms required.
+     * @param accessible Whether the room must be accessible.
+     * @param petFriendly Whether the room must allow pets.
+     * @param nonSmoking Whether the room must be non-smoking.
+     * @param hasJacuzzi Whether the room must have a jacuzzi.
+     * @param pcCount The required number of gaming PCs.
+     * @param pcTier The required PC performance tier.
+     * @param consoles The list of required gaming consoles.
+     * @return The populated search request.
+     */
+    private BookingSearchRequest toSearchRequest(LocalDate checkIn, LocalDate checkOut, Integer guests,
+            Double minPrice, Double maxPrice, Integer minBeds, Integer minBedrooms,
+            Boolean accessible, Boolean petFriendly, Boolean nonSmoking, Boolean hasJacuzzi,
+            Integer pcCount, String pcTier, List<String> consoles) {
         // Map params to DTO
         BookingSearchRequest request = new BookingSearchRequest();
         request.setCheckInDate(checkIn);
@@ -115,7 +202,6 @@ public class RoomController {
         request.setPcCount(pcCount);
         request.setPcTier(pcTier);
         request.setConsoles(consoles);
-
-        return roomService.searchRoomTypes(request);
+        return request;
     }
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Data Transfer Object summarizing one room calendar compaction run.
+ *
+ * @param horizon Ranges ending before this date were archived.
+ * @param roomsCompacted The number of room documents that had ranges removed.
+ * @param rangesArchived The number of ranges moved to {@code room_calendar_history}.
+ * @param bytesReclaimed The approximate number of BSON bytes removed from room documents.
+ * @param durationMs How long the run took, in milliseconds.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record CalendarCompactionResult(
+        LocalDate horizon,
+        int roomsCompacted,
+        long rangesArchived,
+        long bytesReclaimed,
+        long durationMs
+) {}
@@ -0,0 +1,40 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Data Transfer Object describing the indexes of one MongoDB collection.
+ *
+ * @param collection The collection name.
+ * @param indexes The indexes that exist on the collection, with usage counters.
+ * @param missing The names of indexes declared on the entity that do not exist.
+ * @param unused The names of existing indexes (other than {@code _id_}) with no recorded accesses.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record IndexReport(
+        String collection,
+        List<IndexUsage> indexes,
+        List<String> missing,
+        List<String> unused
+) {
+
+    /**
+     * Usage counters for one index, from {@code $indexStats}.
+     *
+     * @param name The index name.
+     * @param key The index key specification as JSON.
+     * @param accesses The number of operations that used the index, or -1 if unknown.
+     * @param since When the counter started (the last server restart or index build).
+     * @param declared Whether the index is declared on the entity class.
+     */
+    public record IndexUsage(
+            String name,
+            String key,
+            long accesses,
+            Instant since,
+            boolean declared
+    ) {}
+}
@@ -0,0 +1,37 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+/**
+ * Data Transfer Object for mail delivery diagnostics.
+ * <p>
+ * Counters cover the current application node since startup; queue depths are read from
+ * the shared email outbox.
+ * </p>
+ *
+ * @param sent The number of messages delivered.
+ * @param failed The number of failed delivery attempts.
+ * @param batches The number of SMTP batches (connections) used.
+ * @param avgBatchSize The average number of messages per batch.
+ * @param avgSendMillisPerMessage The average SMTP time spent per delivered message, in milliseconds.
+ * @param messagesPerSecondWhileSending Delivery throughput while the transport was busy.
+ * @param messagesPerSecondOverall Delivery throughput averaged over the node's uptime.
+ * @param pending The number of outbox messages waiting to be delivered.
+ * @param dead The number of dead-lettered outbox messages.
+ * @param sentToday The number of rate limiter permits taken in the current UTC day.
+ * @param dailyQuota The configured daily sending quota.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record MailDiagnosticsResponse(
+        long sent,
+        long failed,
+        long batches,
+        double avgBatchSize,
+        double avgSendMillisPerMessage,
+        double messagesPerSecondWhileSending,
+        double messagesPerSecondOverall,
+        long pending,
+        long dead,
+        int sentToday,
+        int dailyQuota
+) {}
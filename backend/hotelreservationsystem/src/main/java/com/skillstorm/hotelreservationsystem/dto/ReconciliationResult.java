@@ -0,0 +1,19 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+/**
+ * Data Transfer Object summarizing one room occupancy reconciliation run.
+ *
+ * @param activeStays The number of CHECKED_IN reservations whose stay includes today.
+ * @param markedOccupied The number of rooms switched from vacant to occupied.
+ * @param markedVacant The number of rooms switched from occupied to vacant.
+ * @param durationMs How long the run took, in milliseconds.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record ReconciliationResult(
+        int activeStays,
+        int markedOccupied,
+        int markedVacant,
+        long durationMs
+) {}
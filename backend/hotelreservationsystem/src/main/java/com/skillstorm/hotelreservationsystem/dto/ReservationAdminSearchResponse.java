@@ -8,6 +8,11 @@ import java.util.List;
  * This generic class provides a standardized format for paginated API responses,
  * containing the items for the current page along with pagination metadata.
  * </p>
+ * <p>
+ * Responses to keyset (cursor) searches carry a {@code nextCursor} for the following page.
+ * Their totals may be estimated ({@code totalExact} is false) or omitted, in which case
+ * {@code totalItems} and {@code totalPages} are -1.
+ * </p>
  *
  * @param <T> The type of items in the response.
  *
@@ -40,6 +45,28 @@ public class ReservationAdminSearchResponse<T> {
      */
     private int totalPages;
 
+    /**
+     * The cursor for the next page in keyset mode, or null if this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Whether {@code totalItems} is an exact count rather than an estimate.
+     */
+    private boolean totalExact;
+
+    /**
+     * How the total item count of a search is computed.
+     */
+    public enum TotalMode {
+        /** Count every matching reservation. */
+        EXACT,
+        /** Use collection metadata or a capped count; cheaper but approximate. */
+        ESTIMATE,
+        /** Do not compute a total. */
+        NONE
+    }
+
     /**
      * Constructs a new ReservationAdminSearchResponse with the specified pagination data.
      *
@@ -55,6 +82,26 @@ public class ReservationAdminSearchResponse<T> {
         this.size = size;
         this.totalItems = totalItems;
         this.totalPages = totalPages;
+        this.totalExact = true;
+    }
+
+    /**
+     * Constructs a new ReservationAdminSearchResponse for a keyset (cursor) search.
+     *
+     * @param items The list of items for the current page.
+     * @param size The number of items per page.
+     * @param totalItems The total number of items, or -1 if not computed.
+     * @param totalExact Whether the total is exact.
+     * @param nextCursor The cursor for the next page, or null if this is the last page.
+     */
+    public ReservationAdminSearchResponse(List<T> items, int size, long totalItems, boolean totalExact, String nextCursor) {
+        this.items = items;
+        this.page = 0;
+        this.size = size;
+        this.totalItems = totalItems;
+        this.totalPages = (totalItems < 0 || size <= 0) ? -1 : (int) ((totalItems + size - 1) / size);
+        this.totalExact = totalExact;
+        this.nextCursor = nextCursor;
     }
 
     /**
@@ -101,4 +148,22 @@ public class ReservationAdminSearchResponse<T> {
     public int getTotalPages() { 
         return totalPages; 
     }
+
+    /**
+     * Gets the cursor for the next page.
+     *
+     * @return The next-page cursor, or null if there are no more pages or the search was not keyset-paginated.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether the total item count is exact.
+     *
+     * @return True if the total is exact; false if it is estimated or not computed.
+     */
+    public boolean isTotalExact() {
+        return totalExact;
+    }
 }
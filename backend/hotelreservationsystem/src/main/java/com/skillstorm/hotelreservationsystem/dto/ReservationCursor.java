@@ -0,0 +1,114 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Sort;
+
+import com.skillstorm.hotelreservationsystem.models.Reservation;
+
+/**
+ * Position in a keyset-paginated employee reservation search.
+ * <p>
+ * This is a record class holding the sort field, sort direction, and the sort value and ID of the
+ * last reservation on a page. It is handed to clients as an opaque URL-safe Base64 string; the next
+ * page starts strictly after this (value, ID) pair. Only fields with a well-defined type can be
+ * used for keyset paging, see {@link #supports(String)}. The value is null when the last reservation
+ * has no value for the sort field (for example a missing check-in date); it is encoded as an empty
+ * string, and the search places such reservations where MongoDB sorts null, before every other value.
+ * </p>
+ *
+ * @param sortBy The field the search is sorted by.
+ * @param direction The sort direction.
+ * @param value The sort field value of the last reservation on the page, or null if it has none.
+ * @param id The ID of the last reservation on the page (the tie-breaker).
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record ReservationCursor(
+        String sortBy,
+        Sort.Direction direction,
+        Object value,
+        String id
+) {
+
+    /**
+     * Sortable fields and how to parse their encoded values.
+     */
+    private static final Map<String, Function<String, Object>> KEYSET_FIELDS = Map.of(
+            "checkIn", LocalDate::parse,
+            "checkOut", LocalDate::parse,
+            "totalPrice", Double::valueOf,
+            "guestCount", Integer::valueOf,
+            "id", s -> s
+    );
+
+    /**
+     * Checks whether a field can be used for keyset paging.
+     *
+     * @param sortBy The field name.
+     * @return True if the field is supported; false otherwise.
+     */
+    public static boolean supports(String sortBy) {
+        return KEYSET_FIELDS.containsKey(sortBy);
+    }
+
+    /**
+     * Builds the cursor pointing just after a reservation.
+     *
+     * @param sortBy The field the search is sorted by.
+     * @param direction The sort direction.
+     * @param last The last reservation on the page.
+     * @return The cursor for the next page.
+     */
+    public static ReservationCursor after(String sortBy, Sort.Direction direction, Reservation last) {
+        Object value = switch (sortBy) {
+            case "checkIn" -> last.getCheckIn();
+            case "checkOut" -> last.getCheckOut();
+            case "totalPrice" -> last.getTotalPrice();
+            case "guestCount" -> last.getGuestCount();
+            default -> last.getId();
+        };
+        return new ReservationCursor(sortBy, direction, value, last.getId());
+    }
+
+    /**
+     * Encodes this cursor as an opaque string.
+     *
+     * @return The URL-safe Base64 encoding of the cursor.
+     */
+    public String encode() {
+        String raw = sortBy + "\n" + direction.name() + "\n" + (value == null ? "" : value) + "\n" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @param encoded The opaque cursor string.
+     * @return The decoded cursor.
+     * @throws IllegalArgumentException if the string is not a valid cursor.
+     */
+    public static ReservationCursor decode(String encoded) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8).split("\n", -1);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed cursor.", e);
+        }
+        if (parts.length != 4 || !supports(parts[0])) {
+            throw new IllegalArgumentException("Malformed cursor.");
+        }
+
+        try {
+            Object value = parts[2].isEmpty() ? null : KEYSET_FIELDS.get(parts[0]).apply(parts[2]);
+            return new ReservationCursor(parts[0], Sort.Direction.valueOf(parts[1]), value, parts[3]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed cursor.", e);
+        }
+    }
+}
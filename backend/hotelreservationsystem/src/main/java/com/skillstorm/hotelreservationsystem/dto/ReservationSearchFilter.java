@@ -0,0 +1,40 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.skillstorm.hotelreservationsystem.models.Reservation;
+
+/**
+ * Data Transfer Object holding the resolved filters of an employee reservation search.
+ * <p>
+ * This is a record class passed to the search methods of {@code ReservationRepositoryCustom}.
+ * Guest emails have already been resolved to a user ID, and guest name/email prefixes to a list of user IDs. A room type is matched against the
+ * {@code roomTypeId} stored on each reservation, or, until older reservations have been backfilled,
+ * resolved to a list of room IDs. All fields are optional.
+ * </p>
+ *
+ * @param reservationId The unique identifier of the reservation to search for.
+ * @param userId The unique identifier of the user to filter by.
+ * @param userIds A list of user IDs to filter by (any user in the list); an empty list matches nothing.
+ * @param roomTypeId The room type ID to filter by.
+ * @param roomIds A list of room IDs to filter by (any room in the list); an empty list matches nothing.
+ * @param status The reservation status to filter by.
+ * @param currentlyCheckedIn Whether to filter by check-in status.
+ * @param from The start date for date range filtering.
+ * @param to The end date for date range filtering.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record ReservationSearchFilter(
+        String reservationId,
+        String userId,
+        List<String> userIds,
+        String roomTypeId,
+        List<String> roomIds,
+        Reservation.ReservationStatus status,
+        Boolean currentlyCheckedIn,
+        LocalDate from,
+        LocalDate to
+) {}
@@ -0,0 +1,36 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Data Transfer Object describing the room-level predicates of a booking search.
+ * <p>
+ * This is a record class passed to {@code RoomRepositoryCustom.searchRooms}, which turns every
+ * non-null field into a server-side query predicate. Availability can be expressed as an
+ * explicit list of candidate room IDs, a list of booked room IDs to exclude, or a date range
+ * checked against the room calendars; the candidate list is combined with one of the other two.
+ * </p>
+ *
+ * @param roomTypeIds The room types to include, or null for any type.
+ * @param accessible The required accessibility status, or null for either.
+ * @param petFriendly The required pet-friendly status, or null for either.
+ * @param nonSmoking The required non-smoking status, or null for either.
+ * @param includeIds The only room IDs that may be returned, or null for no restriction.
+ * @param excludeIds Room IDs that must not be returned, or null for none.
+ * @param availableFrom The check-in date the room calendar must be free from, or null to skip the calendar check.
+ * @param availableTo The check-out date the room calendar must be free until, or null to skip the calendar check.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record RoomSearchFilter(
+        Collection<String> roomTypeIds,
+        Boolean accessible,
+        Boolean petFriendly,
+        Boolean nonSmoking,
+        Collection<String> includeIds,
+        Collection<String> excludeIds,
+        LocalDate availableFrom,
+        LocalDate availableTo
+) {}
@@ -0,0 +1,25 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+import java.time.Instant;
+
+/**
+ * Data Transfer Object for room type catalog cache statistics.
+ *
+ * @param size The number of room types in the current snapshot.
+ * @param hits The number of lookups answered from the snapshot.
+ * @param misses The number of lookups that had to query MongoDB.
+ * @param hitRatio The fraction of lookups answered from the snapshot.
+ * @param reloads The number of times the snapshot has been rebuilt.
+ * @param loadedAt The time the current snapshot was built.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record RoomTypeCatalogStats(
+        int size,
+        long hits,
+        long misses,
+        double hitRatio,
+        long reloads,
+        Instant loadedAt
+) {}
@@ -0,0 +1,27 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+/**
+ * Data Transfer Object for room search result cache statistics.
+ *
+ * @param size The number of searches currently cached.
+ * @param hits The number of searches answered from the cache.
+ * @param misses The number of searches that ran against the database.
+ * @param hitRatio The fraction of searches answered from the cache.
+ * @param coalesced The number of callers that shared another caller's in-flight search instead of running their own.
+ * @param joinTimeouts The number of callers that stopped waiting for an in-flight search and ran their own.
+ * @param inFlight The number of searches running right now.
+ * @param inventoryVersion The current inventory version; it increases on every availability-changing write.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record SearchCacheStats(
+        int size,
+        long hits,
+        long misses,
+        double hitRatio,
+        long coalesced,
+        long joinTimeouts,
+        int inFlight,
+        long inventoryVersion
+) {}
@@ -0,0 +1,27 @@
+package com.skillstorm.hotelreservationsystem.dto;
+
+/**
+ * Data Transfer Object for the transaction metrics of one booking flow.
+ *
+ * @param flow The flow name, e.g. "createReservation".
+ * @param transactional Whether the flow runs in MongoDB transactions (false when transactions are disabled).
+ * @param committed The number of calls that committed.
+ * @param failed The number of calls that gave up, after any retries.
+ * @param aborts The number of attempts that were rolled back, including ones that were retried.
+ * @param retries The number of attempts replayed after a transient transaction error.
+ * @param avgLatencyMs The mean latency of committed calls, including retries, in milliseconds.
+ * @param maxLatencyMs The highest latency of a committed call, in milliseconds.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public record TransactionStats(
+        String flow,
+        boolean transactional,
+        long committed,
+        long failed,
+        long aborts,
+        long retries,
+        double avgLatencyMs,
+        double maxLatencyMs
+) {}
@@ -0,0 +1,385 @@
+package com.skillstorm.hotelreservationsystem.models;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents an outgoing email waiting to be delivered.
+ * <p>
+ * This class maps to the "email_outbox" collection in MongoDB. Booking flows render their
+ * notification emails into this collection instead of talking to the SMTP server, and a
+ * background worker pool claims and delivers them. Failed deliveries are retried with
+ * exponential backoff and moved to {@code DEAD} once the retry budget is spent.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Document(collection = "email_outbox")
+@CompoundIndexes({
+    @CompoundIndex(name = "outbox_due", def = "{ 'status': 1, 'nextAttemptAt': 1 }"),
+    @CompoundIndex(name = "outbox_lease", def = "{ 'status': 1, 'lockedUntil': 1 }")
+})
+public class EmailOutboxMessage {
+
+    /**
+     * Default constructor for the EmailOutboxMessage class.
+     */
+    public EmailOutboxMessage() {
+    }
+
+    /**
+     * Constructs a new pending EmailOutboxMessage that is due immediately.
+     *
+     * @param fromEmail The sender address.
+     * @param toEmail The recipient address.
+     * @param subject The email subject.
+     * @param body The plain-text email body.
+     */
+    public EmailOutboxMessage(String fromEmail, String toEmail, String subject, String body) {
+        Instant now = Instant.now();
+        this.fromEmail = fromEmail;
+        this.toEmail = toEmail;
+        this.subject = subject;
+        this.body = body;
+        this.status = OutboxStatus.PENDING;
+        this.attempts = 0;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+
+    /**
+     * The unique identifier for the message.
+     * Automatically generated by MongoDB.
+     */
+    @Id
+    private String id;
+
+    /**
+     * The sender address.
+     */
+    private String fromEmail;
+
+    /**
+     * The recipient address.
+     */
+    private String toEmail;
+
+    /**
+     * The email subject.
+     */
+    private String subject;
+
+    /**
+     * The plain-text email body.
+     */
+    private String body;
+
+    /**
+     * The delivery state of the message.
+     */
+    private OutboxStatus status;
+
+    /**
+     * The number of delivery attempts that have been started.
+     */
+    private int attempts;
+
+    /**
+     * The earliest time at which the next delivery attempt may start.
+     */
+    private Instant nextAttemptAt;
+
+    /**
+     * The time at which a worker's claim on a {@code SENDING} message expires.
+     * A message whose lease has expired (for example because its node crashed) is claimed again.
+     */
+    private Instant lockedUntil;
+
+    /**
+     * The error from the most recent failed attempt.
+     */
+    private String lastError;
+
+    /**
+     * The time the message was enqueued.
+     */
+    private Instant createdAt;
+
+    /**
+     * The time the message was delivered.
+     */
+    private Instant sentAt;
+
+    /**
+     * Optional key identifying the logical notification, for example {@code stay-completed:<reservationId>}.
+     * The unique sparse index makes a second enqueue of the same notification fail with a duplicate
+     * key error, so jobs that may be re-run can enqueue without sending an email twice.
+     */
+    @Indexed(name = "outbox_dedupe_key", unique = true, sparse = true)
+    private String dedupeKey;
+
+    /**
+     * Enumeration of outbox delivery states.
+     */
+    public enum OutboxStatus {
+        /** Waiting for its next delivery attempt. */
+        PENDING,
+        /** Claimed by a worker and being delivered. */
+        SENDING,
+        /** Delivered to the mail server. */
+        SENT,
+        /** Gave up after exhausting all retries. */
+        DEAD
+    }
+
+    /**
+     * Returns a string representation of the EmailOutboxMessage.
+     *
+     * @return A string containing the message's ID, recipient, subject, and delivery state.
+     */
+    @Override
+    public String toString() {
+        return "EmailOutboxMessage [id=" + id + ", toEmail=" + toEmail + ", subject=" + subject + ", status=" + status
+                + ", attempts=" + attempts + ", nextAttemptAt=" + nextAttemptAt + ", lastError=" + lastError + "]";
+    }
+
+    /**
+     * Gets the unique identifier of the message.
+     *
+     * @return The MongoDB ObjectId as a String.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the message.
+     *
+     * @param id The new MongoDB ObjectId.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the sender address.
+     *
+     * @return The sender address.
+     */
+    public String getFromEmail() {
+        return fromEmail;
+    }
+
+    /**
+     * Sets the sender address.
+     *
+     * @param fromEmail The new sender address.
+     */
+    public void setFromEmail(String fromEmail) {
+        this.fromEmail = fromEmail;
+    }
+
+    /**
+     * Gets the recipient address.
+     *
+     * @return The recipient address.
+     */
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    /**
+     * Sets the recipient address.
+     *
+     * @param toEmail The new recipient address.
+     */
+    public void setToEmail(String toEmail) {
+        this.toEmail = toEmail;
+    }
+
+    /**
+     * Gets the email subject.
+     *
+     * @return The subject.
+     */
+    public String getSubject() {
+        return subject;
+    }
+
+    /**
+     * Sets the email subject.
+     *
+     * @param subject The new subject.
+     */
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    /**
+     * Gets the plain-text email body.
+     *
+     * @return The body.
+     */
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * Sets the plain-text email body.
+     *
+     * @param body The new body.
+     */
+    public void setBody(String body) {
+        this.body = body;
+    }
+
+    /**
+     * Gets the delivery state of the message.
+     *
+     * @return The delivery state.
+     */
+    public OutboxStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the delivery state of the message.
+     *
+     * @param status The new delivery state.
+     */
+    public void setStatus(OutboxStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Gets the number of delivery attempts that have been started.
+     *
+     * @return The attempt count.
+     */
+    public int getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * Sets the number of delivery attempts that have been started.
+     *
+     * @param attempts The new attempt count.
+     */
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Gets the earliest time of the next delivery attempt.
+     *
+     * @return The next attempt time.
+     */
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    /**
+     * Sets the earliest time of the next delivery attempt.
+     *
+     * @param nextAttemptAt The new next attempt time.
+     */
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    /**
+     * Gets the time at which the current worker's claim expires.
+     *
+     * @return The lease expiry, or null if not claimed.
+     */
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+
+    /**
+     * Sets the time at which the current worker's claim expires.
+     *
+     * @param lockedUntil The new lease expiry.
+     */
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
+
+    /**
+     * Gets the error from the most recent failed attempt.
+     *
+     * @return The last error message, or null.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Sets the error from the most recent failed attempt.
+     *
+     * @param lastError The new error message.
+     */
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    /**
+     * Gets the time the message was enqueued.
+     *
+     * @return The creation time.
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the time the message was enqueued.
+     *
+     * @param createdAt The new creation time.
+     */
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Gets the time the message was delivered.
+     *
+     * @return The delivery time, or null if not yet sent.
+     */
+    public Instant getSentAt() {
+        return sentAt;
+    }
+
+    /**
+     * Sets the time the message was delivered.
+     *
+     * @param sentAt The new delivery time.
+     */
+    public void setSentAt(Instant sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    /**
+     * Gets the deduplication key of the message.
+     *
+     * @return The deduplication key, or null if the message has none.
+     */
+    public String getDedupeKey() {
+        return dedupeKey;
+    }
+
+    /**
+     * Sets the deduplication key of the message.
+     *
+     * @param dedupeKey The new deduplication key.
+     */
+    public void setDedupeKey(String dedupeKey) {
+        this.dedupeKey = dedupeKey;
+    }
+}
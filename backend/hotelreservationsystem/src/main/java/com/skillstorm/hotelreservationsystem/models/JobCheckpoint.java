@@ -0,0 +1,248 @@
+package com.skillstorm.hotelreservationsystem.models;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents the progress of a chunked background job.
+ * <p>
+ * This class maps to the "job_checkpoints" collection in MongoDB, with one document per job.
+ * A job saves its checkpoint after every chunk it finishes; if the process stops mid-run, the
+ * next run finds an unfinished checkpoint and continues after {@code lastId} with the same
+ * {@code cutoff} instead of starting over.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Document(collection = "job_checkpoints")
+public class JobCheckpoint {
+
+    /**
+     * Default constructor for the JobCheckpoint class.
+     */
+    public JobCheckpoint() {
+    }
+
+    /**
+     * Constructs a new JobCheckpoint for a run that is just starting.
+     *
+     * @param job The job name.
+     * @param cutoff The date the run selects documents against.
+     */
+    public JobCheckpoint(String job, LocalDate cutoff) {
+        Instant now = Instant.now();
+        this.job = job;
+        this.cutoff = cutoff;
+        this.startedAt = now;
+        this.updatedAt = now;
+    }
+
+    /**
+     * The job name, used as the document ID.
+     */
+    @Id
+    private String job;
+
+    /**
+     * The date the run selects documents against, kept fixed for the whole run.
+     */
+    private LocalDate cutoff;
+
+    /**
+     * The ID of the last document handled, or null if no chunk has finished yet.
+     */
+    private String lastId;
+
+    /**
+     * The number of documents handled so far in this run.
+     */
+    private long processed;
+
+    /**
+     * The number of notifications queued so far in this run.
+     */
+    private long notified;
+
+    /**
+     * The time the run started.
+     */
+    private Instant startedAt;
+
+    /**
+     * The time the checkpoint was last saved.
+     */
+    private Instant updatedAt;
+
+    /**
+     * The time the run finished, or null while it is in progress.
+     */
+    private Instant completedAt;
+
+    /**
+     * Returns a string representation of the JobCheckpoint.
+     *
+     * @return A string containing the job, cutoff, position, and counters.
+     */
+    @Override
+    public String toString() {
+        return "JobCheckpoint [job=" + job + ", cutoff=" + cutoff + ", lastId=" + lastId + ", processed=" + processed
+                + ", notified=" + notified + ", completedAt=" + completedAt + "]";
+    }
+
+    /**
+     * Indicates whether the run has finished.
+     *
+     * @return True if the run completed; false if it is in progress or was interrupted.
+     */
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+
+    /**
+     * Gets the job name.
+     *
+     * @return The job name.
+     */
+    public String getJob() {
+        return job;
+    }
+
+    /**
+     * Sets the job name.
+     *
+     * @param job The new job name.
+     */
+    public void setJob(String job) {
+        this.job = job;
+    }
+
+    /**
+     * Gets the date the run selects documents against.
+     *
+     * @return The cutoff date.
+     */
+    public LocalDate getCutoff() {
+        return cutoff;
+    }
+
+    /**
+     * Sets the date the run selects documents against.
+     *
+     * @param cutoff The new cutoff date.
+     */
+    public void setCutoff(LocalDate cutoff) {
+        this.cutoff = cutoff;
+    }
+
+    /**
+     * Gets the ID of the last document handled.
+     *
+     * @return The last ID, or null if no chunk has finished yet.
+     */
+    public String getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Sets the ID of the last document handled.
+     *
+     * @param lastId The new last ID.
+     */
+    public void setLastId(String lastId) {
+        this.lastId = lastId;
+    }
+
+    /**
+     * Gets the number of documents handled so far.
+     *
+     * @return The processed count.
+     */
+    public long getProcessed() {
+        return processed;
+    }
+
+    /**
+     * Sets the number of documents handled so far.
+     *
+     * @param processed The new processed count.
+     */
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    /**
+     * Gets the number of notifications queued so far.
+     *
+     * @return The notified count.
+     */
+    public long getNotified() {
+        return notified;
+    }
+
+    /**
+     * Sets the number of notifications queued so far.
+     *
+     * @param notified The new notified count.
+     */
+    public void setNotified(long notified) {
+        this.notified = notified;
+    }
+
+    /**
+     * Gets the time the run started.
+     *
+     * @return The start time.
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Sets the time the run started.
+     *
+     * @param startedAt The new start time.
+     */
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Gets the time the checkpoint was last saved.
+     *
+     * @return The last update time.
+     */
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Sets the time the checkpoint was last saved.
+     *
+     * @param updatedAt The new last update time.
+     */
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Gets the time the run finished.
+     *
+     * @return The completion time, or null while in progress.
+     */
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    /**
+     * Sets the time the run finished.
+     *
+     * @param completedAt The new completion time.
+     */
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+}
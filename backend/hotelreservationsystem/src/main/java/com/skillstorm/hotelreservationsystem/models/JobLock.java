@@ -0,0 +1,130 @@
+package com.skillstorm.hotelreservationsystem.models;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents the lease on a scheduled job shared by all application nodes.
+ * <p>
+ * This class maps to the "job_locks" collection in MongoDB, with one document per job. A node
+ * may run the job only while it holds the lease, that is, after it has atomically set itself as
+ * {@code holder} on a document whose {@code lockUntil} has passed.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Document(collection = "job_locks")
+public class JobLock {
+
+    /**
+     * Default constructor for the JobLock class.
+     */
+    public JobLock() {
+    }
+
+    /**
+     * The job name, used as the document ID.
+     */
+    @Id
+    private String job;
+
+    /**
+     * The identity of the node holding (or that last held) the lease.
+     */
+    private String holder;
+
+    /**
+     * The time the lease was acquired.
+     */
+    private Instant lockedAt;
+
+    /**
+     * The time the lease expires and another node may acquire it.
+     */
+    private Instant lockUntil;
+
+    /**
+     * Returns a string representation of the JobLock.
+     *
+     * @return A string containing the job, holder, and lease times.
+     */
+    @Override
+    public String toString() {
+        return "JobLock [job=" + job + ", holder=" + holder + ", lockedAt=" + lockedAt + ", lockUntil=" + lockUntil + "]";
+    }
+
+    /**
+     * Gets the job name.
+     *
+     * @return The job name.
+     */
+    public String getJob() {
+        return job;
+    }
+
+    /**
+     * Sets the job name.
+     *
+     * @param job The new job name.
+     */
+    public void setJob(String job) {
+        this.job = job;
+    }
+
+    /**
+     * Gets the identity of the lease holder.
+     *
+     * @return The holder identity.
+     */
+    public String getHolder() {
+        return holder;
+    }
+
+    /**
+     * Sets the identity of the lease holder.
+     *
+     * @param holder The new holder identity.
+     */
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    /**
+     * Gets the time the lease was acquired.
+     *
+     * @return The acquisition time.
+     */
+    public Instant getLockedAt() {
+        return lockedAt;
+    }
+
+    /**
+     * Sets the time the lease was acquired.
+     *
+     * @param lockedAt The new acquisition time.
+     */
+    public void setLockedAt(Instant lockedAt) {
+        this.lockedAt = lockedAt;
+    }
+
+    /**
+     * Gets the time the lease expires.
+     *
+     * @return The expiry time.
+     */
+    public Instant getLockUntil() {
+        return lockUntil;
+    }
+
+    /**
+     * Sets the time the lease expires.
+     *
+     * @param lockUntil The new expiry time.
+     */
+    public void setLockUntil(Instant lockUntil) {
+        this.lockUntil = lockUntil;
+    }
+}
@@ -0,0 +1,277 @@
+package com.skillstorm.hotelreservationsystem.models;
+
+import java.time.Instant;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents one execution of a scheduled job.
+ * <p>
+ * This class maps to the "job_runs" collection in MongoDB. A run is recorded by the node that
+ * acquired the job's lease; nodes that found the lease held do not record anything.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Document(collection = "job_runs")
+@CompoundIndexes({
+    @CompoundIndex(name = "job_runs_recent", def = "{ 'job': 1, 'startedAt': -1 }"),
+    @CompoundIndex(name = "job_runs_started", def = "{ 'startedAt': -1 }")
+})
+public class JobRun {
+
+    /**
+     * Default constructor for the JobRun class.
+     */
+    public JobRun() {
+    }
+
+    /**
+     * Constructs a new JobRun that is starting now.
+     *
+     * @param job The job name.
+     * @param holder The identity of the node running the job.
+     */
+    public JobRun(String job, String holder) {
+        this.job = job;
+        this.holder = holder;
+        this.startedAt = Instant.now();
+        this.outcome = Outcome.RUNNING;
+    }
+
+    /**
+     * The unique identifier for the run.
+     * Automatically generated by MongoDB.
+     */
+    @Id
+    private String id;
+
+    /**
+     * The job name.
+     */
+    private String job;
+
+    /**
+     * The identity of the node that ran the job.
+     */
+    private String holder;
+
+    /**
+     * The time the run started.
+     */
+    private Instant startedAt;
+
+    /**
+     * The time the run finished, or null while it is running.
+     */
+    private Instant finishedAt;
+
+    /**
+     * How long the run took, in milliseconds.
+     */
+    private long durationMs;
+
+    /**
+     * The number of documents the run changed.
+     */
+    private long rowsTouched;
+
+    /**
+     * The result of the run.
+     */
+    private Outcome outcome;
+
+    /**
+     * The error message if the run failed.
+     */
+    private String error;
+
+    /**
+     * Enumeration of job run results.
+     */
+    public enum Outcome {
+        /** Started and not yet finished (or the node stopped mid-run). */
+        RUNNING,
+        /** Finished without an error. */
+        SUCCEEDED,
+        /** Stopped with an error. */
+        FAILED
+    }
+
+    /**
+     * Returns a string representation of the JobRun.
+     *
+     * @return A string containing the job, holder, timing, and outcome.
+     */
+    @Override
+    public String toString() {
+        return "JobRun [id=" + id + ", job=" + job + ", holder=" + holder + ", startedAt=" + startedAt + ", durationMs="
+                + durationMs + ", rowsTouched=" + rowsTouched + ", outcome=" + outcome + ", error=" + error + "]";
+    }
+
+    /**
+     * Gets the unique identifier of the run.
+     *
+     * @return The MongoDB ObjectId as a String.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the run.
+     *
+     * @param id The new MongoDB ObjectId.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the job name.
+     *
+     * @return The job name.
+     */
+    public String getJob() {
+        return job;
+    }
+
+    /**
+     * Sets the job name.
+     *
+     * @param job The new job name.
+     */
+    public void setJob(String job) {
+        this.job = job;
+    }
+
+    /**
+     * Gets the identity of the node that ran the job.
+     *
+     * @return The holder identity.
+     */
+    public String getHolder() {
+        return holder;
+    }
+
+    /**
+     * Sets the identity of the node that ran the job.
+     *
+     * @param holder The new holder identity.
+     */
+    public void setHolder(String holder) {
+        this.holder = holder;
+    }
+
+    /**
+     * Gets the time the run started.
+     *
+     * @return The start time.
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Sets the time the run started.
+     *
+     * @param startedAt The new start time.
+     */
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Gets the time the run finished.
+     *
+     * @return The finish time, or null while running.
+     */
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    /**
+     * Sets the time the run finished.
+     *
+     * @param finishedAt The new finish time.
+     */
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /**
+     * Gets how long the run took.
+     *
+     * @return The duration in milliseconds.
+     */
+    public long getDurationMs() {
+        return durationMs;
+    }
+
+    /**
+     * Sets how long the run took.
+     *
+     * @param durationMs The new duration in milliseconds.
+     */
+    public void setDurationMs(long durationMs) {
+        this.durationMs = durationMs;
+    }
+
+    /**
+     * Gets the number of documents the run changed.
+     *
+     * @return The rows touched.
+     */
+    public long getRowsTouched() {
+        return rowsTouched;
+    }
+
+    /**
+     * Sets the number of documents the run changed.
+     *
+     * @param rowsTouched The new rows touched.
+     */
+    public void setRowsTouched(long rowsTouched) {
+        this.rowsTouched = rowsTouched;
+    }
+
+    /**
+     * Gets the result of the run.
+     *
+     * @return The outcome.
+     */
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Sets the result of the run.
+     *
+     * @param outcome The new outcome.
+     */
+    public void setOutcome(Outcome outcome) {
+        this.outcome = outcome;
+    }
+
+    /**
+     * Gets the error message of a failed run.
+     *
+     * @return The error message, or null.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Sets the error message of a failed run.
+     *
+     * @param error The new error message.
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+}
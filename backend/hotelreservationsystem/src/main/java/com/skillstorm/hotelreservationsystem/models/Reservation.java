@@ -5,6 +5,8 @@ import java.time.LocalDate;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 /**
@@ -18,6 +20,15 @@ import org.springframework.data.mongodb.core.mapping.Document;
  * @version 1.0
  */
 @Document(collection = "reservations")
+@CompoundIndexes({
+    @CompoundIndex(name = "revenue_paid_at", def = "{ 'transaction.paidAt': 1, 'paymentStatus': 1, 'status': 1 }"),
+    @CompoundIndex(name = "admin_check_in", def = "{ 'checkIn': 1, '_id': 1 }"),
+    @CompoundIndex(name = "user_check_in", def = "{ 'userId': 1, 'checkIn': -1 }"),
+    @CompoundIndex(name = "room_check_in", def = "{ 'roomId': 1, 'checkIn': 1 }"),
+    @CompoundIndex(name = "room_type_check_in", def = "{ 'roomTypeId': 1, 'checkIn': 1 }"),
+    @CompoundIndex(name = "status_check_out", def = "{ 'status': 1, 'checkOut': 1 }"),
+    @CompoundIndex(name = "status_id", def = "{ 'status': 1, '_id': 1 }")
+})
 public class Reservation {
     
 
@@ -76,6 +87,17 @@ public class Reservation {
      */
     private String roomId;
 
+    /**
+     * The unique identifier of the reserved room's type, copied from the Room when the
+     * reservation is written so that room type filters are a single indexed equality match.
+     */
+    private String roomTypeId;
+
+    /**
+     * The number of the reserved room, copied from the Room when the reservation is written.
+     */
+    private String roomNumber;
+
     /**
      * The scheduled arrival date for the guest.
      */
@@ -563,6 +585,42 @@ public class Reservation {
         this.roomId = roomId; 
     }
 
+    /**
+     * Gets the room type ID of the reserved room.
+     *
+     * @return The room type ID.
+     */
+    public String getRoomTypeId() {
+        return roomTypeId;
+    }
+
+    /**
+     * Sets the room type ID of the reserved room.
+     *
+     * @param roomTypeId The new room type ID.
+     */
+    public void setRoomTypeId(String roomTypeId) {
+        this.roomTypeId = roomTypeId;
+    }
+
+    /**
+     * Gets the number of the reserved room.
+     *
+     * @return The room number.
+     */
+    public String getRoomNumber() {
+        return roomNumber;
+    }
+
+    /**
+     * Sets the number of the reserved room.
+     *
+     * @param roomNumber The new room number.
+     */
+    public void setRoomNumber(String roomNumber) {
+        this.roomNumber = roomNumber;
+    }
+
     /**
      * Gets the check-in date.
      *
@@ -0,0 +1,84 @@
+package com.skillstorm.hotelreservationsystem.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents the retained revenue for a single UTC day.
+ * <p>
+ * This class maps to the "revenue_daily" collection in MongoDB. It is a materialized rollup of
+ * the reservations collection: each document holds the sum of {@code transaction.amountCents} for
+ * reservations that count toward revenue and were paid on that day. Documents are maintained with
+ * atomic {@code $inc} updates as reservations are paid, cancelled, refunded or upgraded.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Document(collection = "revenue_daily")
+public class RevenueDaily {
+
+    /**
+     * Default constructor for the RevenueDaily class.
+     */
+    public RevenueDaily() {
+    }
+
+    /**
+     * The UTC day in "yyyy-MM-dd" format, used as the document ID.
+     * ISO dates sort lexicographically, so date ranges are plain string range queries on {@code _id}.
+     */
+    @Id
+    private String day;
+
+    /**
+     * The revenue retained for the day, in cents.
+     */
+    private long amountCents;
+
+    /**
+     * Returns a string representation of the RevenueDaily.
+     *
+     * @return A string containing the day and amount.
+     */
+    @Override
+    public String toString() {
+        return "RevenueDaily [day=" + day + ", amountCents=" + amountCents + "]";
+    }
+
+    /**
+     * Gets the day of this rollup entry.
+     *
+     * @return The day in "yyyy-MM-dd" format.
+     */
+    public String getDay() {
+        return day;
+    }
+
+    /**
+     * Sets the day of this rollup entry.
+     *
+     * @param day The day in "yyyy-MM-dd" format.
+     */
+    public void setDay(String day) {
+        this.day = day;
+    }
+
+    /**
+     * Gets the revenue retained for the day.
+     *
+     * @return The amount in cents.
+     */
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    /**
+     * Sets the revenue retained for the day.
+     *
+     * @param amountCents The amount in cents.
+     */
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+}
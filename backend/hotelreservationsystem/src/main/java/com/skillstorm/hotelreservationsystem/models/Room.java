@@ -5,6 +5,8 @@ import java.util.List;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -22,6 +24,11 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  * @version 1.0
  */
 @Document(collection = "rooms")
+@CompoundIndexes({
+    @CompoundIndex(name = "room_search", def = "{ 'roomTypeId': 1, 'accessible': 1, 'petFriendly': 1, 'nonSmoking': 1 }"),
+    @CompoundIndex(name = "room_number", def = "{ 'roomNumber': 1 }"),
+    @CompoundIndex(name = "room_occupied", def = "{ 'occupied': 1 }", partialFilter = "{ 'occupied': true }")
+})
 public class Room {
     
     /**
@@ -104,9 +111,18 @@ public class Room {
     /**
      * A list of date ranges during which this room cannot be booked.
      * This includes confirmed reservations and maintenance blocks.
+     * Entries are added and removed one at a time with {@code $push}/{@code $pull};
+     * the whole list is never rewritten by booking flows.
      */
     private List<UnavailableDate> unavailableDates;
 
+    /**
+     * Incremented by every write that changes {@code unavailableDates}, and returned with the
+     * updated document, so cached copies of the calendar can tell which snapshot is newer.
+     * Rooms written before this field existed read as version 0.
+     */
+    private long calendarVersion;
+
     // --- Inner Class for Dates ---
 
     /**
@@ -125,6 +141,32 @@ public class Room {
          */
         private LocalDate end;
 
+        /**
+         * The ID of the reservation holding this range, or null for maintenance blocks and
+         * ranges booked before the ID was recorded. Lets a cancellation {@code $pull} exactly
+         * its own entry.
+         */
+        private String reservationId;
+
+        /**
+         * Default constructor for the UnavailableDate class.
+         */
+        public UnavailableDate() {
+        }
+
+        /**
+         * Constructs a new UnavailableDate range held by a reservation.
+         *
+         * @param start The start date of the range.
+         * @param end   The end date of the range.
+         * @param reservationId The ID of the reservation holding the range.
+         */
+        public UnavailableDate(LocalDate start, LocalDate end, String reservationId) {
+            this.start = start;
+            this.end = end;
+            this.reservationId = reservationId;
+        }
+
         /**
          * Constructs a new UnavailableDate range.
          *
@@ -172,14 +214,32 @@ public class Room {
             this.end = end;
         }
 
+        /**
+         * Gets the ID of the reservation holding this range.
+         *
+         * @return The reservation ID, or null if none is recorded.
+         */
+        public String getReservationId() {
+            return reservationId;
+        }
+
+        /**
+         * Sets the ID of the reservation holding this range.
+         *
+         * @param reservationId The new reservation ID.
+         */
+        public void setReservationId(String reservationId) {
+            this.reservationId = reservationId;
+        }
+
         /**
          * Returns a string representation of the UnavailableDate.
          *
-         * @return A string containing the start and end dates.
+         * @return A string containing the start and end dates and the reservation ID.
          */
         @Override
         public String toString() {
-            return "UnavailableDate [start=" + start + ", end=" + end + "]";
+            return "UnavailableDate [start=" + start + ", end=" + end + ", reservationId=" + reservationId + "]";
         }
 
         /**
@@ -475,4 +535,22 @@ public class Room {
     public void setUnavailableDates(List<UnavailableDate> unavailableDates) {
         this.unavailableDates = unavailableDates;
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the version of the room's calendar.
+     *
+     * @return The number of calendar writes applied to this room.
+     */
+    public long getCalendarVersion() {
+        return calendarVersion;
+    }
+
+    /**
+     * Sets the version of the room's calendar.
+     *
+     * @param calendarVersion The calendar version.
+     */
+    public void setCalendarVersion(long calendarVersion) {
+        this.calendarVersion = calendarVersion;
+    }
+}
@@ -0,0 +1,185 @@
+package com.skillstorm.hotelreservationsystem.models;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents a past room calendar range moved out of its room document.
+ * <p>
+ * This class maps to the "room_calendar_history" collection in MongoDB. The calendar compaction
+ * job moves {@code Room.unavailableDates} entries that ended before its horizon here, so room
+ * documents only carry current and future ranges. The ID is derived from the room and the range,
+ * which makes archiving the same entry twice a no-op.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Document(collection = "room_calendar_history")
+@CompoundIndexes({
+    @CompoundIndex(name = "calendar_history_room", def = "{ 'roomId': 1, 'start': 1 }"),
+    @CompoundIndex(name = "calendar_history_reservation", def = "{ 'reservationId': 1 }", sparse = true)
+})
+public class RoomCalendarHistory {
+
+    /**
+     * Default constructor for the RoomCalendarHistory class.
+     */
+    public RoomCalendarHistory() {
+    }
+
+    /**
+     * The archive ID: {@code <roomId>:<start>:<end>:<reservationId or "-">}.
+     */
+    @Id
+    private String id;
+
+    /**
+     * The unique identifier of the room the range belonged to.
+     */
+    private String roomId;
+
+    /**
+     * The start date of the range.
+     */
+    private LocalDate start;
+
+    /**
+     * The end date of the range.
+     */
+    private LocalDate end;
+
+    /**
+     * The ID of the reservation that held the range, or null for maintenance and legacy ranges.
+     */
+    private String reservationId;
+
+    /**
+     * The time the range was archived.
+     */
+    private Instant archivedAt;
+
+    /**
+     * Returns a string representation of the RoomCalendarHistory.
+     *
+     * @return A string containing the room, range, and reservation ID.
+     */
+    @Override
+    public String toString() {
+        return "RoomCalendarHistory [id=" + id + ", roomId=" + roomId + ", start=" + start + ", end=" + end
+                + ", reservationId=" + reservationId + ", archivedAt=" + archivedAt + "]";
+    }
+
+    /**
+     * Gets the archive ID.
+     *
+     * @return The archive ID.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the archive ID.
+     *
+     * @param id The new archive ID.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the unique identifier of the room.
+     *
+     * @return The room ID.
+     */
+    public String getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Sets the unique identifier of the room.
+     *
+     * @param roomId The new room ID.
+     */
+    public void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
+    /**
+     * Gets the start date of the range.
+     *
+     * @return The start date.
+     */
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * Sets the start date of the range.
+     *
+     * @param start The new start date.
+     */
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    /**
+     * Gets the end date of the range.
+     *
+     * @return The end date.
+     */
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    /**
+     * Sets the end date of the range.
+     *
+     * @param end The new end date.
+     */
+    public void setEnd(LocalDate end) {
+        this.end = end;
+    }
+
+    /**
+     * Gets the ID of the reservation that held the range.
+     *
+     * @return The reservation ID, or null.
+     */
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    /**
+     * Sets the ID of the reservation that held the range.
+     *
+     * @param reservationId The new reservation ID.
+     */
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    /**
+     * Gets the time the range was archived.
+     *
+     * @return The archive time.
+     */
+    public Instant getArchivedAt() {
+        return archivedAt;
+    }
+
+    /**
+     * Sets the time the range was archived.
+     *
+     * @param archivedAt The new archive time.
+     */
+    public void setArchivedAt(Instant archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
@@ -0,0 +1,150 @@
+package com.skillstorm.hotelreservationsystem.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Represents a single booked night of a single room.
+ * <p>
+ * This class maps to the "room_nights" collection in MongoDB. Every night of a stay is stored
+ * as its own small document, and a unique index on (roomId, night) guarantees that a night can
+ * only ever be claimed once. It is maintained alongside {@code Room.unavailableDates} so that
+ * availability can be answered with an indexed range scan on {@code night}.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Document(collection = "room_nights")
+@CompoundIndexes({
+    @CompoundIndex(name = "room_night_unique", def = "{ 'roomId': 1, 'night': 1 }", unique = true),
+    @CompoundIndex(name = "night_room", def = "{ 'night': 1, 'roomId': 1 }")
+})
+public class RoomNight {
+
+    /**
+     * Default constructor for the RoomNight class.
+     */
+    public RoomNight() {
+    }
+
+    /**
+     * Constructs a new RoomNight claim.
+     *
+     * @param roomId The unique identifier of the booked room.
+     * @param night The booked night as an epoch day ({@code LocalDate.toEpochDay()}).
+     * @param reservationId The unique identifier of the reservation holding the night (may be null for legacy blocks).
+     */
+    public RoomNight(String roomId, long night, String reservationId) {
+        this.roomId = roomId;
+        this.night = night;
+        this.reservationId = reservationId;
+    }
+
+    /**
+     * The unique identifier for the claim.
+     * Automatically generated by MongoDB.
+     */
+    @Id
+    private String id;
+
+    /**
+     * The unique identifier of the booked room.
+     */
+    private String roomId;
+
+    /**
+     * The booked night, stored as the number of days since 1970-01-01.
+     * The night of a date is the night that starts on that date.
+     */
+    private long night;
+
+    /**
+     * The unique identifier of the reservation that holds this night.
+     */
+    private String reservationId;
+
+    /**
+     * Returns a string representation of the RoomNight.
+     *
+     * @return A string containing the room ID, night, and reservation ID.
+     */
+    @Override
+    public String toString() {
+        return "RoomNight [id=" + id + ", roomId=" + roomId + ", night=" + night + ", reservationId=" + reservationId + "]";
+    }
+
+    /**
+     * Gets the unique identifier of the claim.
+     *
+     * @return The MongoDB ObjectId as a String.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the unique identifier of the claim.
+     *
+     * @param id The new MongoDB ObjectId.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the room identifier.
+     *
+     * @return The room ID.
+     */
+    public String getRoomId() {
+        return roomId;
+    }
+
+    /**
+     * Sets the room identifier.
+     *
+     * @param roomId The new room ID.
+     */
+    public void setRoomId(String roomId) {
+        this.roomId = roomId;
+    }
+
+    /**
+     * Gets the booked night as an epoch day.
+     *
+     * @return The epoch day of the night.
+     */
+    public long getNight() {
+        return night;
+    }
+
+    /**
+     * Sets the booked night as an epoch day.
+     *
+     * @param night The new epoch day.
+     */
+    public void setNight(long night) {
+        this.night = night;
+    }
+
+    /**
+     * Gets the reservation identifier.
+     *
+     * @return The reservation ID, or null for legacy blocks.
+     */
+    public String getReservationId() {
+        return reservationId;
+    }
+
+    /**
+     * Sets the reservation identifier.
+     *
+     * @param reservationId The new reservation ID.
+     */
+    public void setReservationId(String reservationId) {
+        this.reservationId = reservationId;
+    }
+}
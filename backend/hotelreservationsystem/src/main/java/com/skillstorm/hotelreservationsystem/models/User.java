@@ -1,9 +1,13 @@
 package com.skillstorm.hotelreservationsystem.models;
 
+import java.util.List;
+
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  * Represents a registered user (guest) in the hotel reservation system.
  * <p>
@@ -58,6 +62,17 @@ public class User {
      */
     private String role;
 
+    /**
+     * Lowercase name and email tokens used for front desk prefix searches.
+     * <p>
+     * Maintained by {@code GuestSearchService}. Indexed as a multikey index so that an
+     * anchored prefix regex over it is an index range scan.
+     * </p>
+     */
+    @Indexed(name = "user_search_keys")
+    @JsonIgnore
+    private List<String> searchKeys;
+
     // --- Constructors ---
 
     /**
@@ -368,6 +383,24 @@ public class User {
         this.role = role;
     }
 
+    /**
+     * Gets the user's search keys.
+     *
+     * @return The lowercase name and email tokens.
+     */
+    public List<String> getSearchKeys() {
+        return searchKeys;
+    }
+
+    /**
+     * Sets the user's search keys.
+     *
+     * @param searchKeys The lowercase name and email tokens.
+     */
+    public void setSearchKeys(List<String> searchKeys) {
+        this.searchKeys = searchKeys;
+    }
+
 
 
     /**
@@ -0,0 +1,28 @@
+package com.skillstorm.hotelreservationsystem.repositories;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.skillstorm.hotelreservationsystem.models.EmailOutboxMessage;
+
+/**
+ * Repository interface for managing EmailOutboxMessage entities in MongoDB.
+ * <p>
+ * Messages are claimed and updated by {@code EmailOutboxService} through MongoTemplate;
+ * this repository covers enqueueing and status counts.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Repository
+public interface EmailOutboxRepository extends MongoRepository<EmailOutboxMessage, String> {
+
+    /**
+     * Counts the messages in a given delivery state.
+     *
+     * @param status The delivery state to count.
+     * @return The number of messages in that state.
+     */
+    long countByStatus(EmailOutboxMessage.OutboxStatus status);
+}
@@ -3,6 +3,7 @@ package com.skillstorm.hotelreservationsystem.repositories;
 import java.util.Optional;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.skillstorm.hotelreservationsystem.models.Employee;
@@ -43,4 +44,17 @@ public interface EmployeeRepository extends MongoRepository<Employee, String> {
      * @return True if an employee with this ID exists; false otherwise.
      */
     boolean existsByEmployeeId(String employeeId);
+
+    /**
+     * Loads only the fields that decide whether an employee can authenticate.
+     * <p>
+     * This is a single lookup by {@code _id} used to re-validate cached credentials, so the
+     * returned employee has just its email, password hash, roles and active flag populated.
+     * </p>
+     *
+     * @param id The MongoDB ID of the employee.
+     * @return An Optional containing the partially loaded Employee, or empty if it no longer exists.
+     */
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'email': 1, 'passwordHash': 1, 'roles': 1, 'isActive': 1 }")
+    Optional<Employee> findCredentialsById(String id);
 }
@@ -0,0 +1,36 @@
+package com.skillstorm.hotelreservationsystem.repositories;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.skillstorm.hotelreservationsystem.models.JobRun;
+
+/**
+ * Repository interface for managing JobRun entities in MongoDB.
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Repository
+public interface JobRunRepository extends MongoRepository<JobRun, String> {
+
+    /**
+     * Finds the most recent runs of every job.
+     *
+     * @param pageable The page size (results are newest first).
+     * @return The most recent runs.
+     */
+    List<JobRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+
+    /**
+     * Finds the most recent runs of one job.
+     *
+     * @param job The job name.
+     * @param pageable The page size (results are newest first).
+     * @return The most recent runs of the job.
+     */
+    List<JobRun> findByJobOrderByStartedAtDesc(String job, Pageable pageable);
+}
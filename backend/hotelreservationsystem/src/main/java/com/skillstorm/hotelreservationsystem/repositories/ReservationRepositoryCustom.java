@@ -1,11 +1,17 @@
 package com.skillstorm.hotelreservationsystem.repositories;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
+import org.bson.Document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import com.skillstorm.hotelreservationsystem.dto.ReservationCursor;
+import com.skillstorm.hotelreservationsystem.dto.ReservationSearchFilter;
 import com.skillstorm.hotelreservationsystem.models.Reservation;
 
 /**
@@ -24,28 +30,153 @@ public interface ReservationRepositoryCustom {
      * Performs an advanced search for reservations with multiple filter criteria.
      * <p>
      * This method supports pagination and allows filtering by reservation ID, user ID,
-     * room IDs, status, check-in state, and date ranges. All parameters are optional
+     * room type, room IDs, status, check-in state, and date ranges. All filters are optional
      * to allow flexible searching.
      * </p>
      *
-     * @param reservationId The unique identifier of the reservation to search for.
-     * @param userId The unique identifier of the user to filter by.
-     * @param roomIds A list of room IDs to filter by (any room in the list).
-     * @param status The reservation status to filter by.
-     * @param currentlyCheckedIn Whether to filter by check-in status.
-     * @param from The start date for date range filtering.
-     * @param to The end date for date range filtering.
+     * @param filter The resolved search filters.
      * @param pageable Pagination information (page number, size, sorting).
      * @return A page of reservations matching the search criteria.
      */
-    Page<Reservation> adminSearch(
-            String reservationId,
-            String userId,
-            List<String> roomIds,
-            Reservation.ReservationStatus status,
-            Boolean currentlyCheckedIn,
-            LocalDate from,
-            LocalDate to,
-            Pageable pageable
+    Page<Reservation> adminSearch(ReservationSearchFilter filter, Pageable pageable);
+
+    /**
+     * Finds one page of a reservation search using keyset pagination.
+     * <p>
+     * Results are sorted by {@code sortBy} and then by ID in the same direction, and start strictly
+     * after the cursor position. Unlike {@link #adminSearch} no documents are skipped and no count is
+     * run, so every page costs the same regardless of how deep it is.
+     * </p>
+     *
+     * @param filter The resolved search filters.
+     * @param sortBy The field to sort by; must be supported by {@link ReservationCursor#supports(String)}.
+     * @param direction The sort direction.
+     * @param after The position to continue after, or null for the first page.
+     * @param limit The maximum number of reservations to return.
+     * @return Up to {@code limit} reservations in sort order.
+     */
+    List<Reservation> adminSearchAfter(
+            ReservationSearchFilter filter,
+            String sortBy,
+            Sort.Direction direction,
+            ReservationCursor after,
+            int limit
     );
+
+    /**
+     * Counts the reservations matching a search.
+     * <p>
+     * With a positive {@code cap} the count is an estimate: an unfiltered search reads the collection
+     * size from metadata, and a filtered search stops counting at {@code cap}.
+     * </p>
+     *
+     * @param filter The resolved search filters.
+     * @param cap The most matches to count, or 0 for an exact count.
+     * @return The number of matching reservations.
+     */
+    long adminCount(ReservationSearchFilter filter, int cap);
+
+    /**
+     * Returns MongoDB's execution plan for the query {@link #adminSearch} would run.
+     * <p>
+     * The plan is produced with {@code executionStats} verbosity, so it shows the winning index,
+     * the number of keys and documents examined, and the execution time.
+     * </p>
+     *
+     * @param filter The resolved search filters.
+     * @param pageable Pagination information (page number, size, sorting).
+     * @return The explain output, or a short note if the filters short-circuit without querying.
+     */
+    Document explainAdminSearch(ReservationSearchFilter filter, Pageable pageable);
+
+    /**
+     * Sums retained revenue per calendar month using a server-side aggregation.
+     * <p>
+     * Only reservations with a PAID payment status in CONFIRMED, CHECKED_IN or COMPLETED status
+     * count. Transactions are bucketed by the UTC month of {@code transaction.paidAt}, and only
+     * the per-month totals are returned to the application.
+     * </p>
+     *
+     * @param from The first payment date to include (optional, null for no lower bound).
+     * @param to The payment date to stop before (optional, null for no upper bound).
+     * @return A map of "yyyy-MM" month keys to revenue in cents, sorted by month.
+     */
+    Map<String, Long> sumRevenueByMonth(LocalDate from, LocalDate to);
+
+    /**
+     * Recomputes retained revenue per UTC day and replaces the given collection with the result.
+     * <p>
+     * Uses the same filter as {@link #sumRevenueByMonth(LocalDate, LocalDate)} and writes one
+     * document per day ({@code _id} "yyyy-MM-dd", {@code amountCents}) with {@code $out}, which
+     * swaps the collection in atomically once the aggregation has finished.
+     * </p>
+     *
+     * @param collectionName The collection to replace.
+     */
+    void writeRevenueByDay(String collectionName);
+
+    /**
+     * Atomically moves a CONFIRMED reservation to CHECKED_IN if today falls within its stay.
+     * <p>
+     * The status and date checks and the update are a single {@code findAndModify}, so two desk
+     * agents checking in the same reservation cannot both succeed.
+     * </p>
+     *
+     * @param reservationId The unique identifier of the reservation.
+     * @param today The current date; the stay must satisfy {@code checkIn <= today < checkOut}.
+     * @param checkedInAt The check-in timestamp to record.
+     * @return The updated reservation, or null if it does not exist or the conditions did not hold.
+     */
+    Reservation markCheckedIn(String reservationId, LocalDate today, Instant checkedInAt);
+
+    /**
+     * Atomically moves a CHECKED_IN reservation back to CONFIRMED and clears its check-in timestamp.
+     * <p>
+     * Used to undo a check-in whose room could not be claimed when no transaction is active.
+     * </p>
+     *
+     * @param reservationId The unique identifier of the reservation.
+     * @return The updated reservation, or null if it is not CHECKED_IN.
+     */
+    Reservation revertCheckIn(String reservationId);
+
+    /**
+     * Atomically moves a reservation from one status to another.
+     *
+     * @param reservationId The unique identifier of the reservation.
+     * @param from The status the reservation must currently have.
+     * @param to The new status.
+     * @return The updated reservation, or null if it does not exist or is not in the expected status.
+     */
+    Reservation transitionStatus(String reservationId, Reservation.ReservationStatus from, Reservation.ReservationStatus to);
+
+    /**
+     * Atomically cancels a CONFIRMED reservation.
+     * <p>
+     * Only matches while the reservation is still CONFIRMED, so of two concurrent cancellations
+     * only one takes effect.
+     * </p>
+     *
+     * @param reservationId The unique identifier of the reservation.
+     * @param status The new status, CANCELLED or REFUNDED.
+     * @param paymentStatus The new payment status.
+     * @param transaction The updated payment transaction, or null to leave it unchanged.
+     * @return The updated reservation, or null if it does not exist or is no longer CONFIRMED.
+     */
+    Reservation markCancelled(String reservationId, Reservation.ReservationStatus status,
+            Reservation.PaymentStatus paymentStatus, Reservation.PaymentTransaction transaction);
+
+    /**
+     * Records the Stripe refund ID on a refunded reservation's payment transaction.
+     * <p>
+     * Only matches a REFUNDED reservation whose transaction is still the refunded payment
+     * intent and has no refund ID yet.
+     * </p>
+     *
+     * @param reservationId The unique identifier of the reservation.
+     * @param paymentIntentId The refunded payment intent.
+     * @param refundId The Stripe refund ID.
+     * @return True if the refund ID was recorded; false otherwise.
+     */
+    boolean recordRefundId(String reservationId, String paymentIntentId, String refundId);
 }
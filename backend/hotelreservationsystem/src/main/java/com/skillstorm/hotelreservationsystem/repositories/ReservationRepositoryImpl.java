@@ -1,17 +1,36 @@
 package com.skillstorm.hotelreservationsystem.repositories;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.bson.Document;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
+import com.mongodb.ExplainVerbosity;
+
+import com.skillstorm.hotelreservationsystem.dto.ReservationCursor;
+import com.skillstorm.hotelreservationsystem.dto.ReservationSearchFilter;
 import com.skillstorm.hotelreservationsystem.models.Reservation;
 
 /**
@@ -43,36 +62,327 @@ public class ReservationRepositoryImpl implements ReservationRepositoryCustom {
      * {@inheritDoc}
      */
     @Override
-    public Page<Reservation> adminSearch(
-            String reservationId,
-            String userId,
-            List<String> roomIds,
-            Reservation.ReservationStatus status,
-            Boolean currentlyCheckedIn,
-            LocalDate from,
-            LocalDate to,
-            Pageable pageable
+    public Page<Reservation> adminSearch(ReservationSearchFilter filter, Pageable pageable) {
+        if (matchesNothing(filter)) {
+            // If a roomType or guest filter produced no IDs, return empty quickly
+            return Page.empty(pageable);
+        }
+
+        Query query = new Query();
+        List<Criteria> criteriaList = adminCriteria(filter);
+        if (!criteriaList.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteriaList));
+        }
+
+        long total = mongoTemplate.count(query, Reservation.class);
+
+        Query paged = query.with(pageable);
+        List<Reservation> items = mongoTemplate.find(paged, Reservation.class);
+
+        return new PageImpl<>(items, pageable, total);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Reservation> adminSearchAfter(
+            ReservationSearchFilter filter,
+            String sortBy,
+            Sort.Direction direction,
+            ReservationCursor after,
+            int limit
     ) {
+        if (matchesNothing(filter)) {
+            return new ArrayList<>();
+        }
+
+        List<Criteria> criteriaList = adminCriteria(filter);
+        String field = "id".equals(sortBy) ? "_id" : sortBy;
+
+        // Keyset condition: (field beyond value) OR (field == value AND _id beyond id)
+        if (after != null) {
+            boolean asc = direction.isAscending();
+            Criteria idBeyond = asc ? Criteria.where("_id").gt(after.id()) : Criteria.where("_id").lt(after.id());
+            if ("_id".equals(field)) {
+                criteriaList.add(idBeyond);
+            } else if (after.value() == null) {
+                // Null and missing sort before every value: ascending, all non-null values are still
+                // ahead; descending, only the remaining nulls are
+                Criteria sameNull = new Criteria().andOperator(Criteria.where(field).is(null), idBeyond);
+                criteriaList.add(asc
+                        ? new Criteria().orOperator(Criteria.where(field).ne(null), sameNull)
+                        : sameNull);
+            } else {
+                List<Criteria> beyond = new ArrayList<>();
+                beyond.add(asc ? Criteria.where(field).gt(after.value()) : Criteria.where(field).lt(after.value()));
+                beyond.add(new Criteria().andOperator(Criteria.where(field).is(after.value()), idBeyond));
+                if (!asc) {
+                    // $lt does not match null, which comes last in a descending sort
+                    beyond.add(Criteria.where(field).is(null));
+                }
+                criteriaList.add(new Criteria().orOperator(beyond));
+            }
+        }
+
+        Query query = new Query();
+        if (!criteriaList.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteriaList));
+        }
+        Sort sort = "_id".equals(field)
+                ? Sort.by(direction, "_id")
+                : Sort.by(direction, field).and(Sort.by(direction, "_id"));
+        query.with(sort).limit(limit);
+
+        return mongoTemplate.find(query, Reservation.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long adminCount(ReservationSearchFilter filter, int cap) {
+        if (matchesNothing(filter)) {
+            return 0;
+        }
+
+        List<Criteria> criteriaList = adminCriteria(filter);
+        if (cap > 0 && criteriaList.isEmpty()) {
+            return mongoTemplate.estimatedCount(Reservation.class);
+        }
+
+        Query query = new Query();
+        if (!criteriaList.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteriaList));
+        }
+        if (cap > 0) {
+            query.limit(cap);
+        }
+        return mongoTemplate.count(query, Reservation.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Document explainAdminSearch(ReservationSearchFilter filter, Pageable pageable) {
+        if (matchesNothing(filter)) {
+            return new Document("note", "Room type or guest filter matched nothing; no query is run.");
+        }
+
+        Query query = new Query();
+        List<Criteria> criteriaList = adminCriteria(filter);
+        if (!criteriaList.isEmpty()) {
+            query.addCriteria(new Criteria().andOperator(criteriaList));
+        }
+        query.with(pageable);
+
+        // Map field names and values (enums, dates, ObjectIds) exactly as find() would
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getPersistentEntity(Reservation.class);
+        Document mappedQuery = mapper.getMappedObject(query.getQueryObject(), entity);
+        Document mappedSort = mapper.getMappedSort(query.getSortObject(), entity);
+
+        return mongoTemplate.getCollection(mongoTemplate.getCollectionName(Reservation.class))
+                .find(mappedQuery)
+                .sort(mappedSort)
+                .skip((int) query.getSkip())
+                .limit(query.getLimit())
+                .explain(ExplainVerbosity.EXECUTION_STATS);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<String, Long> sumRevenueByMonth(LocalDate from, LocalDate to) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(revenueCriteria(from, to)),
+                Aggregation.project()
+                        .and(paidAtFormatted("%Y-%m")).as("month")
+                        .and("transaction.amountCents").as("cents"),
+                Aggregation.group("month").sum("cents").as("totalCents")
+        );
+
+        AggregationResults<Document> results = mongoTemplate.aggregate(aggregation, "reservations", Document.class);
+
+        Map<String, Long> byMonth = new TreeMap<>();
+        for (Document row : results.getMappedResults()) {
+            Number cents = row.get("totalCents", Number.class);
+            byMonth.put(row.getString("_id"), cents == null ? 0L : cents.longValue());
+        }
+        return byMonth;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void writeRevenueByDay(String collectionName) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(revenueCriteria(null, null)),
+                Aggregation.project()
+                        .and(paidAtFormatted("%Y-%m-%d")).as("day")
+                        .and("transaction.amountCents").as("cents"),
+                Aggregation.group("day").sum("cents").as("amountCents"),
+                Aggregation.out(collectionName)
+        );
+
+        mongoTemplate.aggregate(aggregation, "reservations", Document.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Reservation markCheckedIn(String reservationId, LocalDate today, Instant checkedInAt) {
+        Query query = new Query(Criteria.where("_id").is(reservationId)
+                .and("status").is(Reservation.ReservationStatus.CONFIRMED)
+                .and("checkIn").lte(today)
+                .and("checkOut").gt(today));
+        Update update = new Update()
+                .set("status", Reservation.ReservationStatus.CHECKED_IN)
+                .set("checkedInAt", checkedInAt);
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Reservation.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Reservation revertCheckIn(String reservationId) {
+        Query query = new Query(Criteria.where("_id").is(reservationId)
+                .and("status").is(Reservation.ReservationStatus.CHECKED_IN));
+        Update update = new Update()
+                .set("status", Reservation.ReservationStatus.CONFIRMED)
+                .unset("checkedInAt");
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Reservation.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Reservation transitionStatus(String reservationId, Reservation.ReservationStatus from, Reservation.ReservationStatus to) {
+        Query query = new Query(Criteria.where("_id").is(reservationId).and("status").is(from));
+        return mongoTemplate.findAndModify(query, new Update().set("status", to),
+                FindAndModifyOptions.options().returnNew(true), Reservation.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Reservation markCancelled(String reservationId, Reservation.ReservationStatus status,
+            Reservation.PaymentStatus paymentStatus, Reservation.PaymentTransaction transaction) {
+        Query query = new Query(Criteria.where("_id").is(reservationId)
+                .and("status").is(Reservation.ReservationStatus.CONFIRMED));
+        Update update = new Update()
+                .set("status", status)
+                .set("paymentStatus", paymentStatus);
+        if (transaction != null) {
+            update.set("transaction", transaction);
+        }
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Reservation.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean recordRefundId(String reservationId, String paymentIntentId, String refundId) {
+        Query query = new Query(Criteria.where("_id").is(reservationId)
+                .and("status").is(Reservation.ReservationStatus.REFUNDED)
+                .and("transaction.transactionId").is(paymentIntentId)
+                .and("transaction.refundId").is(null));
+        return mongoTemplate.updateFirst(query, new Update().set("transaction.refundId", refundId), Reservation.class)
+                .getModifiedCount() > 0;
+    }
+
+    /**
+     * Builds the filter for reservations that count toward retained revenue.
+     * <p>
+     * Only PAID reservations in CONFIRMED, CHECKED_IN or COMPLETED status count. The range is applied
+     * to {@code transaction.paidAt}, the leading field of the revenue_paid_at index.
+     * </p>
+     *
+     * @param from The first payment date to include (optional).
+     * @param to The payment date to stop before (optional).
+     * @return The match criteria.
+     */
+    private Criteria revenueCriteria(LocalDate from, LocalDate to) {
+        Criteria paidAt = Criteria.where("transaction.paidAt");
+        if (from != null) {
+            paidAt = paidAt.gte(Date.from(from.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        }
+        if (to != null) {
+            paidAt = paidAt.lt(Date.from(to.atStartOfDay(ZoneOffset.UTC).toInstant()));
+        }
+        if (from == null && to == null) {
+            paidAt = paidAt.ne(null);
+        }
+
+        return paidAt
+                .and("paymentStatus").is(Reservation.PaymentStatus.PAID.name())
+                .and("status").in(
+                        Reservation.ReservationStatus.CONFIRMED.name(),
+                        Reservation.ReservationStatus.CHECKED_IN.name(),
+                        Reservation.ReservationStatus.COMPLETED.name()
+                );
+    }
+
+    /**
+     * Formats {@code transaction.paidAt} as a UTC date string.
+     *
+     * @param format The {@code $dateToString} format.
+     * @return The date expression.
+     */
+    private DateOperators.DateToString paidAtFormatted(String format) {
+        return DateOperators.DateToString.dateOf("transaction.paidAt")
+                .toString(format)
+                .withTimezone(DateOperators.Timezone.valueOf("UTC"));
+    }
+
+    /**
+     * Checks whether a search filter can match no reservations at all.
+     *
+     * @param filter The resolved search filters.
+     * @return True if a room or guest filter resolved to an empty list of IDs.
+     */
+    private boolean matchesNothing(ReservationSearchFilter filter) {
+        return (filter.roomIds() != null && filter.roomIds().isEmpty())
+                || (filter.userIds() != null && filter.userIds().isEmpty());
+    }
+
+    /**
+     * Builds the query criteria for an employee reservation search.
+     *
+     * @param filter The resolved search filters.
+     * @return The criteria to AND together; empty if the search is unfiltered.
+     */
+    private List<Criteria> adminCriteria(ReservationSearchFilter filter) {
         List<Criteria> criteriaList = new ArrayList<>();
 
-        if (reservationId != null && !reservationId.isBlank()) {
-            criteriaList.add(Criteria.where("_id").is(reservationId));
+        if (filter.reservationId() != null && !filter.reservationId().isBlank()) {
+            criteriaList.add(Criteria.where("_id").is(filter.reservationId()));
         }
-        if (userId != null && !userId.isBlank()) {
-            criteriaList.add(Criteria.where("userId").is(userId));
+        if (filter.userId() != null && !filter.userId().isBlank()) {
+            criteriaList.add(Criteria.where("userId").is(filter.userId()));
         }
-        if (roomIds != null) {
-            if (roomIds.isEmpty()) {
-                // If roomType filter produced no rooms, return empty quickly
-                return Page.empty(pageable);
-            }
-            criteriaList.add(Criteria.where("roomId").in(roomIds));
+        if (filter.userIds() != null) {
+            criteriaList.add(Criteria.where("userId").in(filter.userIds()));
         }
-        if (status != null) {
-            criteriaList.add(Criteria.where("status").is(status));
+        if (filter.roomTypeId() != null && !filter.roomTypeId().isBlank()) {
+            criteriaList.add(Criteria.where("roomTypeId").is(filter.roomTypeId()));
         }
-        if (currentlyCheckedIn != null) {
-            if (currentlyCheckedIn) {
+        if (filter.roomIds() != null) {
+            criteriaList.add(Criteria.where("roomId").in(filter.roomIds()));
+        }
+        if (filter.status() != null) {
+            criteriaList.add(Criteria.where("status").is(filter.status()));
+        }
+        if (filter.currentlyCheckedIn() != null) {
+            if (filter.currentlyCheckedIn()) {
                 criteriaList.add(Criteria.where("status").is(Reservation.ReservationStatus.CHECKED_IN));
             } else {
                 criteriaList.add(Criteria.where("status").ne(Reservation.ReservationStatus.CHECKED_IN));
@@ -80,6 +390,8 @@ public class ReservationRepositoryImpl implements ReservationRepositoryCustom {
         }
 
         // Date overlap filter: (checkIn < to) AND (checkOut > from)
+        LocalDate from = filter.from();
+        LocalDate to = filter.to();
         if (from != null && to != null) {
             criteriaList.add(new Criteria().andOperator(
                     Criteria.where("checkIn").lt(to),
@@ -91,16 +403,6 @@ public class ReservationRepositoryImpl implements ReservationRepositoryCustom {
             criteriaList.add(Criteria.where("checkIn").lt(to));
         }
 
-        Query query = new Query();
-        if (!criteriaList.isEmpty()) {
-            query.addCriteria(new Criteria().andOperator(criteriaList));
-        }
-
-        long total = mongoTemplate.count(query, Reservation.class);
-
-        Query paged = query.with(pageable);
-        List<Reservation> items = mongoTemplate.find(paged, Reservation.class);
-
-        return new PageImpl<>(items, pageable, total);
+        return criteriaList;
     }
 }
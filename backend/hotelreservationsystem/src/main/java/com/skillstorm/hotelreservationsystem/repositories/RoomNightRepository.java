@@ -0,0 +1,65 @@
+package com.skillstorm.hotelreservationsystem.repositories;
+
+import java.util.List;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.skillstorm.hotelreservationsystem.models.RoomNight;
+
+/**
+ * Repository interface for RoomNight entities.
+ * <p>
+ * Provides access to the "room_nights" collection, where each booked night of each room
+ * is a separate document protected by a unique (roomId, night) index.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Repository
+public interface RoomNightRepository extends MongoRepository<RoomNight, String> {
+
+    /**
+     * Finds the booked nights that fall within a range, returning only their room IDs.
+     * <p>
+     * Served entirely from the (night, roomId) index.
+     * </p>
+     *
+     * @param fromNight The first night of the range as an epoch day (inclusive).
+     * @param toNight The last night of the range as an epoch day (exclusive).
+     * @return The booked nights in the range, with only {@code roomId} populated.
+     */
+    @Query(value = "{ 'night': { $gte: ?0, $lt: ?1 } }", fields = "{ 'roomId': 1, '_id': 0 }")
+    List<RoomNight> findBookedInRange(long fromNight, long toNight);
+
+    /**
+     * Deletes the booked nights of a room within a range.
+     *
+     * @param roomId The unique identifier of the room.
+     * @param fromNight The first night to release as an epoch day (inclusive).
+     * @param toNight The last night to release as an epoch day (exclusive).
+     * @return The number of nights released.
+     */
+    @Query(value = "{ 'roomId': ?0, 'night': { $gte: ?1, $lt: ?2 } }", delete = true)
+    long releaseNights(String roomId, long fromNight, long toNight);
+
+    /**
+     * Deletes every night of a room held by a specific reservation.
+     *
+     * @param roomId The unique identifier of the room.
+     * @param reservationId The unique identifier of the reservation.
+     * @return The number of nights released.
+     */
+    @Query(value = "{ 'roomId': ?0, 'reservationId': ?1 }", delete = true)
+    long releaseReservationNights(String roomId, String reservationId);
+
+    /**
+     * Deletes every booked night of a room.
+     *
+     * @param roomId The unique identifier of the deleted room.
+     * @return The number of nights deleted.
+     */
+    long deleteByRoomId(String roomId);
+}
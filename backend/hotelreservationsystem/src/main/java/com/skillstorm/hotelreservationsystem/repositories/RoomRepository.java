@@ -1,6 +1,7 @@
 package com.skillstorm.hotelreservationsystem.repositories;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -14,14 +15,15 @@ import com.skillstorm.hotelreservationsystem.models.Room;
  * <p>
  * Provides basic CRUD operations and custom query methods for accessing
  * room data in MongoDB. Includes specialized queries for availability checking,
- * filtering by attributes, and occupancy tracking.
+ * filtering by attributes, and occupancy tracking. Extends custom repository interface
+ * for atomic calendar updates.
  * </p>
  *
  * @author SkillStorm
  * @version 1.0
  */
 @Repository
-public interface RoomRepository extends MongoRepository<Room, String> {
+public interface RoomRepository extends MongoRepository<Room, String>, RoomRepositoryCustom {
 
     /**
      * Finds all rooms available for a given date range.
@@ -38,6 +40,15 @@ public interface RoomRepository extends MongoRepository<Room, String> {
     @Query("{ 'unavailableDates': { $not: { $elemMatch: { 'start': { $lt: ?1 }, 'end': { $gt: ?0 } } } } }")
     List<Room> findAvailableRooms(LocalDate checkIn, LocalDate checkOut);
 
+    /**
+     * Finds all rooms except those with IDs in the provided collection.
+     * Used to list available rooms once the booked room IDs are known.
+     *
+     * @param ids The room IDs to exclude from the results.
+     * @return A list of rooms not in the exclusion list.
+     */
+    List<Room> findByIdNotIn(Collection<String> ids);
+
     /**
      * Finds all rooms with a specific accessibility status.
      *
@@ -0,0 +1,97 @@
+package com.skillstorm.hotelreservationsystem.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import com.skillstorm.hotelreservationsystem.dto.RoomSearchFilter;
+import com.skillstorm.hotelreservationsystem.models.Room;
+
+/**
+ * Custom repository interface for room calendar operations and searches.
+ * <p>
+ * This interface defines atomic, conditional updates and dynamic queries that cannot be expressed with
+ * Spring Data's method name-based query generation. The implementation is provided
+ * by {@code RoomRepositoryImpl}.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public interface RoomRepositoryCustom {
+    /**
+     * Atomically books a date range on a room if it does not overlap any existing range.
+     * <p>
+     * The overlap check and the push of the new {@code UnavailableDate} are performed by a single
+     * {@code findAndModify}, so two concurrent requests for overlapping dates cannot both succeed.
+     * Overlap logic: (BookedStart &lt; ReqEnd) AND (BookedEnd &gt; ReqStart)
+     * The same update increments {@code calendarVersion}.
+     * </p>
+     *
+     * @param roomId The unique identifier of the room to book.
+     * @param reservationId The ID of the reservation holding the range.
+     * @param start The first night of the stay (check-in date).
+     * @param end The check-out date.
+     * @return The room with its updated calendar, or null if the room does not exist or the dates are taken.
+     */
+    Room claimDates(String roomId, String reservationId, LocalDate start, LocalDate end);
+
+    /**
+     * Removes a reservation's date range from a room calendar with a single {@code $pull}.
+     * <p>
+     * The entry is matched by reservation ID. Entries written before reservation IDs were recorded
+     * are matched by their exact start and end dates instead. Only the removed entry is written,
+     * however long the calendar is. The same update increments {@code calendarVersion}.
+     * </p>
+     *
+     * @param roomId The unique identifier of the room.
+     * @param reservationId The ID of the reservation whose range is removed.
+     * @param start The first night of the stay.
+     * @param end The check-out date.
+     * @return The room with its updated calendar, or null if the room does not exist.
+     */
+    Room releaseDates(String roomId, String reservationId, LocalDate start, LocalDate end);
+
+    /**
+     * Sets individual fields of a room with a single {@code $set}, leaving every other field,
+     * including the calendar, untouched.
+     *
+     * @param roomId The unique identifier of the room.
+     * @param fields The field names and their new values.
+     * @return The updated room, or null if the room does not exist.
+     */
+    Room setFields(String roomId, Map<String, Object> fields);
+
+    /**
+     * Finds the rooms matching a booking search, evaluating every predicate in MongoDB.
+     * <p>
+     * Only the non-null fields of the filter become predicates. The booking calendar
+     * ({@code unavailableDates}) is projected out of the results, so the returned rooms
+     * carry their attributes but not their history.
+     * </p>
+     *
+     * @param filter The room-level search predicates.
+     * @return The matching rooms, without their {@code unavailableDates}.
+     */
+    List<Room> searchRooms(RoomSearchFilter filter);
+
+    /**
+     * Atomically marks a room as occupied if it is currently vacant.
+     * <p>
+     * The vacancy check and the update are a single {@code findAndModify}, so of two concurrent
+     * check-ins to the same room only one can succeed.
+     * </p>
+     *
+     * @param roomId The unique identifier of the room.
+     * @return The updated room, or null if the room does not exist or is already occupied.
+     */
+    Room markOccupied(String roomId);
+
+    /**
+     * Atomically marks a room as vacant if it is currently occupied.
+     *
+     * @param roomId The unique identifier of the room.
+     * @return The updated room, or null if the room does not exist or is already vacant.
+     */
+    Room markVacant(String roomId);
+}
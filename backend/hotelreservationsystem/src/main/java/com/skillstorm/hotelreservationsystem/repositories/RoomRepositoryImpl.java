@@ -0,0 +1,163 @@
+package com.skillstorm.hotelreservationsystem.repositories;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import com.skillstorm.hotelreservationsystem.dto.RoomSearchFilter;
+import com.skillstorm.hotelreservationsystem.models.Room;
+
+/**
+ * Implementation of the custom room repository interface.
+ * <p>
+ * This class provides atomic calendar and occupancy updates and filtered searches using MongoTemplate,
+ * so booking decisions and search predicates are evaluated by MongoDB rather than in the JVM.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Repository
+public class RoomRepositoryImpl implements RoomRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs a new RoomRepositoryImpl with the specified MongoTemplate.
+     *
+     * @param mongoTemplate The MongoTemplate for executing MongoDB queries.
+     */
+    public RoomRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Room claimDates(String roomId, String reservationId, LocalDate start, LocalDate end) {
+        // Only match the room if none of its ranges overlap the requested stay
+        Query query = new Query(Criteria.where("_id").is(roomId)
+                .and("unavailableDates").not().elemMatch(
+                        Criteria.where("start").lt(end).and("end").gt(start)
+                ));
+
+        Update update = new Update().push("unavailableDates", new Room.UnavailableDate(start, end, reservationId))
+                .inc("calendarVersion", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Room.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Room releaseDates(String roomId, String reservationId, LocalDate start, LocalDate end) {
+        // Exact match on the owner, or on the dates for entries that predate reservation IDs
+        Document entry = new Document("$or", List.of(
+                new Document("reservationId", reservationId),
+                new Document("start", start).append("end", end).append("reservationId", null)
+        ));
+
+        Update update = new Update().pull("unavailableDates", entry).inc("calendarVersion", 1);
+
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(roomId)), update,
+                FindAndModifyOptions.options().returnNew(true), Room.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Room setFields(String roomId, Map<String, Object> fields) {
+        Update update = new Update();
+        fields.forEach(update::set);
+
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(roomId)), update,
+                FindAndModifyOptions.options().returnNew(true), Room.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Room> searchRooms(RoomSearchFilter filter) {
+        // Equality predicates first so they line up with the room_search compound index
+        List<Criteria> predicates = new ArrayList<>();
+        if (filter.roomTypeIds() != null) {
+            predicates.add(Criteria.where("roomTypeId").in(filter.roomTypeIds()));
+        }
+        if (filter.accessible() != null) {
+            predicates.add(flag("accessible", filter.accessible()));
+        }
+        if (filter.petFriendly() != null) {
+            predicates.add(flag("petFriendly", filter.petFriendly()));
+        }
+        if (filter.nonSmoking() != null) {
+            predicates.add(flag("nonSmoking", filter.nonSmoking()));
+        }
+        if (filter.includeIds() != null) {
+            predicates.add(Criteria.where("_id").in(filter.includeIds()));
+        }
+        if (filter.excludeIds() != null && !filter.excludeIds().isEmpty()) {
+            predicates.add(Criteria.where("_id").nin(filter.excludeIds()));
+        }
+        if (filter.availableFrom() != null && filter.availableTo() != null) {
+            predicates.add(Criteria.where("unavailableDates").not().elemMatch(
+                    Criteria.where("start").lt(filter.availableTo()).and("end").gt(filter.availableFrom())
+            ));
+        }
+
+        Query query = predicates.isEmpty()
+                ? new Query()
+                : new Query(new Criteria().andOperator(predicates));
+        query.fields().exclude("unavailableDates");
+
+        return mongoTemplate.find(query, Room.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Room markOccupied(String roomId) {
+        // Missing and false both count as vacant
+        Query query = new Query(Criteria.where("_id").is(roomId).and("occupied").ne(true));
+        return mongoTemplate.findAndModify(query, new Update().set("occupied", true),
+                FindAndModifyOptions.options().returnNew(true), Room.class);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Room markVacant(String roomId) {
+        Query query = new Query(Criteria.where("_id").is(roomId).and("occupied").is(true));
+        return mongoTemplate.findAndModify(query, new Update().set("occupied", false),
+                FindAndModifyOptions.options().returnNew(true), Room.class);
+    }
+
+    /**
+     * Builds the predicate for a boolean room attribute.
+     * <p>
+     * A missing field reads as false on the {@link Room} model, so a false filter matches
+     * anything that is not {@code true} rather than only an explicit {@code false}.
+     * </p>
+     *
+     * @param field The attribute name.
+     * @param value The required value.
+     * @return The predicate.
+     */
+    private static Criteria flag(String field, boolean value) {
+        return value ? Criteria.where(field).is(true) : Criteria.where(field).ne(true);
+    }
+}
@@ -32,14 +32,17 @@ import java.util.Optional;
 public class CustomOAuth2UserService extends OidcUserService {
 
     private final UserRepository userRepository;
+    private final GuestSearchService guestSearchService;
 
     /**
      * Constructs the CustomOAuth2UserService with the necessary repository.
      *
      * @param userRepository The repository used to CRUD user data in MongoDB.
+     * @param guestSearchService The service that maintains the users' front desk search keys.
      */
-    public CustomOAuth2UserService(UserRepository userRepository) {
+    public CustomOAuth2UserService(UserRepository userRepository, GuestSearchService guestSearchService) {
         this.userRepository = userRepository;
+        this.guestSearchService = guestSearchService;
     }
     /**
      * Loads the user from the OAuth2 provider and synchronizes their data with the local database.
@@ -81,11 +84,13 @@ public class CustomOAuth2UserService extends OidcUserService {
             } else {
                 user.setAuth(new User.AuthProvider("google", providerId, picture));
             }
+            guestSearchService.applySearchKeys(user);
             userRepository.save(user);
         } else {
             // Create new user
             User.AuthProvider auth = new User.AuthProvider("google", providerId, picture);
             User newUser = new User(email, firstName, lastName, auth, "ROLE_USER");
+            guestSearchService.applySearchKeys(newUser);
             userRepository.save(newUser);
         }
 
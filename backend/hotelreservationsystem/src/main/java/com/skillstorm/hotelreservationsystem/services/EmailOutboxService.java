@@ -0,0 +1,449 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotelreservationsystem.dto.MailDiagnosticsResponse;
+import com.skillstorm.hotelreservationsystem.models.EmailOutboxMessage;
+import com.skillstorm.hotelreservationsystem.models.EmailOutboxMessage.OutboxStatus;
+import com.skillstorm.hotelreservationsystem.repositories.EmailOutboxRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service class for the transactional email outbox.
+ * <p>
+ * Booking flows call {@link #enqueue(SimpleMailMessage)}, which is a single insert into the
+ * {@code email_outbox} collection, so request latency no longer depends on the SMTP server.
+ * A scheduled poller claims due messages with a leased {@code findAndModify} (safe across
+ * several application nodes) and hands them to a bounded worker pool for delivery. Each worker
+ * delivers a batch of messages with one {@code send} call, which {@code JavaMailSenderImpl}
+ * sends over a single authenticated SMTP connection instead of reconnecting per message.
+ * </p>
+ * <p>
+ * Failed deliveries are retried with exponential backoff and jitter; after the configured
+ * number of attempts a message is moved to {@code DEAD} and kept for inspection. A
+ * {@link MailRateLimiter} permit is taken before each claim so the provider's per-second and
+ * daily limits are never exceeded.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final MongoTemplate mongoTemplate;
+    private final JavaMailSender mailSender;
+    private final MailRateLimiter rateLimiter;
+
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final int batchSize;
+
+    /**
+     * Bounded pool that performs SMTP deliveries off the request threads.
+     */
+    private final ThreadPoolExecutor workers;
+
+    /**
+     * One permit per worker thread, so the poller never claims more messages than it can run.
+     */
+    private final Semaphore capacity;
+
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong sendNanos = new AtomicLong();
+    private final Instant startedAt = Instant.now();
+
+    /**
+     * Constructs a new EmailOutboxService with the required dependencies and settings.
+     *
+     * @param emailOutboxRepository The repository used to enqueue messages.
+     * @param mongoTemplate The MongoTemplate used to claim and update messages.
+     * @param mailSender The JavaMailSender that delivers messages.
+     * @param rateLimiter The limiter for the mail provider's sending limits.
+     * @param workerCount The number of delivery worker threads.
+     * @param maxAttempts The number of attempts before a message is dead-lettered.
+     * @param baseBackoffMs The delay before the first retry, in milliseconds.
+     * @param maxBackoffMs The maximum delay between retries, in milliseconds.
+     * @param leaseMs How long a claimed message is reserved for its worker, in milliseconds.
+     * @param batchSize The maximum number of messages a worker sends over one connection.
+     */
+    public EmailOutboxService(
+            EmailOutboxRepository emailOutboxRepository,
+            MongoTemplate mongoTemplate,
+            JavaMailSender mailSender,
+            MailRateLimiter rateLimiter,
+            @Value("${app.mail.outbox.workers:2}") int workerCount,
+            @Value("${app.mail.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${app.mail.outbox.base-backoff-ms:30000}") long baseBackoffMs,
+            @Value("${app.mail.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+            @Value("${app.mail.outbox.lease-ms:120000}") long leaseMs,
+            @Value("${app.mail.outbox.batch-size:20}") int batchSize
+    ) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.mailSender = mailSender;
+        this.rateLimiter = rateLimiter;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofMillis(baseBackoffMs);
+        this.maxBackoff = Duration.ofMillis(maxBackoffMs);
+        this.lease = Duration.ofMillis(leaseMs);
+        this.batchSize = Math.max(1, batchSize);
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(
+                workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount),
+                r -> {
+                    Thread t = new Thread(r, "email-outbox-" + threadIds.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+        );
+        this.capacity = new Semaphore(workerCount);
+    }
+
+    /**
+     * Adds a rendered message to the outbox for asynchronous delivery.
+     *
+     * @param message The message to deliver.
+     * @return The stored outbox entry.
+     */
+    public EmailOutboxMessage enqueue(SimpleMailMessage message) {
+        return emailOutboxRepository.insert(toOutboxMessage(message));
+    }
+
+    /**
+     * Adds many rendered messages to the outbox with a single insert.
+     *
+     * @param messages The messages to deliver.
+     * @return The stored outbox entries.
+     */
+    public List<EmailOutboxMessage> enqueueAll(List<SimpleMailMessage> messages) {
+        if (messages == null || messages.isEmpty()) return List.of();
+        return emailOutboxRepository.insert(messages.stream().map(this::toOutboxMessage).toList());
+    }
+
+    /**
+     * Adds many rendered messages to the outbox, skipping any whose deduplication key was already enqueued.
+     * <p>
+     * The messages are written with one unordered bulk insert. Duplicate key errors on the
+     * {@code dedupeKey} index mean the notification is already in the outbox and are ignored;
+     * any other write error is rethrown.
+     * </p>
+     *
+     * @param messagesByKey The messages to deliver, keyed by their deduplication key.
+     * @return The number of messages newly enqueued.
+     */
+    public int enqueueAllOnce(Map<String, SimpleMailMessage> messagesByKey) {
+        if (messagesByKey == null || messagesByKey.isEmpty()) return 0;
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, EmailOutboxMessage.class);
+        for (Map.Entry<String, SimpleMailMessage> entry : messagesByKey.entrySet()) {
+            EmailOutboxMessage message = toOutboxMessage(entry.getValue());
+            message.setDedupeKey(entry.getKey());
+            bulk.insert(message);
+        }
+
+        try {
+            return bulk.execute().getInsertedCount();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors().stream().allMatch(error -> error.getCode() == 11000);
+            if (!onlyDuplicates) throw e;
+            return e.getResult().getInsertedCount();
+        }
+    }
+
+    /**
+     * Claims due messages and dispatches them to the worker pool in batches.
+     * <p>
+     * Stops when all workers are busy, the rate limiter has no permit, or nothing is due.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-ms:2000}")
+    public void poll() {
+        while (capacity.tryAcquire()) {
+            List<EmailOutboxMessage> batch = claimBatch();
+            if (batch.isEmpty()) {
+                capacity.release();
+                return;
+            }
+
+            workers.execute(() -> {
+                try {
+                    deliver(batch);
+                } finally {
+                    capacity.release();
+                }
+            });
+
+            if (batch.size() < batchSize) return;
+        }
+    }
+
+    /**
+     * Sends a batch of messages over one SMTP connection, bypassing the outbox.
+     * <p>
+     * {@code JavaMailSenderImpl} connects and authenticates once for the whole array. Messages
+     * that fail individually are reported without aborting the rest of the batch.
+     * </p>
+     *
+     * @param messages The messages to send.
+     * @return The messages that could not be delivered, mapped to their errors (empty on full success).
+     */
+    public Map<SimpleMailMessage, Exception> sendBatch(List<SimpleMailMessage> messages) {
+        if (messages.isEmpty()) return Map.of();
+
+        Map<SimpleMailMessage, Exception> failed = new IdentityHashMap<>();
+        long start = System.nanoTime();
+        try {
+            mailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                for (SimpleMailMessage m : messages) failed.put(m, e);
+            } else {
+                for (Map.Entry<Object, Exception> entry : e.getFailedMessages().entrySet()) {
+                    if (entry.getKey() instanceof SimpleMailMessage m) failed.put(m, entry.getValue());
+                }
+            }
+        } catch (Exception e) {
+            for (SimpleMailMessage m : messages) failed.put(m, e);
+        } finally {
+            sendNanos.addAndGet(System.nanoTime() - start);
+            batchCount.incrementAndGet();
+        }
+
+        sentCount.addAndGet(messages.size() - failed.size());
+        failedCount.addAndGet(failed.size());
+        return failed;
+    }
+
+    /**
+     * Reports delivery throughput and queue depth for diagnostics.
+     *
+     * @return The current mail delivery metrics.
+     */
+    public MailDiagnosticsResponse diagnostics() {
+        long sent = sentCount.get();
+        long failed = failedCount.get();
+        long batches = batchCount.get();
+        long nanos = sendNanos.get();
+        long uptimeSeconds = Math.max(1L, Duration.between(startedAt, Instant.now()).toSeconds());
+
+        return new MailDiagnosticsResponse(
+                sent,
+                failed,
+                batches,
+                batches == 0 ? 0.0 : (double) (sent + failed) / batches,
+                sent == 0 ? 0.0 : nanos / 1_000_000.0 / sent,
+                nanos == 0 ? 0.0 : sent / (nanos / 1_000_000_000.0),
+                (double) sent / uptimeSeconds,
+                emailOutboxRepository.countByStatus(OutboxStatus.PENDING),
+                emailOutboxRepository.countByStatus(OutboxStatus.DEAD),
+                rateLimiter.getSentToday(),
+                rateLimiter.getDailyQuota()
+        );
+    }
+
+    /**
+     * Stops the worker pool, letting in-flight deliveries finish.
+     * Messages that were claimed but not delivered are picked up again once their lease expires.
+     */
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+        try {
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Converts a rendered message to a pending outbox entry.
+     *
+     * @param message The rendered message.
+     * @return The outbox entry.
+     */
+    private EmailOutboxMessage toOutboxMessage(SimpleMailMessage message) {
+        String to = (message.getTo() != null && message.getTo().length > 0) ? message.getTo()[0] : null;
+        return new EmailOutboxMessage(message.getFrom(), to, message.getSubject(), message.getText());
+    }
+
+    /**
+     * Claims up to one batch of due messages, taking a rate limiter permit for each.
+     *
+     * @return The claimed messages (empty if nothing is due or no permit is available).
+     */
+    private List<EmailOutboxMessage> claimBatch() {
+        List<EmailOutboxMessage> batch = new ArrayList<>();
+        while (batch.size() < batchSize && rateLimiter.tryAcquire()) {
+            EmailOutboxMessage claimed;
+            try {
+                claimed = claimNext();
+            } catch (Exception e) {
+                System.err.println("Failed to claim outbox message: " + e.getMessage());
+                claimed = null;
+            }
+
+            if (claimed == null) {
+                rateLimiter.release();
+                break;
+            }
+            batch.add(claimed);
+        }
+        return batch;
+    }
+
+    /**
+     * Atomically claims the oldest due message.
+     * <p>
+     * A message is due when it is {@code PENDING} and its next attempt time has passed, or when it
+     * is {@code SENDING} but its lease has expired because the worker holding it stopped.
+     * </p>
+     *
+     * @return The claimed message, or null if none is due.
+     */
+    private EmailOutboxMessage claimNext() {
+        Instant now = Instant.now();
+
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(OutboxStatus.PENDING).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(OutboxStatus.SENDING).and("lockedUntil").lt(now)
+        )).with(Sort.by("nextAttemptAt"));
+
+        Update update = new Update()
+                .set("status", OutboxStatus.SENDING)
+                .set("lockedUntil", now.plus(lease))
+                .inc("attempts", 1);
+
+        return mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), EmailOutboxMessage.class);
+    }
+
+    /**
+     * Delivers a batch of claimed messages over one connection and records each outcome.
+     *
+     * @param batch The claimed messages.
+     */
+    private void deliver(List<EmailOutboxMessage> batch) {
+        List<SimpleMailMessage> mails = new ArrayList<>(batch.size());
+        for (EmailOutboxMessage message : batch) {
+            SimpleMailMessage mail = new SimpleMailMessage();
+            mail.setFrom(message.getFromEmail());
+            mail.setTo(message.getToEmail());
+            mail.setSubject(message.getSubject());
+            mail.setText(message.getBody());
+            mails.add(mail);
+        }
+
+        Map<SimpleMailMessage, Exception> failed = sendBatch(mails);
+
+        for (int i = 0; i < batch.size(); i++) {
+            Exception error = failed.get(mails.get(i));
+            if (error == null) {
+                markSent(batch.get(i));
+            } else {
+                markFailed(batch.get(i), error);
+            }
+        }
+    }
+
+    /**
+     * Marks a message as delivered.
+     *
+     * @param message The delivered message.
+     */
+    private void markSent(EmailOutboxMessage message) {
+        mongoTemplate.updateFirst(
+                claimedBy(message),
+                new Update()
+                        .set("status", OutboxStatus.SENT)
+                        .set("sentAt", Instant.now())
+                        .unset("lockedUntil")
+                        .unset("lastError"),
+                EmailOutboxMessage.class
+        );
+    }
+
+    /**
+     * Schedules a retry for a failed message, or dead-letters it once the retry budget is spent.
+     *
+     * @param message The message that failed.
+     * @param error The delivery error.
+     */
+    private void markFailed(EmailOutboxMessage message, Exception error) {
+        Update update = new Update()
+                .set("lastError", error.getMessage())
+                .unset("lockedUntil");
+
+        if (message.getAttempts() >= maxAttempts) {
+            update.set("status", OutboxStatus.DEAD);
+            System.err.println("Email to " + message.getToEmail() + " dead-lettered after "
+                    + message.getAttempts() + " attempts: " + error.getMessage());
+        } else {
+            update.set("status", OutboxStatus.PENDING)
+                  .set("nextAttemptAt", Instant.now().plus(backoff(message.getAttempts())));
+        }
+
+        mongoTemplate.updateFirst(claimedBy(message), update, EmailOutboxMessage.class);
+    }
+
+    /**
+     * Matches a message only while it is still held by this attempt, so a worker whose lease
+     * expired cannot overwrite the result of a newer attempt.
+     *
+     * @param message The claimed message.
+     * @return The query for the claimed message.
+     */
+    private Query claimedBy(EmailOutboxMessage message) {
+        return new Query(Criteria.where("_id").is(message.getId())
+                .and("status").is(OutboxStatus.SENDING)
+                .and("attempts").is(message.getAttempts()));
+    }
+
+    /**
+     * Computes the delay before the next attempt: the base delay doubled per attempt,
+     * capped at the maximum, with up to 20% random jitter so retries do not synchronize.
+     *
+     * @param attempts The number of attempts made so far.
+     * @return The delay before the next attempt.
+     */
+    private Duration backoff(int attempts) {
+        long multiplier = 1L << Math.min(Math.max(attempts - 1, 0), 20);
+        long delayMs = Math.min(maxBackoff.toMillis(), baseBackoff.toMillis() * multiplier);
+        long jitterMs = (long) (delayMs * 0.2 * ThreadLocalRandom.current().nextDouble());
+        return Duration.ofMillis(delayMs + jitterMs);
+    }
+}
@@ -1,8 +1,14 @@
 package com.skillstorm.hotelreservationsystem.services;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 import com.skillstorm.hotelreservationsystem.models.Reservation;
@@ -12,6 +18,12 @@ import com.skillstorm.hotelreservationsystem.models.Reservation;
  * <p>
  * This service handles sending various types of email notifications to users,
  * including reservation confirmations, cancellations, and updates.
+ * Messages are rendered here and written to the email outbox; delivery to the
+ * SMTP server happens asynchronously in {@link EmailOutboxService}.
+ * Booking emails are queued inside the booking transaction, so rendering never
+ * throws: a message that cannot be rendered is replaced by a short fallback, and
+ * only a failure to write the outbox aborts the caller.
+ * The message templates are compiled once when the class is loaded.
  * </p>
  *
  * @author SkillStorm
@@ -19,11 +31,121 @@ import com.skillstorm.hotelreservationsystem.models.Reservation;
  */
 @Service
 public class EmailService {
+
+    private static final MailTemplate CONFIRMATION_TEMPLATE = new MailTemplate("""
+            Dear {},
+
+            Thank you for booking with Skillstorm Hotel!
+
+            CONFIRMATION DETAILS
+            --------------------------------------
+            Confirmation #: {}
+            Room: {} ({})
+
+            Check-In:  {} (After 3:00 PM)
+            Check-Out: {} (Before 11:00 AM)
+
+            Guests: {}
+            Total Paid: ${}
+            --------------------------------------
+
+            To cancel or view your booking, visit the "My Reservations" page on our website.
+
+            We look forward to hosting you!
+
+            Warm Regards,
+            Level Up Lounge
+            """);
+
+    private static final MailTemplate CANCELLATION_TEMPLATE = new MailTemplate("""
+            Dear {},
+
+            This email confirms that your reservation has been cancelled.
+
+            CANCELLATION DETAILS
+            --------------------------------------
+            Confirmation #: {}
+            Room: {}
+            Original Dates: {} to {}
+            Status: {}
+            {}
+            --------------------------------------
+
+            We hope to have the opportunity to host you in the future.
+
+            Warm Regards,
+            Level Up Lounge
+            """);
+
+    private static final MailTemplate REFUND_NOTE_TEMPLATE = new MailTemplate("""
+
+                REFUND STATUS: PROCESSED
+                Amount: ${}
+                Please allow 5-10 business days for the funds to appear in your account.
+                """);
+
+    private static final MailTemplate UPDATE_TEMPLATE = new MailTemplate("""
+            Dear {},
+
+            Your reservation has been successfully updated.
+
+            UPDATED DETAILS
+            --------------------------------------
+            Confirmation #: {}
+            Room: {} ({})
+
+            New Check-In:  {}
+            New Check-Out: {}
+
+            Guests: {}
+            New Total: ${}
+            --------------------------------------
+
+            If you did not request this change, please contact us immediately.
+
+            Warm Regards,
+            Level Up Lounge
+            """);
+
+    private static final MailTemplate STAY_COMPLETED_TEMPLATE = new MailTemplate("""
+            Dear {},
+
+            We hope you enjoyed your stay at Level Up Lounge!
+
+            This email confirms that your reservation status has been updated to COMPLETED.
+
+            STAY SUMMARY
+            --------------------------------------
+            Confirmation #: {}
+            Room: {} ({})
+            Dates: {} to {}
+            Total Paid: ${}
+            --------------------------------------
+
+            We hope to have the opportunity to host you again in the future for another gaming session!
+
+            Warm Regards,
+            Level Up Lounge
+            """);
+
+    private static final MailTemplate FALLBACK_TEMPLATE = new MailTemplate("""
+            Dear {},
+
+            Your reservation has been {}.
+
+            Confirmation #: {}
+
+            Visit the "My Reservations" page on our website for the full details.
+
+            Warm Regards,
+            Level Up Lounge
+            """);
+
     /**
-     * The JavaMailSender for sending emails.
+     * The outbox that delivers rendered emails in the background.
      */
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutboxService emailOutboxService;
 
     /**
      * Sends a reservation confirmation email to the user.
@@ -33,47 +155,24 @@ public class EmailService {
      */
     public void sendReservationConfirmation(String toEmail, Reservation reservation) {
         SimpleMailMessage message = new SimpleMailMessage();
-        
+
         message.setFrom("huggins9000211@gmail.com");
         message.setTo(toEmail);
         message.setSubject("Level Up Lounge - Reservation Confirmed!");
-        
-        String body = String.format("""
-            Dear %s,
-            
-            Thank you for booking with Skillstorm Hotel!
-            
-            CONFIRMATION DETAILS
-            --------------------------------------
-            Confirmation #: %s
-            Room: %s (%s)
-            
-            Check-In:  %s (After 3:00 PM)
-            Check-Out: %s (Before 11:00 AM)
-            
-            Guests: %d
-            Total Paid: $%.2f
-            --------------------------------------
-            
-            To cancel or view your booking, visit the "My Reservations" page on our website.
-            
-            We look forward to hosting you!
-            
-            Warm Regards,
-            Level Up Lounge
-            """,
-            reservation.getUser().getFirstName(),
+
+        String body = renderOrFallback(reservation, "confirmed", () -> CONFIRMATION_TEMPLATE.render(
+            firstName(reservation),
             reservation.getId(),
             reservation.getRoom().getRoomNumber(),
-            reservation.getRoom().getRoomType().getName(),
+            roomTypeName(reservation),
             reservation.getCheckIn(),
             reservation.getCheckOut(),
             reservation.getGuestCount(),
-            reservation.getTotalPrice()
-        );
+            money(reservation.getTotalPrice())
+        ));
 
         message.setText(body);
-        mailSender.send(message);
+        emailOutboxService.enqueue(message);
     }
 
     /**
@@ -88,52 +187,31 @@ public class EmailService {
      */
     public void sendCancellationConfirmation(String toEmail, Reservation reservation) {
         SimpleMailMessage message = new SimpleMailMessage();
-        
+
         message.setFrom("huggins9000211@gmail.com");
         message.setTo(toEmail);
         message.setSubject("Level Up Lounge - Reservation Cancelled");
 
-        // Determine specific message based on status
-        String refundNote = "";
-        if (reservation.getStatus() == Reservation.ReservationStatus.REFUNDED) {
-            refundNote = String.format("""
-                
-                REFUND STATUS: PROCESSED
-                Amount: $%.2f
-                Please allow 5-10 business days for the funds to appear in your account.
-                """, reservation.getTotalPrice());
-        }
+        String body = renderOrFallback(reservation, "cancelled", () -> {
+            // Determine specific message based on status
+            String refundNote = "";
+            if (reservation.getStatus() == Reservation.ReservationStatus.REFUNDED) {
+                refundNote = REFUND_NOTE_TEMPLATE.render(money(reservation.getTotalPrice()));
+            }
 
-        String body = String.format("""
-            Dear %s,
-            
-            This email confirms that your reservation has been cancelled.
-            
-            CANCELLATION DETAILS
-            --------------------------------------
-            Confirmation #: %s
-            Room: %s
-            Original Dates: %s to %s
-            Status: %s
-            %s
-            --------------------------------------
-            
-            We hope to have the opportunity to host you in the future.
-            
-            Warm Regards,
-            Level Up Lounge
-            """,
-            reservation.getUser().getFirstName(),
-            reservation.getId(),
-            reservation.getRoom().getRoomNumber(),
-            reservation.getCheckIn(),
-            reservation.getCheckOut(),
-            reservation.getStatus(), // "CANCELLED" or "REFUNDED"
-            refundNote // Inserts the refund text only if applicable
-        );
+            return CANCELLATION_TEMPLATE.render(
+                firstName(reservation),
+                reservation.getId(),
+                reservation.getRoom().getRoomNumber(),
+                reservation.getCheckIn(),
+                reservation.getCheckOut(),
+                reservation.getStatus(), // "CANCELLED" or "REFUNDED"
+                refundNote // Inserts the refund text only if applicable
+            );
+        });
 
         message.setText(body);
-        mailSender.send(message);
+        emailOutboxService.enqueue(message);
     }
 
     /**
@@ -144,46 +222,25 @@ public class EmailService {
      */
     public void sendUpdateConfirmation(String toEmail, Reservation reservation) {
         SimpleMailMessage message = new SimpleMailMessage();
-        
+
         message.setFrom("anthonyhugginsdev@gmail.com");
         message.setTo(toEmail);
         message.setSubject("Level Up Lounge - Reservation Updated");
 
-        String body = String.format("""
-            Dear %s,
-            
-            Your reservation has been successfully updated.
-            
-            UPDATED DETAILS
-            --------------------------------------
-            Confirmation #: %s
-            Room: %s (%s)
-            
-            New Check-In:  %s
-            New Check-Out: %s
-            
-            Guests: %d
-            New Total: $%.2f
-            --------------------------------------
-            
-            If you did not request this change, please contact us immediately.
-            
-            Warm Regards,
-            Level Up Lounge
-            """,
-            reservation.getUser().getFirstName(),
+        String body = renderOrFallback(reservation, "updated", () -> UPDATE_TEMPLATE.render(
+            firstName(reservation),
             reservation.getId(),
             reservation.getRoom().getRoomNumber(),
-            reservation.getRoom().getRoomType().getName(),
+            roomTypeName(reservation),
             reservation.getCheckIn(),
             reservation.getCheckOut(),
             reservation.getGuestCount(),
-            reservation.getTotalPrice()
-        );
+            money(reservation.getTotalPrice())
+        ));
 
         message.setText(body);
-        mailSender.send(message);
-        System.out.println("Update email sent to " + toEmail);
+        emailOutboxService.enqueue(message);
+        System.out.println("Update email queued for " + toEmail);
     }
 
     /**
@@ -193,43 +250,124 @@ public class EmailService {
      * @param reservation The completed reservation details.
      */
     public void sendStayCompletedEmail(String toEmail, Reservation reservation) {
+        emailOutboxService.enqueue(buildStayCompletedEmail(toEmail, reservation));
+        System.out.println("Completion email queued for " + toEmail);
+    }
+
+    /**
+     * Sends thank-you emails for a batch of completed reservations.
+     * <p>
+     * All messages are written to the outbox in one bulk insert, and the outbox worker delivers
+     * them in batches over a shared SMTP connection. Each message carries the deduplication key
+     * {@code stay-completed:<reservationId>}, so calling this again for the same reservations
+     * (for example when a cleanup run is resumed) does not email a guest twice. Reservations
+     * without a hydrated user email are skipped.
+     * </p>
+     *
+     * @param reservations The completed reservations, with users and rooms populated.
+     * @return The number of emails newly queued.
+     */
+    public int sendStayCompletedEmails(List<Reservation> reservations) {
+        Map<String, SimpleMailMessage> messages = new LinkedHashMap<>();
+        for (Reservation reservation : reservations) {
+            if (reservation.getUser() == null || reservation.getUser().getEmail() == null) continue;
+            try {
+                messages.put("stay-completed:" + reservation.getId(),
+                        buildStayCompletedEmail(reservation.getUser().getEmail(), reservation));
+            } catch (Exception e) {
+                System.err.println("Failed to render completion email for Reservation " + reservation.getId() + ": " + e.getMessage());
+            }
+        }
+
+        int queued = emailOutboxService.enqueueAllOnce(messages);
+        System.out.println("Queued " + queued + " completion emails.");
+        return queued;
+    }
+
+    /**
+     * Renders the thank-you email for a completed stay.
+     *
+     * @param toEmail The recipient's email address.
+     * @param reservation The completed reservation details.
+     * @return The rendered message.
+     */
+    private SimpleMailMessage buildStayCompletedEmail(String toEmail, Reservation reservation) {
         SimpleMailMessage message = new SimpleMailMessage();
-        
+
         message.setFrom("huggins9000211@gmail.com");
         message.setTo(toEmail);
         message.setSubject("Level Up Lounge - Thank You for Staying with Us!");
 
-        String body = String.format("""
-            Dear %s,
-            
-            We hope you enjoyed your stay at Level Up Lounge!
-            
-            This email confirms that your reservation status has been updated to COMPLETED.
-            
-            STAY SUMMARY
-            --------------------------------------
-            Confirmation #: %s
-            Room: %s (%s)
-            Dates: %s to %s
-            Total Paid: $%.2f
-            --------------------------------------
-            
-            We hope to have the opportunity to host you again in the future for another gaming session!
-            
-            Warm Regards,
-            Level Up Lounge
-            """,
+        String body = STAY_COMPLETED_TEMPLATE.render(
             reservation.getUser().getFirstName(),
             reservation.getId(),
             reservation.getRoom().getRoomNumber(),
             reservation.getRoom().getRoomType().getName(),
             reservation.getCheckIn(),
             reservation.getCheckOut(),
-            reservation.getTotalPrice()
+            money(reservation.getTotalPrice())
         );
 
         message.setText(body);
-        mailSender.send(message);
-        System.out.println("Completion email sent to " + toEmail);
+        return message;
+    }
+
+    /**
+     * Renders a booking email body, falling back to a short notice if rendering fails.
+     * <p>
+     * The booking emails are queued inside the booking transaction, and a missing field
+     * (for example a room type that has since been removed) must not roll back a booking
+     * that has already been paid for. The failure is logged and the guest still gets a
+     * message pointing them to "My Reservations".
+     * </p>
+     *
+     * @param reservation The reservation the email is about.
+     * @param action What happened to the reservation, e.g. "confirmed".
+     * @param render Renders the full template.
+     * @return The rendered body, or the fallback notice.
+     */
+    private static String renderOrFallback(Reservation reservation, String action, Supplier<String> render) {
+        try {
+            return render.get();
+        } catch (RuntimeException e) {
+            System.err.println("Failed to render email for Reservation " + reservation.getId() + ": " + e.getMessage());
+            return FALLBACK_TEMPLATE.render(firstName(reservation), action, reservation.getId());
+        }
+    }
+
+    /**
+     * Returns the guest's first name, or a generic greeting if the user is not attached.
+     *
+     * @param reservation The reservation.
+     * @return The name to greet the guest with.
+     */
+    private static String firstName(Reservation reservation) {
+        if (reservation.getUser() == null || reservation.getUser().getFirstName() == null) {
+            return "Guest";
+        }
+        return reservation.getUser().getFirstName();
+    }
+
+    /**
+     * Returns the room type name, or a generic label if the room type is not available.
+     *
+     * @param reservation The reservation, with its room populated.
+     * @return The room type name.
+     */
+    private static String roomTypeName(Reservation reservation) {
+        if (reservation.getRoom().getRoomType() == null) {
+            return "Room";
+        }
+        return reservation.getRoom().getRoomType().getName();
+    }
+
+    /**
+     * Formats a dollar amount with two decimal places, matching {@code %.2f}.
+     *
+     * @param amount The amount in dollars.
+     * @return The formatted amount.
+     */
+    private static String money(double amount) {
+        return BigDecimal.valueOf(amount).setScale(2, RoundingMode.HALF_UP).toPlainString();
     }
 }
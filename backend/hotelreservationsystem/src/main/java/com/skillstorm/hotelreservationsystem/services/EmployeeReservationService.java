@@ -2,31 +2,27 @@ package com.skillstorm.hotelreservationsystem.services;
 
 import java.time.Instant;
 import java.time.LocalDate;
-import java.time.ZoneOffset;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 
+import org.bson.Document;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.skillstorm.hotelreservationsystem.dto.ReservationAdminSearchResponse;
+import com.skillstorm.hotelreservationsystem.dto.ReservationCursor;
 import com.skillstorm.hotelreservationsystem.dto.ReservationRequest;
+import com.skillstorm.hotelreservationsystem.dto.ReservationSearchFilter;
 import com.skillstorm.hotelreservationsystem.dto.RevenueReportResponse;
 import com.skillstorm.hotelreservationsystem.models.Reservation;
 import com.skillstorm.hotelreservationsystem.models.Room;
-import com.skillstorm.hotelreservationsystem.models.RoomType;
 import com.skillstorm.hotelreservationsystem.models.User;
 import com.skillstorm.hotelreservationsystem.repositories.ReservationRepository;
 import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
-import com.skillstorm.hotelreservationsystem.repositories.RoomTypeRepository;
 import com.skillstorm.hotelreservationsystem.repositories.UserRepository;
 
 /**
@@ -43,35 +39,72 @@ import com.skillstorm.hotelreservationsystem.repositories.UserRepository;
 @Service
 public class EmployeeReservationService {
 
+    /**
+     * Filtered searches stop counting at this many matches when an estimated total is requested.
+     */
+    private static final int ESTIMATED_COUNT_CAP = 10_000;
+
+    /**
+     * Maximum number of guests a name or email prefix can expand to in one search. A prefix
+     * matching more guests is rejected rather than silently searched for an arbitrary subset.
+     */
+    private static final int MAX_GUEST_MATCHES = 500;
+
     private final ReservationRepository reservationRepository;
     private final RoomRepository roomRepository;
-    private final RoomTypeRepository roomTypeRepository;
     private final UserRepository userRepository;
 
     /** Reuses reservation service for cancel logic and guest update operations. */
     private final ReservationService reservationService; // reuse cancel logic and guest update if desired
 
+    /** Batches user, room and room type lookups for returned reservations. */
+    private final ReservationHydrator reservationHydrator;
+
+    /** Daily revenue rollup used for revenue reports. */
+    private final RevenueRollupService revenueRollupService;
+
+    /** Tracks whether reservations carry their room type for room type filters. */
+    private final ReservationRoomDetailsService reservationRoomDetailsService;
+
+    /** Resolves guest name and email prefixes to user IDs. */
+    private final GuestSearchService guestSearchService;
+
+    /** Runs check-in and check-out writes in retried transactions. */
+    private final TransactionRunner transactionRunner;
+
     /**
      * Constructs a new EmployeeReservationService with the required repositories and services.
      *
      * @param reservationRepository The repository for reservation data access.
      * @param roomRepository The repository for room data access.
-     * @param roomTypeRepository The repository for room type data access.
      * @param userRepository The repository for user data access.
      * @param reservationService The reservation service for shared logic.
+     * @param reservationHydrator The hydrator for transient user and room data.
+     * @param revenueRollupService The service maintaining the daily revenue rollup.
+     * @param reservationRoomDetailsService The service keeping room details on reservations in sync.
+     * @param guestSearchService The service for guest prefix lookups.
+     * @param transactionRunner The runner that executes writes in retried transactions.
      */
     public EmployeeReservationService(
             ReservationRepository reservationRepository,
             RoomRepository roomRepository,
-            RoomTypeRepository roomTypeRepository,
             UserRepository userRepository,
-            ReservationService reservationService
+            ReservationService reservationService,
+            ReservationHydrator reservationHydrator,
+            RevenueRollupService revenueRollupService,
+            ReservationRoomDetailsService reservationRoomDetailsService,
+            GuestSearchService guestSearchService,
+            TransactionRunner transactionRunner
     ) {
         this.reservationRepository = reservationRepository;
         this.roomRepository = roomRepository;
-        this.roomTypeRepository = roomTypeRepository;
         this.userRepository = userRepository;
         this.reservationService = reservationService;
+        this.reservationHydrator = reservationHydrator;
+        this.revenueRollupService = revenueRollupService;
+        this.reservationRoomDetailsService = reservationRoomDetailsService;
+        this.guestSearchService = guestSearchService;
+        this.transactionRunner = transactionRunner;
     }
 
     /**
@@ -83,6 +116,7 @@ public class EmployeeReservationService {
      *
      * @param reservationId The unique identifier of the reservation to search for.
      * @param guestEmail The email address of the guest to filter by.
+     * @param guest A prefix of the guest's first name, last name, or email to filter by.
      * @param roomTypeId The room type ID to filter by.
      * @param status The reservation status to filter by.
      * @param currentlyCheckedIn Whether to filter by check-in status.
@@ -90,17 +124,170 @@ public class EmployeeReservationService {
      * @param to The end date for date range filtering.
      * @param pageable Pagination information.
      * @return A page of reservations matching the search criteria with hydrated user and room data.
-     * @throws ResponseStatusException if the guest email is not found.
+     * @throws ResponseStatusException if the guest email is not found or the guest query matches too many guests.
      */
     public Page<Reservation> search(
             String reservationId,
             String guestEmail,
+            String guest,
             String roomTypeId,
             Reservation.ReservationStatus status,
             Boolean currentlyCheckedIn,
             LocalDate from,
             LocalDate to,
             Pageable pageable
+    ) {
+        ReservationSearchFilter filter = resolveFilter(reservationId, guestEmail, guest, roomTypeId, status, currentlyCheckedIn, from, to);
+
+        Page<Reservation> page = reservationRepository.adminSearch(filter, pageable);
+
+        reservationHydrator.hydrate(page.getContent());
+        return page;
+    }
+
+    /**
+     * Searches for reservations using keyset (cursor) pagination.
+     * <p>
+     * Takes the same filters as {@link #search}, but instead of a page number it continues after an
+     * opaque cursor returned by the previous page, so deep pages cost the same as the first one.
+     * The total is computed only when asked for, either exactly or as a cheap estimate.
+     * </p>
+     *
+     * @param reservationId The unique identifier of the reservation to search for.
+     * @param guestEmail The email address of the guest to filter by.
+     * @param guest A prefix of the guest's first name, last name, or email to filter by.
+     * @param roomTypeId The room type ID to filter by.
+     * @param status The reservation status to filter by.
+     * @param currentlyCheckedIn Whether to filter by check-in status.
+     * @param from The start date for date range filtering.
+     * @param to The end date for date range filtering.
+     * @param sortBy The field to sort by.
+     * @param direction The sort direction.
+     * @param size The number of items per page.
+     * @param cursor The cursor returned with the previous page, or null/blank for the first page.
+     * @param total How the total item count is computed.
+     * @return A page of reservations with hydrated user and room data and the cursor for the next page.
+     * @throws ResponseStatusException if the guest email is not found, the guest query matches too many
+     *         guests, the sort field does not support keyset paging, or the cursor is invalid or was
+     *         issued for a different sort.
+     */
+    public ReservationAdminSearchResponse<Reservation> searchKeyset(
+            String reservationId,
+            String guestEmail,
+            String guest,
+            String roomTypeId,
+            Reservation.ReservationStatus status,
+            Boolean currentlyCheckedIn,
+            LocalDate from,
+            LocalDate to,
+            String sortBy,
+            Sort.Direction direction,
+            int size,
+            String cursor,
+            ReservationAdminSearchResponse.TotalMode total
+    ) {
+        if (!ReservationCursor.supports(sortBy)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor paging cannot sort by: " + sortBy);
+        }
+        if (size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Size must be at least 1.");
+        }
+
+        ReservationCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = ReservationCursor.decode(cursor);
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+            }
+            if (!after.sortBy().equals(sortBy) || after.direction() != direction) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor was issued for a different sort.");
+            }
+        }
+
+        ReservationSearchFilter filter = resolveFilter(reservationId, guestEmail, guest, roomTypeId, status, currentlyCheckedIn, from, to);
+
+        // Fetch one extra row to learn whether another page follows
+        List<Reservation> items = reservationRepository.adminSearchAfter(filter, sortBy, direction, after, size + 1);
+        String nextCursor = null;
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            nextCursor = ReservationCursor.after(sortBy, direction, items.get(size - 1)).encode();
+        }
+        reservationHydrator.hydrate(items);
+
+        long totalItems = -1;
+        boolean totalExact = false;
+        if (total == ReservationAdminSearchResponse.TotalMode.EXACT) {
+            totalItems = reservationRepository.adminCount(filter, 0);
+            totalExact = true;
+        } else if (total == ReservationAdminSearchResponse.TotalMode.ESTIMATE) {
+            totalItems = reservationRepository.adminCount(filter, ESTIMATED_COUNT_CAP);
+        }
+
+        return new ReservationAdminSearchResponse<>(items, size, totalItems, totalExact, nextCursor);
+    }
+
+    /**
+     * Explains how MongoDB executes an employee reservation search.
+     *
+     * @param reservationId The unique identifier of the reservation to search for.
+     * @param guestEmail The email address of the guest to filter by.
+     * @param guest A prefix of the guest's first name, last name, or email to filter by.
+     * @param roomTypeId The room type ID to filter by.
+     * @param status The reservation status to filter by.
+     * @param currentlyCheckedIn Whether to filter by check-in status.
+     * @param from The start date for date range filtering.
+     * @param to The end date for date range filtering.
+     * @param pageable Pagination information.
+     * @return The MongoDB explain output for the search query.
+     * @throws ResponseStatusException if the guest email is not found or the guest query matches too many guests.
+     */
+    public Document explainSearch(
+            String reservationId,
+            String guestEmail,
+            String guest,
+            String roomTypeId,
+            Reservation.ReservationStatus status,
+            Boolean currentlyCheckedIn,
+            LocalDate from,
+            LocalDate to,
+            Pageable pageable
+    ) {
+        ReservationSearchFilter filter = resolveFilter(reservationId, guestEmail, guest, roomTypeId, status, currentlyCheckedIn, from, to);
+        return reservationRepository.explainAdminSearch(filter, pageable);
+    }
+
+    /**
+     * Resolves guest email, guest prefix, and room type filters to the fields stored on reservations.
+     * <p>
+     * A guest prefix is looked up through {@link GuestSearchService} and becomes a list of user IDs.
+     * </p>
+     * <p>
+     * Room types are matched on the reservation's own {@code roomTypeId}; only while the startup
+     * backfill of that field is still running are they expanded to the type's room IDs.
+     * </p>
+     *
+     * @param reservationId The unique identifier of the reservation to search for.
+     * @param guestEmail The email address of the guest to filter by.
+     * @param guest A prefix of the guest's first name, last name, or email to filter by.
+     * @param roomTypeId The room type ID to filter by.
+     * @param status The reservation status to filter by.
+     * @param currentlyCheckedIn Whether to filter by check-in status.
+     * @param from The start date for date range filtering.
+     * @param to The end date for date range filtering.
+     * @return The resolved search filters.
+     * @throws ResponseStatusException if the guest email is not found or the guest query matches too many guests.
+     */
+    private ReservationSearchFilter resolveFilter(
+            String reservationId,
+            String guestEmail,
+            String guest,
+            String roomTypeId,
+            Reservation.ReservationStatus status,
+            Boolean currentlyCheckedIn,
+            LocalDate from,
+            LocalDate to
     ) {
         String userId = null;
         if (guestEmail != null && !guestEmail.isBlank()) {
@@ -109,27 +296,25 @@ public class EmployeeReservationService {
             userId = u.getId();
         }
 
+        List<String> userIds = null;
+        if (guest != null && !guest.isBlank()) {
+            userIds = guestSearchService.findUserIds(guest, MAX_GUEST_MATCHES + 1);
+            if (userIds.size() > MAX_GUEST_MATCHES) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Guest search matches more than " + MAX_GUEST_MATCHES + " guests; type more characters.");
+            }
+        }
+
         List<String> roomIds = null;
-        if (roomTypeId != null && !roomTypeId.isBlank()) {
+        if (roomTypeId != null && !roomTypeId.isBlank() && !reservationRoomDetailsService.isReady()) {
             roomIds = roomRepository.findByRoomTypeId(roomTypeId)
                     .stream()
                     .map(Room::getId)
                     .toList();
         }
 
-        Page<Reservation> page = reservationRepository.adminSearch(
-                reservationId,
-                userId,
-                roomIds,
-                status,
-                currentlyCheckedIn,
-                from,
-                to,
-                pageable
-        );
-
-        hydrate(page.getContent());
-        return page;
+        String typeFilter = (roomIds == null) ? roomTypeId : null;
+        return new ReservationSearchFilter(reservationId, userId, userIds, typeFilter, roomIds, status, currentlyCheckedIn, from, to);
     }
 
     /**
@@ -144,7 +329,6 @@ public class EmployeeReservationService {
      * @return The updated reservation with hydrated user and room data.
      * @throws ResponseStatusException if the reservation is not found or in an invalid state.
      */
-    @Transactional
     public Reservation employeeUpdateReservation(String reservationId, ReservationRequest request) {
         Reservation existing = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found: " + reservationId));
@@ -159,7 +343,7 @@ public class EmployeeReservationService {
         }
         Reservation updated = reservationService.updateReservation(reservationId, request, true);
 
-        hydrate(List.of(updated));
+        reservationHydrator.hydrate(List.of(updated));
         return updated;
     }
 
@@ -172,7 +356,6 @@ public class EmployeeReservationService {
      * @param reservationId The unique identifier of the reservation to cancel.
      * @throws ResponseStatusException if the reservation is not found or is checked in.
      */
-    @Transactional
     public void employeeCancelReservation(String reservationId) {
         Reservation existing = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found: " + reservationId));
@@ -191,54 +374,42 @@ public class EmployeeReservationService {
      * the check-in/check-out window, and the room is not already occupied.
      * Marks the room as occupied and updates the reservation status.
      * </p>
+     * <p>
+     * Both transitions are conditional {@code findAndModify} updates: the reservation moves
+     * CONFIRMED to CHECKED_IN only while today is within the stay, and the room moves vacant to
+     * occupied. Of two agents checking guests into the same room at once, exactly one succeeds;
+     * the other gets a 409 and its reservation change is rolled back.
+     * </p>
      *
      * @param reservationId The unique identifier of the reservation.
      * @return The updated reservation with CHECKED_IN status.
      * @throws ResponseStatusException if validation fails or the reservation/room is not found.
      */
-    @Transactional
     public Reservation checkIn(String reservationId) {
-        Reservation r = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found: " + reservationId));
-
-        if (r.getStatus() != Reservation.ReservationStatus.CONFIRMED) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only CONFIRMED reservations can be checked in.");
-        }
-
-        LocalDate today = LocalDate.now();
-
-        if (today.isBefore(r.getCheckIn())) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Cannot check in before the scheduled check-in date: " + r.getCheckIn()
-            );
-        }
-
-        if (!today.isBefore(r.getCheckOut())) {
-            throw new ResponseStatusException(
-                    HttpStatus.BAD_REQUEST,
-                    "Cannot check in on/after the scheduled check-out date: " + r.getCheckOut()
-            );
-        }
-
-        Room room = roomRepository.findById(r.getRoomId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found: " + r.getRoomId()));
-
-        if (room.isOccupied()) {
-            throw new ResponseStatusException(
-                    HttpStatus.CONFLICT,
-                    "Room is already occupied and cannot be checked in: " + room.getRoomNumber()
-            );
-        }
-
-        room.setOccupied(true);
-        roomRepository.save(room);
+        Reservation saved = transactionRunner.execute("checkIn", () -> {
+            LocalDate today = LocalDate.now();
 
-        r.setStatus(Reservation.ReservationStatus.CHECKED_IN);
-        r.setCheckedInAt(Instant.now());
+            // 1. CONFIRMED -> CHECKED_IN, only while today is within the stay
+            Reservation r = reservationRepository.markCheckedIn(reservationId, today, Instant.now());
+            if (r == null) {
+                throw checkInRejection(reservationId, today);
+            }
 
-        Reservation saved = reservationRepository.save(r);
-        hydrate(List.of(saved));
+            // 2. Vacant -> occupied
+            if (roomRepository.markOccupied(r.getRoomId()) == null) {
+                if (!transactionRunner.inTransaction()) {
+                    reservationRepository.revertCheckIn(reservationId);
+                }
+                Room room = roomRepository.findById(r.getRoomId())
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found: " + r.getRoomId()));
+                throw new ResponseStatusException(
+                        HttpStatus.CONFLICT,
+                        "Room is already occupied and cannot be checked in: " + room.getRoomNumber()
+                );
+            }
+            return r;
+        });
+        reservationHydrator.hydrate(List.of(saved));
         return saved;
     }
 
@@ -246,34 +417,75 @@ public class EmployeeReservationService {
      * Checks out a guest from a reservation.
      * <p>
      * Marks the room as unoccupied and updates the reservation status to COMPLETED.
+     * The reservation moves CHECKED_IN to COMPLETED with a conditional {@code findAndModify},
+     * so a reservation cannot be checked out twice. A room that is already vacant is left as is.
      * </p>
      *
      * @param reservationId The unique identifier of the reservation.
      * @return The updated reservation with COMPLETED status.
      * @throws ResponseStatusException if the reservation is not CHECKED_IN or not found.
      */
-    @Transactional
     public Reservation checkOut(String reservationId) {
-        Reservation r = reservationRepository.findById(reservationId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found: " + reservationId));
-
-        if (r.getStatus() != Reservation.ReservationStatus.CHECKED_IN) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only CHECKED_IN reservations can be checked out.");
-        }
-
-        Room room = roomRepository.findById(r.getRoomId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found: " + r.getRoomId()));
-
-        room.setOccupied(false);
-        roomRepository.save(room);
-
-        r.setStatus(Reservation.ReservationStatus.COMPLETED);
+        Reservation saved = transactionRunner.execute("checkOut", () -> {
+            // 1. CHECKED_IN -> COMPLETED
+            Reservation r = reservationRepository.transitionStatus(reservationId,
+                    Reservation.ReservationStatus.CHECKED_IN, Reservation.ReservationStatus.COMPLETED);
+            if (r == null) {
+                if (!reservationRepository.existsById(reservationId)) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found: " + reservationId);
+                }
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only CHECKED_IN reservations can be checked out.");
+            }
 
-        Reservation saved = reservationRepository.save(r);
-        hydrate(List.of(saved));
+            // 2. Occupied -> vacant
+            if (roomRepository.markVacant(r.getRoomId()) == null && !roomRepository.existsById(r.getRoomId())) {
+                if (!transactionRunner.inTransaction()) {
+                    reservationRepository.transitionStatus(reservationId,
+                            Reservation.ReservationStatus.COMPLETED, Reservation.ReservationStatus.CHECKED_IN);
+                }
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found: " + r.getRoomId());
+            }
+            return r;
+        });
+        reservationHydrator.hydrate(List.of(saved));
         return saved;
     }
 
+    /**
+     * Explains why a reservation could not be checked in.
+     * <p>
+     * Only called after the conditional check-in update matched nothing, so the common path
+     * costs a single round trip.
+     * </p>
+     *
+     * @param reservationId The unique identifier of the reservation.
+     * @param today The current date.
+     * @return The exception describing the failed precondition.
+     */
+    private ResponseStatusException checkInRejection(String reservationId, LocalDate today) {
+        Reservation r = reservationRepository.findById(reservationId).orElse(null);
+        if (r == null) {
+            return new ResponseStatusException(HttpStatus.NOT_FOUND, "Reservation not found: " + reservationId);
+        }
+        if (r.getStatus() != Reservation.ReservationStatus.CONFIRMED) {
+            return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only CONFIRMED reservations can be checked in.");
+        }
+        if (today.isBefore(r.getCheckIn())) {
+            return new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Cannot check in before the scheduled check-in date: " + r.getCheckIn()
+            );
+        }
+        if (!today.isBefore(r.getCheckOut())) {
+            return new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "Cannot check in on/after the scheduled check-out date: " + r.getCheckOut()
+            );
+        }
+        // The reservation changed between the update and this read
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Reservation was modified concurrently: " + reservationId);
+    }
+
     /**
      * Generates a revenue report for the specified date range.
      * <p>
@@ -281,6 +493,8 @@ public class EmployeeReservationService {
         * currently in CONFIRMED, CHECKED_IN, or COMPLETED status. REFUNDED
         * reservations are excluded entirely (net zero effect) and do not subtract
         * from revenue. Uses transaction.amountCents for accuracy.
+        * Reads the daily revenue rollup, so the cost depends on the number of days
+        * in the range rather than the number of reservations.
      * </p>
      *
      * @param from The start date for the report (optional, null for all time).
@@ -288,112 +502,41 @@ public class EmployeeReservationService {
      * @return A revenue report with total and monthly breakdowns.
      */
     public RevenueReportResponse revenue(LocalDate from, LocalDate to) {
-        List<Reservation> all = reservationRepository.findAll();
-        hydrateLight(all);
-
-        long total = 0L;
-        Map<String, Long> byMonth = new TreeMap<>();
-
-        for (Reservation r : all) {
-            if (r.getTransaction() == null) continue;
-
-            Instant paidAt = r.getTransaction().getPaidAt();
-            if (paidAt == null) continue;
-
-            LocalDate paidDate = paidAt.atZone(ZoneOffset.UTC).toLocalDate();
-            if (from != null && paidDate.isBefore(from)) continue;
-            if (to != null && !paidDate.isBefore(to)) continue;
-
-            long cents = r.getTransaction().getAmountCents();
-
-            long delta = 0L;
-            // Only include retained revenue: PAID and in revenue-relevant statuses
-            if (r.getPaymentStatus() == Reservation.PaymentStatus.PAID
-                    && (r.getStatus() == Reservation.ReservationStatus.CONFIRMED
-                        || r.getStatus() == Reservation.ReservationStatus.CHECKED_IN
-                        || r.getStatus() == Reservation.ReservationStatus.COMPLETED)) {
-                delta = cents;
-            }
-
-            if (delta == 0L) continue;
-
-            total += delta;
-
-            String monthKey = paidDate.format(DateTimeFormatter.ofPattern("yyyy-MM"));
-            byMonth.put(monthKey, byMonth.getOrDefault(monthKey, 0L) + delta);
-        }
-
-        return new RevenueReportResponse(total, byMonth);
+        return revenueRollupService.report(from, to);
     }
 
     /**
-     * Populates transient User and Room objects for a list of reservations.
+     * Recomputes the daily revenue rollup from the reservations collection.
      * <p>
-     * This method fetches user and room data from repositories and attaches
-     * them to reservations for frontend display purposes.
+     * Used to verify or repair the rollup; the result should match
+     * {@link #revenueFromReservations(LocalDate, LocalDate)} for the same range.
      * </p>
      *
-     * @param reservations The list of reservations to hydrate.
+     * @return The all-time revenue report from the rebuilt rollup.
      */
-    private void hydrate(List<Reservation> reservations) {
-        if (reservations == null || reservations.isEmpty()) return;
-
-        Set<String> userIds = reservations.stream()
-                .map(Reservation::getUserId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        Set<String> roomIds = reservations.stream()
-                .map(Reservation::getRoomId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        Map<String, User> usersById = userRepository.findAllById(userIds).stream()
-                .collect(Collectors.toMap(User::getId, u -> u));
-
-        List<Room> rooms = roomRepository.findAllById(roomIds);
-        Map<String, Room> roomsById = rooms.stream()
-                .collect(Collectors.toMap(Room::getId, rr -> rr));
-
-        Set<String> typeIds = rooms.stream()
-                .map(Room::getRoomTypeId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        Map<String, RoomType> typesById = roomTypeRepository.findAllById(typeIds).stream()
-                .collect(Collectors.toMap(RoomType::getId, t -> t));
-
-        for (Reservation r : reservations) {
-            User u = usersById.get(r.getUserId());
-            if (u != null) r.setUser(u);
-
-            Room room = roomsById.get(r.getRoomId());
-            if (room != null) {
-                if (room.getRoomTypeId() != null) {
-                    room.setRoomType(typesById.get(room.getRoomTypeId()));
-                }
-                r.setRoom(room);
-            }
-        }
+    public RevenueReportResponse rebuildRevenue() {
+        return revenueRollupService.rebuild();
     }
 
     /**
-     * Light hydration for revenue report, avoids room type work.
+     * Generates a revenue report directly from the reservations collection.
+     * <p>
+     * Runs the filtering and monthly grouping as a MongoDB aggregation, so only the per-month
+     * totals are loaded into the application. Used to cross-check the daily rollup.
+     * </p>
+     *
+     * @param from The start date for the report (optional, null for all time).
+     * @param to The end date for the report (optional, null for all time).
+     * @return A revenue report with total and monthly breakdowns.
      */
-    private void hydrateLight(List<Reservation> reservations) {
-        if (reservations == null || reservations.isEmpty()) return;
+    public RevenueReportResponse revenueFromReservations(LocalDate from, LocalDate to) {
+        Map<String, Long> byMonth = reservationRepository.sumRevenueByMonth(from, to);
 
-        Set<String> userIds = reservations.stream()
-                .map(Reservation::getUserId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        Map<String, User> usersById = userRepository.findAllById(userIds).stream()
-                .collect(Collectors.toMap(User::getId, u -> u));
-
-        for (Reservation r : reservations) {
-            User u = usersById.get(r.getUserId());
-            if (u != null) r.setUser(u);
+        long total = 0L;
+        for (long cents : byMonth.values()) {
+            total += cents;
         }
+
+        return new RevenueReportResponse(total, byMonth);
     }
 }
@@ -0,0 +1,194 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotelreservationsystem.models.User;
+
+/**
+ * Service class for front desk guest lookups by name or email prefix.
+ * <p>
+ * Each user stores a list of lowercase {@code searchKeys}: the words of their first and last
+ * name, their email address, and the words of the email's local part. The list has a multikey
+ * index, so a query such as "smi" becomes the anchored regex {@code /^smi/}, which MongoDB answers
+ * with an index range scan rather than a collection scan. Multi-word queries ("john smi") require
+ * every word to prefix-match one of the keys.
+ * </p>
+ * <p>
+ * Keys are refreshed by {@code CustomOAuth2UserService} on every login sync, and a startup
+ * backfill fills them in for users saved before they existed.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class GuestSearchService {
+
+    /**
+     * Number of users updated per bulk write during the backfill.
+     */
+    private static final int BACKFILL_BATCH_SIZE = 1000;
+
+    /**
+     * Maximum number of words of a query that are matched.
+     */
+    private static final int MAX_QUERY_TERMS = 4;
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Constructs a new GuestSearchService with the specified MongoTemplate.
+     *
+     * @param mongoTemplate The MongoTemplate used for prefix queries and the backfill.
+     */
+    public GuestSearchService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Recomputes a user's search keys from their name and email.
+     *
+     * @param user The user to update (not saved).
+     */
+    public void applySearchKeys(User user) {
+        user.setSearchKeys(searchKeysFor(user.getFirstName(), user.getLastName(), user.getEmail()));
+    }
+
+    /**
+     * Finds the IDs of users whose name or email words start with every word of a query.
+     *
+     * @param query The free-text query, e.g. "smi" or "john smi".
+     * @param limit The maximum number of user IDs to return.
+     * @return The matching user IDs in {@code _id} order, so a capped result is always the same
+     *         subset; empty if the query has no words.
+     */
+    public List<String> findUserIds(String query, int limit) {
+        List<Pattern> patterns = new ArrayList<>();
+        for (String term : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            if (term.isEmpty()) continue;
+            patterns.add(Pattern.compile("^" + escape(term)));
+            if (patterns.size() == MAX_QUERY_TERMS) break;
+        }
+        if (patterns.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Query q = new Query(Criteria.where("searchKeys").all(patterns.toArray()))
+                .with(Sort.by("_id"))
+                .limit(limit);
+        q.fields().include("_id");
+
+        List<String> ids = new ArrayList<>();
+        for (User user : mongoTemplate.find(q, User.class)) {
+            ids.add(user.getId());
+        }
+        return ids;
+    }
+
+    /**
+     * Computes search keys for users that do not have them yet.
+     * <p>
+     * Streams the users with a cursor and writes the keys in unordered bulk batches.
+     * Running it again is a no-op.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Query missing = new Query(Criteria.where("searchKeys").exists(false));
+        missing.fields().include("_id").include("email").include("firstName").include("lastName");
+
+        int updated = 0;
+        try (Stream<User> users = mongoTemplate.stream(missing, User.class)) {
+            BulkOperations bulk = null;
+            int pending = 0;
+            for (User user : (Iterable<User>) users::iterator) {
+                if (bulk == null) {
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                }
+                bulk.updateOne(
+                        new Query(Criteria.where("_id").is(user.getId())),
+                        new Update().set("searchKeys", searchKeysFor(user.getFirstName(), user.getLastName(), user.getEmail()))
+                );
+                if (++pending == BACKFILL_BATCH_SIZE) {
+                    updated += bulk.execute().getModifiedCount();
+                    bulk = null;
+                    pending = 0;
+                }
+            }
+            if (bulk != null) {
+                updated += bulk.execute().getModifiedCount();
+            }
+        } catch (DataAccessException e) {
+            System.err.println("Guest search key backfill failed: " + e.getMessage());
+            return;
+        }
+        System.out.println("Guest search keys backfilled for " + updated + " user(s).");
+    }
+
+    /**
+     * Builds the lowercase search keys for a name and email.
+     *
+     * @param firstName The first name (may be null).
+     * @param lastName The last name (may be null).
+     * @param email The email address (may be null).
+     * @return The de-duplicated search keys.
+     */
+    private List<String> searchKeysFor(String firstName, String lastName, String email) {
+        Set<String> keys = new LinkedHashSet<>();
+        addWords(keys, firstName, "[\\s-]+");
+        addWords(keys, lastName, "[\\s-]+");
+        if (email != null && !email.isBlank()) {
+            String normalized = email.trim().toLowerCase(Locale.ROOT);
+            keys.add(normalized);
+            int at = normalized.indexOf('@');
+            addWords(keys, at > 0 ? normalized.substring(0, at) : normalized, "[._+-]+");
+        }
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Splits a value into lowercase words and adds them to a key set.
+     *
+     * @param keys The key set to add to.
+     * @param value The value to split (may be null).
+     * @param separators The regex that separates words.
+     */
+    private void addWords(Set<String> keys, String value, String separators) {
+        if (value == null) return;
+        for (String word : value.trim().toLowerCase(Locale.ROOT).split(separators)) {
+            if (!word.isEmpty()) keys.add(word);
+        }
+    }
+
+    /**
+     * Escapes regex metacharacters so a query term is matched literally.
+     *
+     * @param term The query term.
+     * @return The escaped term.
+     */
+    private String escape(String term) {
+        StringBuilder escaped = new StringBuilder(term.length());
+        for (char c : term.toCharArray()) {
+            if (!Character.isLetterOrDigit(c)) escaped.append('\\');
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
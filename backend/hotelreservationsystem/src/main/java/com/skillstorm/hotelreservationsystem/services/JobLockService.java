@@ -0,0 +1,185 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotelreservationsystem.models.JobLock;
+import com.skillstorm.hotelreservationsystem.models.JobRun;
+import com.skillstorm.hotelreservationsystem.repositories.JobRunRepository;
+
+/**
+ * Service class that makes scheduled jobs run on one node at a time.
+ * <p>
+ * Every application node fires the same {@code @Scheduled} methods. Before doing any work, a job
+ * takes a lease in the {@code job_locks} collection with a single conditional upsert: it matches
+ * the job's document only if its {@code lockUntil} has passed, and if the document exists but is
+ * still leased the upsert fails with a duplicate key error, so exactly one node wins. The loser
+ * skips the run.
+ * </p>
+ * <p>
+ * The lease is held for at most {@code lockAtMostFor}, so a node that dies mid-run does not block
+ * the job forever, and at least {@code lockAtLeastFor}, so a node whose clock or scheduler fires a
+ * little later does not start the same nightly run again after a fast run has finished. The winner
+ * records a {@code job_runs} entry with its duration, rows touched and outcome.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class JobLockService {
+
+    private final MongoTemplate mongoTemplate;
+    private final JobRunRepository jobRunRepository;
+    private final String nodeId;
+
+    /**
+     * Constructs a new JobLockService with the required dependencies and settings.
+     *
+     * @param mongoTemplate The MongoTemplate used to acquire and release leases.
+     * @param jobRunRepository The repository for the run history.
+     * @param nodeId The identity of this node; defaults to {@code <hostname>:<pid>} when blank.
+     */
+    public JobLockService(
+            MongoTemplate mongoTemplate,
+            JobRunRepository jobRunRepository,
+            @Value("${app.scheduler.node-id:}") String nodeId
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobRunRepository = jobRunRepository;
+        this.nodeId = (nodeId == null || nodeId.isBlank()) ? defaultNodeId() : nodeId;
+    }
+
+    /**
+     * Runs a job if this node can take its lease, and records the run.
+     *
+     * @param job The job name.
+     * @param lockAtMostFor How long the lease lasts if this node never releases it.
+     * @param lockAtLeastFor The minimum time the lease is held, even if the job finishes sooner.
+     * @param task The job body, returning the number of documents it changed.
+     * @return The recorded run, or null if another node holds the lease.
+     */
+    public JobRun runExclusive(String job, Duration lockAtMostFor, Duration lockAtLeastFor, LongSupplier task) {
+        Instant lockedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        if (!acquire(job, lockedAt, lockAtMostFor)) {
+            System.out.println("Skipping " + job + ": lease held by another node.");
+            return null;
+        }
+
+        JobRun run = jobRunRepository.save(new JobRun(job, nodeId));
+        try {
+            run.setRowsTouched(task.getAsLong());
+            run.setOutcome(JobRun.Outcome.SUCCEEDED);
+        } catch (RuntimeException e) {
+            run.setOutcome(JobRun.Outcome.FAILED);
+            run.setError(e.getMessage());
+            System.err.println("Job " + job + " failed: " + e.getMessage());
+        } finally {
+            run.setFinishedAt(Instant.now());
+            run.setDurationMs(Duration.between(run.getStartedAt(), run.getFinishedAt()).toMillis());
+            try {
+                jobRunRepository.save(run);
+            } finally {
+                release(job, lockedAt, lockAtLeastFor);
+            }
+        }
+        return run;
+    }
+
+    /**
+     * Lists the most recent job runs, newest first.
+     *
+     * @param job The job name to filter by (optional).
+     * @param limit The maximum number of runs to return.
+     * @return The recent runs.
+     */
+    public List<JobRun> recentRuns(String job, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return (job == null || job.isBlank())
+                ? jobRunRepository.findAllByOrderByStartedAtDesc(page)
+                : jobRunRepository.findByJobOrderByStartedAtDesc(job, page);
+    }
+
+    /**
+     * Gets the identity this node uses as lease holder.
+     *
+     * @return The node identity.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Takes the lease on a job if it is free or expired.
+     *
+     * @param job The job name.
+     * @param now The acquisition time.
+     * @param lockAtMostFor How long the lease lasts.
+     * @return True if this node now holds the lease; false otherwise.
+     */
+    private boolean acquire(String job, Instant now, Duration lockAtMostFor) {
+        Query free = new Query(Criteria.where("_id").is(job).and("lockUntil").lte(now));
+        Update lease = new Update()
+                .set("holder", nodeId)
+                .set("lockedAt", now)
+                .set("lockUntil", now.plus(lockAtMostFor));
+        try {
+            mongoTemplate.upsert(free, lease, JobLock.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // The document exists and its lease has not expired
+            return false;
+        }
+    }
+
+    /**
+     * Shortens this node's lease to its minimum hold time.
+     * <p>
+     * Matches on holder and acquisition time, so a lease that expired and was taken by another
+     * node is left alone.
+     * </p>
+     *
+     * @param job The job name.
+     * @param lockedAt When this node acquired the lease.
+     * @param lockAtLeastFor The minimum time the lease is held.
+     */
+    private void release(String job, Instant lockedAt, Duration lockAtLeastFor) {
+        Instant now = Instant.now();
+        Instant minimum = lockedAt.plus(lockAtLeastFor);
+        Query mine = new Query(Criteria.where("_id").is(job).and("holder").is(nodeId).and("lockedAt").is(lockedAt));
+        try {
+            mongoTemplate.updateFirst(mine, new Update().set("lockUntil", now.isAfter(minimum) ? now : minimum), JobLock.class);
+        } catch (RuntimeException e) {
+            // The lease will still expire at lockAtMostFor
+            System.err.println("Failed to release lease on " + job + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the default node identity from the host name and process ID.
+     *
+     * @return The node identity.
+     */
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        return host + ":" + ProcessHandle.current().pid();
+    }
+}
@@ -0,0 +1,81 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.skillstorm.hotelreservationsystem.dto.BookingSearchResult;
+import com.skillstorm.hotelreservationsystem.models.Room;
+
+/**
+ * Writes room search results in the lean JSON shape used by {@code GET /rooms/search/lean}.
+ * <p>
+ * The full {@code /rooms/search} response serializes every {@link Room} entity, including its
+ * {@code unavailableDates} history and a copy of its room type. The lean shape writes each room
+ * type once per group and each room as its ID, number and attribute flags only:
+ * </p>
+ * <pre>
+ * [ { "roomType": { ... }, "availableRooms": [ { "id", "roomNumber", "accessible", "petFriendly", "nonSmoking" } ] } ]
+ * </pre>
+ * <p>
+ * Rooms are written field by field with a {@link JsonGenerator} straight to the response stream,
+ * so no intermediate DTOs or reflection-based bean serialization are involved.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Component
+public class LeanSearchResponseWriter {
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructs a new LeanSearchResponseWriter with the application's ObjectMapper.
+     *
+     * @param objectMapper The ObjectMapper used to create generators and serialize room types.
+     */
+    public LeanSearchResponseWriter(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes search results as a lean JSON array.
+     *
+     * @param results The search results grouped by room type.
+     * @param out The stream to write to; it is flushed but not closed.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void write(List<BookingSearchResult> results, OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+            gen.writeStartArray();
+            for (BookingSearchResult result : results) {
+                gen.writeStartObject();
+                gen.writeFieldName("roomType");
+                objectMapper.writeValue(gen, result.getRoomType());
+
+                gen.writeArrayFieldStart("availableRooms");
+                for (Room room : result.getAvailableRooms()) {
+                    gen.writeStartObject();
+                    gen.writeStringField("id", room.getId());
+                    gen.writeStringField("roomNumber", room.getRoomNumber());
+                    gen.writeBooleanField("accessible", room.isAccessible());
+                    gen.writeBooleanField("petFriendly", room.isPetFriendly());
+                    gen.writeBooleanField("nonSmoking", room.isNonSmoking());
+                    gen.writeEndObject();
+                }
+                gen.writeEndArray();
+
+                gen.writeEndObject();
+            }
+            gen.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rate limiter for outgoing mail that respects the SMTP provider's sending limits.
+ * <p>
+ * Combines a token bucket, which caps the burst and steady per-second send rate, with a daily
+ * quota that resets at midnight UTC. Gmail rejects messages (and can temporarily lock the
+ * account) once either limit is exceeded, so the outbox worker asks for a permit before it
+ * claims each message rather than failing deliveries and burning retries.
+ * </p>
+ * <p>
+ * Limits are tracked per application node; with several nodes the configured values should be
+ * divided between them.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Component
+public class MailRateLimiter {
+
+    private final double permitsPerSecond;
+    private final double burst;
+    private final int dailyQuota;
+
+    private double tokens;
+    private long lastRefillNanos;
+
+    private LocalDate quotaDay;
+    private int sentToday;
+
+    /**
+     * Constructs a new MailRateLimiter with the configured limits.
+     *
+     * @param permitsPerSecond The steady-state number of messages per second.
+     * @param burst The maximum number of messages that may be sent back-to-back.
+     * @param dailyQuota The maximum number of messages per UTC day.
+     */
+    public MailRateLimiter(
+            @Value("${app.mail.rate.per-second:2}") double permitsPerSecond,
+            @Value("${app.mail.rate.burst:5}") double burst,
+            @Value("${app.mail.rate.daily-quota:450}") int dailyQuota
+    ) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.dailyQuota = dailyQuota;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.quotaDay = LocalDate.now(ZoneOffset.UTC);
+    }
+
+    /**
+     * Takes a permit to send one message if both the rate and the daily quota allow it.
+     *
+     * @return True if the message may be sent now; false if the caller should wait.
+     */
+    public synchronized boolean tryAcquire() {
+        rollQuotaDay();
+        if (sentToday >= dailyQuota) return false;
+
+        refill();
+        if (tokens < 1.0) return false;
+
+        tokens -= 1.0;
+        sentToday++;
+        return true;
+    }
+
+    /**
+     * Returns a permit that was taken but not used, for example because no message was due.
+     */
+    public synchronized void release() {
+        tokens = Math.min(burst, tokens + 1.0);
+        if (sentToday > 0) sentToday--;
+    }
+
+    /**
+     * Gets the number of messages permitted so far in the current UTC day.
+     *
+     * @return The number of permits taken today.
+     */
+    public synchronized int getSentToday() {
+        rollQuotaDay();
+        return sentToday;
+    }
+
+    /**
+     * Gets the configured daily quota.
+     *
+     * @return The maximum number of messages per UTC day.
+     */
+    public int getDailyQuota() {
+        return dailyQuota;
+    }
+
+    /**
+     * Adds the tokens accrued since the last refill, up to the burst size.
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+        tokens = Math.min(burst, tokens + elapsedSeconds * permitsPerSecond);
+        lastRefillNanos = now;
+    }
+
+    /**
+     * Resets the daily counter when the UTC day changes.
+     */
+    private void rollQuotaDay() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!today.equals(quotaDay)) {
+            quotaDay = today;
+            sentToday = 0;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A plain-text email template compiled once into literal segments.
+ * <p>
+ * Placeholders are written as {@code {}} and filled positionally. The template text is split
+ * when the template is created, so rendering is a single pass of {@link StringBuilder} appends
+ * instead of re-parsing a format string for every message.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+public final class MailTemplate {
+
+    private static final String PLACEHOLDER = "{}";
+
+    private final String[] segments;
+    private final int literalLength;
+
+    /**
+     * Compiles a template.
+     *
+     * @param text The template text with {@code {}} placeholders.
+     */
+    public MailTemplate(String text) {
+        List<String> parts = new ArrayList<>();
+        int from = 0;
+        int at;
+        while ((at = text.indexOf(PLACEHOLDER, from)) >= 0) {
+            parts.add(text.substring(from, at));
+            from = at + PLACEHOLDER.length();
+        }
+        parts.add(text.substring(from));
+
+        this.segments = parts.toArray(new String[0]);
+        int length = 0;
+        for (String part : segments) length += part.length();
+        this.literalLength = length;
+    }
+
+    /**
+     * Renders the template with the given values.
+     *
+     * @param values One value per placeholder, in order.
+     * @return The rendered text.
+     * @throws IllegalArgumentException if the number of values does not match the placeholders.
+     */
+    public String render(Object... values) {
+        if (values.length != segments.length - 1) {
+            throw new IllegalArgumentException("Template expects " + (segments.length - 1) + " values but got " + values.length);
+        }
+
+        StringBuilder sb = new StringBuilder(literalLength + values.length * 16);
+        sb.append(segments[0]);
+        for (int i = 0; i < values.length; i++) {
+            sb.append(values[i]);
+            sb.append(segments[i + 1]);
+        }
+        return sb.toString();
+    }
+}
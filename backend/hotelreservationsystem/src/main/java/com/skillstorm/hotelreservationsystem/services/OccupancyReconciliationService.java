@@ -1,24 +1,31 @@
 package com.skillstorm.hotelreservationsystem.services;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.skillstorm.hotelreservationsystem.dto.ReconciliationResult;
 import com.skillstorm.hotelreservationsystem.models.Reservation;
 import com.skillstorm.hotelreservationsystem.models.Room;
-import com.skillstorm.hotelreservationsystem.repositories.ReservationRepository;
-import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
 
 /**
  * Service class for scheduled room occupancy reconciliation tasks.
  * <p>
  * This service runs scheduled jobs to ensure room occupancy status accurately
  * reflects active checked-in reservations, preventing data inconsistencies.
+ * The work is proportional to the number of active stays: only CHECKED_IN reservations
+ * are read (through the {@code status_check_out} index), only room IDs are projected,
+ * and only rooms whose flag is actually wrong are written.
  * </p>
  *
  * @author SkillStorm
@@ -27,66 +34,157 @@ import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
 @Service
 public class OccupancyReconciliationService {
 
-    private final ReservationRepository reservationRepository;
-    private final RoomRepository roomRepository;
+    /**
+     * Lease name of the reconciliation job.
+     */
+    private static final String JOB_NAME = "occupancy-reconciliation";
+
+    /**
+     * Longest time a node may hold the job's lease before another node can take over.
+     */
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofMinutes(30);
 
     /**
-     * Constructs a new OccupancyReconciliationService with the required repositories.
+     * Shortest time the lease is held, so late-firing nodes skip a run that already finished.
+     */
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofMinutes(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLockService jobLockService;
+    private final TransactionRunner transactionRunner;
+
+    /**
+     * Constructs a new OccupancyReconciliationService with the required dependencies.
      *
-     * @param reservationRepository The repository for reservation data access.
-     * @param roomRepository The repository for room data access.
+     * @param mongoTemplate The MongoTemplate used for projected queries and bulk updates.
+     * @param jobLockService The service that lets only one node run the job.
+     * @param transactionRunner The runner that applies the reconciliation in one transaction.
      */
-    public OccupancyReconciliationService(ReservationRepository reservationRepository, RoomRepository roomRepository) {
-        this.reservationRepository = reservationRepository;
-        this.roomRepository = roomRepository;
+    public OccupancyReconciliationService(MongoTemplate mongoTemplate, JobLockService jobLockService, TransactionRunner transactionRunner) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobLockService = jobLockService;
+        this.transactionRunner = transactionRunner;
     }
 
     /**
      * Scheduled task that runs daily at 3:00 AM to reconcile room occupancy status.
      * <p>
-     * Ensures that rooms with active CHECKED_IN reservations (where today is within
-     * the stay period) are marked as occupied, and rooms without such reservations
-     * are marked as unoccupied.
+     * Only the node that takes the job's lease runs the reconciliation; the run is recorded in {@code job_runs}.
      * </p>
      * <p>
      * Cron expression: "0 0 3 * * ?" = Every day at 3:00 AM.
      * </p>
      */
     @Scheduled(cron = "0 0 3 * * ?")
-    @Transactional
-    public void reconcileOccupiedRooms() {
+    public void runNightly() {
+        jobLockService.runExclusive(JOB_NAME, LOCK_AT_MOST_FOR, LOCK_AT_LEAST_FOR, () -> {
+            ReconciliationResult result = reconcileOccupiedRooms();
+            return result.markedOccupied() + result.markedVacant();
+        });
+    }
+
+    /**
+     * Reconciles room occupancy status.
+     * <p>
+     * Ensures that rooms with active CHECKED_IN reservations (where today is within
+     * the stay period) are marked as occupied, and rooms without such reservations
+     * are marked as unoccupied. Each direction is applied with one {@code updateMulti},
+     * conditional on the room still having the wrong flag, and the reported counts are the
+     * documents MongoDB actually modified.
+     * </p>
+     * <p>
+     * The reads and writes run in one transaction through {@link TransactionRunner}, so they see
+     * a single snapshot and a check-in that writes a room in between makes the run replay. Rooms
+     * about to be marked vacant are also re-checked for an active stay just before the write, which
+     * keeps a concurrent check-in from being cleared when transactions are disabled.
+     * </p>
+     *
+     * @return The counts and duration of this run.
+     */
+    public ReconciliationResult reconcileOccupiedRooms() {
+        long startedAt = System.currentTimeMillis();
         LocalDate today = LocalDate.now();
 
-        // Active checked-in reservations where today is within the stay
-        List<Reservation> checkedIn = reservationRepository.findAll().stream()
-                .filter(r -> r.getStatus() == Reservation.ReservationStatus.CHECKED_IN)
-                .filter(r -> r.getRoomId() != null)
-                .filter(r -> r.getCheckIn() != null && r.getCheckOut() != null)
-                .filter(r -> !today.isBefore(r.getCheckIn()) && today.isBefore(r.getCheckOut()))
-                .toList();
-
-        Set<String> shouldBeOccupiedRoomIds = checkedIn.stream()
-                .map(Reservation::getRoomId)
-                .collect(Collectors.toSet());
-
-        // 1) Ensure rooms tied to active CHECKED_IN reservations are occupied
-        if (!shouldBeOccupiedRoomIds.isEmpty()) {
-            List<Room> rooms = roomRepository.findAllById(shouldBeOccupiedRoomIds);
-            for (Room room : rooms) {
-                if (!room.isOccupied()) room.setOccupied(true);
+        return transactionRunner.execute("reconcileOccupancy", () -> {
+            // Active checked-in reservations where today is within the stay
+            List<Reservation> checkedIn = findActiveStays(today, null);
+            Set<String> shouldBeOccupiedRoomIds = roomIds(checkedIn);
+
+            // 1) Rooms tied to active CHECKED_IN reservations that are not marked occupied
+            long markedOccupied = 0;
+            if (!shouldBeOccupiedRoomIds.isEmpty()) {
+                markedOccupied = mongoTemplate.updateMulti(
+                        new Query(Criteria.where("_id").in(shouldBeOccupiedRoomIds).and("occupied").ne(true)),
+                        new Update().set("occupied", true),
+                        Room.class).getModifiedCount();
             }
-            roomRepository.saveAll(rooms);
-        }
 
-        // 2) Clear rooms marked occupied but no longer have an active checked-in reservation
-        List<Room> occupiedRooms = roomRepository.findByOccupiedTrue();
-        List<Room> toClear = occupiedRooms.stream()
-                .filter(r -> !shouldBeOccupiedRoomIds.contains(r.getId()))
-                .collect(Collectors.toList());
+            // 2) Rooms marked occupied that no longer have an active checked-in reservation
+            Query occupied = new Query(Criteria.where("occupied").is(true).and("_id").nin(shouldBeOccupiedRoomIds));
+            occupied.fields().include("_id");
+            Set<String> toClear = new HashSet<>();
+            for (Room room : mongoTemplate.find(occupied, Room.class)) {
+                toClear.add(room.getId());
+            }
+
+            // Skip any room checked in since the first query
+            toClear.removeAll(roomIds(findActiveStays(today, toClear)));
 
-        if (!toClear.isEmpty()) {
-            for (Room room : toClear) room.setOccupied(false);
-            roomRepository.saveAll(toClear);
+            long markedVacant = 0;
+            if (!toClear.isEmpty()) {
+                markedVacant = mongoTemplate.updateMulti(
+                        new Query(Criteria.where("_id").in(toClear).and("occupied").is(true)),
+                        new Update().set("occupied", false),
+                        Room.class).getModifiedCount();
+            }
+
+            ReconciliationResult result = new ReconciliationResult(
+                    checkedIn.size(),
+                    (int) markedOccupied,
+                    (int) markedVacant,
+                    System.currentTimeMillis() - startedAt
+            );
+            System.out.println("Occupancy reconciliation: " + result.activeStays() + " active stay(s), "
+                    + result.markedOccupied() + " room(s) marked occupied, " + result.markedVacant()
+                    + " room(s) marked vacant in " + result.durationMs() + " ms.");
+            return result;
+        });
+    }
+
+    /**
+     * Finds the CHECKED_IN reservations whose stay includes a date.
+     * <p>
+     * Reads through the {@code status_check_out} index and projects only the room ID.
+     * </p>
+     *
+     * @param today The date the stay must include.
+     * @param roomIds The rooms to check, or null for every room.
+     * @return The active stays, with only their room IDs populated.
+     */
+    private List<Reservation> findActiveStays(LocalDate today, Set<String> roomIds) {
+        if (roomIds != null && roomIds.isEmpty()) return new ArrayList<>();
+
+        Criteria criteria = Criteria.where("status").is(Reservation.ReservationStatus.CHECKED_IN)
+                .and("checkOut").gt(today)
+                .and("checkIn").lte(today);
+        criteria = roomIds == null ? criteria.and("roomId").ne(null) : criteria.and("roomId").in(roomIds);
+        Query activeStays = new Query(criteria);
+        activeStays.fields().include("roomId");
+
+        return mongoTemplate.find(activeStays, Reservation.class);
+    }
+
+    /**
+     * Collects the distinct room IDs of a list of reservations.
+     *
+     * @param reservations The reservations.
+     * @return Their room IDs.
+     */
+    private Set<String> roomIds(List<Reservation> reservations) {
+        Set<String> ids = new HashSet<>();
+        for (Reservation r : reservations) {
+            ids.add(r.getRoomId());
         }
+        return ids;
     }
 }
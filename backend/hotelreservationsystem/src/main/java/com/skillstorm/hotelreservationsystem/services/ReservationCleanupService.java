@@ -1,12 +1,20 @@
 package com.skillstorm.hotelreservationsystem.services;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import com.skillstorm.hotelreservationsystem.models.JobCheckpoint;
 import com.skillstorm.hotelreservationsystem.models.Reservation;
 import com.skillstorm.hotelreservationsystem.models.Reservation.ReservationStatus;
-import com.skillstorm.hotelreservationsystem.repositories.ReservationRepository;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -16,6 +24,15 @@ import java.util.List;
  * This service runs scheduled jobs to automatically update reservation statuses
  * based on date criteria, such as marking past reservations as COMPLETED.
  * </p>
+ * <p>
+ * The cleanup works in chunks ordered by {@code _id}: each chunk is read with a range query
+ * after the previous chunk's last ID, its guests and rooms are batch-loaded, completion emails are
+ * enqueued with per-reservation deduplication keys, the statuses are changed with one unordered
+ * bulk write, and a checkpoint is saved in {@code job_checkpoints}. A run that stops part-way is
+ * resumed from its checkpoint by the next run, and re-processing a chunk is harmless. If the emails
+ * of a chunk cannot be queued, the run fails before that chunk's statuses change, so the next run
+ * retries it instead of skipping past guests who were never emailed.
+ * </p>
  *
  * @author SkillStorm
  * @version 1.0
@@ -23,61 +40,157 @@ import java.util.List;
 @Service
 public class ReservationCleanupService {
 
-    private final ReservationRepository reservationRepository;
+    /**
+     * Checkpoint name of the completion job.
+     */
+    private static final String JOB_NAME = "reservation-cleanup";
+
+    /**
+     * Longest time a node may hold the job's lease before another node can take over.
+     */
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofHours(2);
+
+    /**
+     * Shortest time the lease is held, so late-firing nodes skip a run that already finished.
+     */
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofMinutes(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final ReservationHydrator reservationHydrator;
     private final EmailService emailService;
+    private final JobLockService jobLockService;
+    private final int chunkSize;
 
     /**
      * Constructs a new ReservationCleanupService with the required dependencies.
      *
-     * @param reservationRepository The repository for reservation data access.
+     * @param mongoTemplate The MongoTemplate used for chunk reads, bulk updates and checkpoints.
+     * @param reservationHydrator The hydrator that batch-loads guests and rooms for the emails.
      * @param emailService The service for sending completion emails.
+     * @param jobLockService The service that lets only one node run the job.
+     * @param chunkSize The number of reservations handled per chunk.
      */
-    public ReservationCleanupService(ReservationRepository reservationRepository, EmailService emailService) {
-        this.reservationRepository = reservationRepository;
+    public ReservationCleanupService(
+            MongoTemplate mongoTemplate,
+            ReservationHydrator reservationHydrator,
+            EmailService emailService,
+            JobLockService jobLockService,
+            @Value("${app.cleanup.chunk-size:500}") int chunkSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.reservationHydrator = reservationHydrator;
         this.emailService = emailService;
+        this.jobLockService = jobLockService;
+        this.chunkSize = Math.max(1, chunkSize);
     }
 
     /**
      * Scheduled task that runs daily at 4:00 AM to mark past reservations as COMPLETED.
      * <p>
-     * Finds all CONFIRMED reservations with check-out dates before today and updates
-     * them to COMPLETED status, sending completion emails to guests.
+     * Only the node that takes the job's lease runs the cleanup; the run is recorded in {@code job_runs}.
      * </p>
      * <p>
      * Cron expression: "0 0 4 * * ?" = Every day at 4:00 AM.
      * </p>
      */
     @Scheduled(cron = "0 0 4 * * ?")
-    @Transactional // Ensure all updates happen in one transaction
-    public void markPastReservationsAsCompleted() {
+    public void runNightly() {
+        jobLockService.runExclusive(JOB_NAME, LOCK_AT_MOST_FOR, LOCK_AT_LEAST_FOR, this::markPastReservationsAsCompleted);
+    }
+
+    /**
+     * Marks past reservations as COMPLETED.
+     * <p>
+     * Finds all CONFIRMED reservations with check-out dates before today and updates
+     * them to COMPLETED status, sending completion emails to guests. If the previous run
+     * did not finish, it is continued with its original cutoff date first.
+     * </p>
+     *
+     * @return The number of reservations marked COMPLETED by this run.
+     */
+    public long markPastReservationsAsCompleted() {
         System.out.println("Running Daily Reservation Cleanup...");
 
-        LocalDate today = LocalDate.now();
+        JobCheckpoint checkpoint = mongoTemplate.findById(JOB_NAME, JobCheckpoint.class);
+        if (checkpoint != null && !checkpoint.isCompleted()) {
+            System.out.println("Resuming reservation cleanup from " + checkpoint.getCutoff()
+                    + " after " + checkpoint.getLastId() + " (" + checkpoint.getProcessed() + " already processed).");
+        } else {
+            checkpoint = new JobCheckpoint(JOB_NAME, LocalDate.now());
+        }
 
-        // 1. Find all reservations that ended BEFORE today and are still CONFIRMED
-        List<Reservation> pastDueReservations = reservationRepository
-                .findByCheckOutBeforeAndStatus(today, ReservationStatus.CONFIRMED);
+        long completed = 0;
+        List<Reservation> chunk;
+        while (!(chunk = nextChunk(checkpoint)).isEmpty()) {
+            completed += processChunk(chunk, checkpoint);
+        }
 
-        if (pastDueReservations.isEmpty()) {
+        checkpoint.setCompletedAt(Instant.now());
+        mongoTemplate.save(checkpoint);
+
+        if (checkpoint.getProcessed() == 0) {
             System.out.println("No reservations to update.");
-            return;
+        } else {
+            System.out.println("Updated " + checkpoint.getProcessed() + " reservations to COMPLETED, queued "
+                    + checkpoint.getNotified() + " completion emails.");
         }
+        return completed;
+    }
 
-        // 2. Update them to COMPLETED
-        for (Reservation res : pastDueReservations) {
-            res.setStatus(ReservationStatus.COMPLETED);
-            try {
-                if (res.getUser() != null && res.getUser().getEmail() != null) {
-                    emailService.sendStayCompletedEmail(res.getUser().getEmail(), res);
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to send completion email for Reservation " + res.getId() + ": " + e.getMessage());
-            }
+    /**
+     * Reads the next chunk of past-due CONFIRMED reservations after the checkpoint position.
+     * <p>
+     * The {@code status_id} index returns CONFIRMED reservations already in {@code _id} order,
+     * so each chunk stops after {@code chunkSize} matches instead of sorting every remaining one.
+     * </p>
+     *
+     * @param checkpoint The current checkpoint.
+     * @return Up to one chunk of reservations, in {@code _id} order.
+     */
+    private List<Reservation> nextChunk(JobCheckpoint checkpoint) {
+        Criteria criteria = Criteria.where("status").is(ReservationStatus.CONFIRMED)
+                .and("checkOut").lt(checkpoint.getCutoff());
+        if (checkpoint.getLastId() != null) {
+            criteria = criteria.and("_id").gt(checkpoint.getLastId());
         }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.ASC, "_id")).limit(chunkSize).withHint("status_id");
+        return mongoTemplate.find(query, Reservation.class);
+    }
 
-        // 3. Save all changes
-        reservationRepository.saveAll(pastDueReservations);
+    /**
+     * Completes one chunk and saves the checkpoint after it.
+     * <p>
+     * Emails are enqueued before the status change so that a crash in between re-reads the chunk
+     * on resume; the deduplication keys keep the guests from being emailed twice. A failure to
+     * hydrate or enqueue propagates before any status is changed or the checkpoint moves.
+     * </p>
+     *
+     * @param chunk The reservations to complete.
+     * @param checkpoint The checkpoint to advance.
+     * @return The number of reservations whose status was changed.
+     */
+    private long processChunk(List<Reservation> chunk, JobCheckpoint checkpoint) {
+        // 1. Batch-load guests and rooms for the chunk and queue the completion emails
+        // (a failure here ends the run, leaving the checkpoint before this chunk)
+        reservationHydrator.hydrate(chunk);
+        int queued = emailService.sendStayCompletedEmails(chunk);
+
+        // 2. Mark the chunk COMPLETED, skipping any reservation whose status changed meanwhile
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reservation.class);
+        for (Reservation res : chunk) {
+            bulk.updateOne(
+                    new Query(Criteria.where("_id").is(res.getId()).and("status").is(ReservationStatus.CONFIRMED)),
+                    new Update().set("status", ReservationStatus.COMPLETED)
+            );
+        }
+        long modified = bulk.execute().getModifiedCount();
 
-        System.out.println("Updated " + pastDueReservations.size() + " reservations to COMPLETED.");
+        // 3. Record progress
+        checkpoint.setLastId(chunk.get(chunk.size() - 1).getId());
+        checkpoint.setProcessed(checkpoint.getProcessed() + modified);
+        checkpoint.setNotified(checkpoint.getNotified() + queued);
+        checkpoint.setUpdatedAt(Instant.now());
+        mongoTemplate.save(checkpoint);
+        return modified;
     }
-}
\ No newline at end of file
+}
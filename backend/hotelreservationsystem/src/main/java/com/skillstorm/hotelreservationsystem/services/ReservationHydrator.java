@@ -0,0 +1,147 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotelreservationsystem.models.Reservation;
+import com.skillstorm.hotelreservationsystem.models.Room;
+import com.skillstorm.hotelreservationsystem.models.RoomType;
+import com.skillstorm.hotelreservationsystem.models.User;
+import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
+import com.skillstorm.hotelreservationsystem.repositories.UserRepository;
+
+/**
+ * Populates the transient {@code User}, {@code Room} and {@code RoomType} objects used by the frontend.
+ * <p>
+ * Every call collects the referenced IDs first and loads each collection with a single
+ * {@code findAllById}, so hydrating a listing costs a fixed number of queries no matter how many
+ * rows it has. Loaded documents are kept in an identity map for the duration of the call: reservations
+ * that share a room or guest are given the same instance, and IDs already present (for example a user
+ * the caller has loaded) are not fetched again.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class ReservationHydrator {
+
+    private final UserRepository userRepository;
+    private final RoomRepository roomRepository;
+    private final RoomTypeCatalog roomTypeCatalog;
+
+    /**
+     * Constructs a new ReservationHydrator with the required repositories.
+     *
+     * @param userRepository The repository for user data access.
+     * @param roomRepository The repository for room data access.
+     * @param roomTypeCatalog The cached room type catalog.
+     */
+    public ReservationHydrator(UserRepository userRepository, RoomRepository roomRepository, RoomTypeCatalog roomTypeCatalog) {
+        this.userRepository = userRepository;
+        this.roomRepository = roomRepository;
+        this.roomTypeCatalog = roomTypeCatalog;
+    }
+
+    /**
+     * Populates the user, room and room type of every reservation.
+     * <p>
+     * Issues at most three queries: users, rooms, then the room types of the loaded rooms.
+     * </p>
+     *
+     * @param reservations The reservations to hydrate.
+     */
+    public void hydrate(List<Reservation> reservations) {
+        hydrate(reservations, List.of());
+    }
+
+    /**
+     * Populates the user, room and room type of every reservation, reusing users the caller already has.
+     *
+     * @param reservations The reservations to hydrate.
+     * @param knownUsers Users that are already loaded and should not be fetched again.
+     */
+    public void hydrate(List<Reservation> reservations, Collection<User> knownUsers) {
+        if (reservations == null || reservations.isEmpty()) return;
+
+        Map<String, User> usersById = loadUsers(reservations, knownUsers);
+
+        Set<String> roomIds = reservations.stream()
+                .map(Reservation::getRoomId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        List<Room> rooms = roomIds.isEmpty() ? List.of() : roomRepository.findAllById(roomIds);
+        Map<String, Room> roomsById = rooms.stream()
+                .collect(Collectors.toMap(Room::getId, r -> r));
+
+        hydrateRoomTypes(rooms);
+
+        for (Reservation r : reservations) {
+            User u = usersById.get(r.getUserId());
+            if (u != null) r.setUser(u);
+
+            Room room = roomsById.get(r.getRoomId());
+            if (room != null) r.setRoom(room);
+        }
+    }
+
+    /**
+     * Populates the room type of every room with a single query.
+     *
+     * @param rooms The rooms to hydrate.
+     */
+    public void hydrateRoomTypes(Collection<Room> rooms) {
+        if (rooms == null || rooms.isEmpty()) return;
+
+        Set<String> typeIds = rooms.stream()
+                .map(Room::getRoomTypeId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        if (typeIds.isEmpty()) return;
+
+        Map<String, RoomType> typesById = roomTypeCatalog.findAllById(typeIds).stream()
+                .collect(Collectors.toMap(RoomType::getId, t -> t));
+
+        for (Room room : rooms) {
+            if (room.getRoomTypeId() != null) {
+                room.setRoomType(typesById.get(room.getRoomTypeId()));
+            }
+        }
+    }
+
+    /**
+     * Builds the user identity map for a batch, fetching only the IDs that are not already known.
+     *
+     * @param reservations The reservations whose users are needed.
+     * @param knownUsers Users that are already loaded.
+     * @return The users keyed by ID.
+     */
+    private Map<String, User> loadUsers(List<Reservation> reservations, Collection<User> knownUsers) {
+        Map<String, User> usersById = new HashMap<>();
+        for (User u : knownUsers) {
+            if (u != null && u.getId() != null) usersById.put(u.getId(), u);
+        }
+
+        Set<String> missing = reservations.stream()
+                .map(Reservation::getUserId)
+                .filter(Objects::nonNull)
+                .filter(id -> !usersById.containsKey(id))
+                .collect(Collectors.toSet());
+
+        if (!missing.isEmpty()) {
+            for (User u : userRepository.findAllById(missing)) {
+                usersById.put(u.getId(), u);
+            }
+        }
+        return usersById;
+    }
+}
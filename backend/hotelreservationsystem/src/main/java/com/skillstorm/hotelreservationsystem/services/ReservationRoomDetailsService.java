@@ -0,0 +1,114 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.util.List;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotelreservationsystem.models.Reservation;
+import com.skillstorm.hotelreservationsystem.models.Room;
+import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
+
+/**
+ * Service class that keeps the room details copied onto reservations in sync.
+ * <p>
+ * Reservations store the {@code roomTypeId} and {@code roomNumber} of their room alongside
+ * {@code roomId}, so employee searches can filter by room type with one indexed equality match
+ * instead of loading every room of the type and passing their IDs as an {@code $in} list.
+ * {@code ReservationService} sets the copies whenever it books a room, this service rewrites them
+ * when an admin changes a room, and a startup backfill fills them in on older reservations.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class ReservationRoomDetailsService {
+
+    private final RoomRepository roomRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Whether the startup backfill has completed.
+     */
+    private volatile boolean ready = false;
+
+    /**
+     * Constructs a new ReservationRoomDetailsService with the required dependencies.
+     *
+     * @param roomRepository The repository for room data access (used for backfill).
+     * @param mongoTemplate The MongoTemplate used for bulk reservation updates.
+     */
+    public ReservationRoomDetailsService(RoomRepository roomRepository, MongoTemplate mongoTemplate) {
+        this.roomRepository = roomRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Rewrites the room type ID and room number on every reservation of a room.
+     *
+     * @param room The room whose details changed.
+     * @return The number of reservations updated.
+     */
+    public long syncRoom(Room room) {
+        Query query = new Query(Criteria.where("roomId").is(room.getId()));
+        Update update = new Update()
+                .set("roomTypeId", room.getRoomTypeId())
+                .set("roomNumber", room.getRoomNumber());
+        return mongoTemplate.updateMulti(query, update, Reservation.class).getModifiedCount();
+    }
+
+    /**
+     * Indicates whether every reservation carries its room details, so room type filters can use them.
+     *
+     * @return True if ready; false otherwise.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Copies room details onto reservations written before they were stored.
+     * <p>
+     * Finds the distinct rooms of reservations without a {@code roomTypeId} and issues one
+     * {@code updateMulti} per room in a single unordered bulk write. Running it again is a no-op.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        Query missing = new Query(Criteria.where("roomTypeId").exists(false));
+        List<String> roomIds = mongoTemplate.findDistinct(missing, "roomId", Reservation.class, String.class);
+
+        long updated = 0;
+        if (!roomIds.isEmpty()) {
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Reservation.class);
+            int ops = 0;
+            for (Room room : roomRepository.findAllById(roomIds)) {
+                bulk.updateMulti(
+                        new Query(Criteria.where("roomId").is(room.getId()).and("roomTypeId").exists(false)),
+                        new Update().set("roomTypeId", room.getRoomTypeId()).set("roomNumber", room.getRoomNumber())
+                );
+                ops++;
+            }
+
+            if (ops > 0) {
+                try {
+                    updated = bulk.execute().getModifiedCount();
+                } catch (DataAccessException e) {
+                    System.err.println("Reservation room details backfill failed: " + e.getMessage());
+                    return;
+                }
+            }
+        }
+
+        ready = true;
+        System.out.println("Reservation room details backfilled on " + updated + " reservation(s).");
+    }
+}
@@ -3,13 +3,17 @@ package com.skillstorm.hotelreservationsystem.services;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
+import org.bson.types.ObjectId;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.skillstorm.hotelreservationsystem.dto.ReservationRequest;
 import com.skillstorm.hotelreservationsystem.models.Reservation;
@@ -18,9 +22,9 @@ import com.skillstorm.hotelreservationsystem.models.RoomType;
 import com.skillstorm.hotelreservationsystem.models.User;
 import com.skillstorm.hotelreservationsystem.repositories.ReservationRepository;
 import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
-import com.skillstorm.hotelreservationsystem.repositories.RoomTypeRepository;
 import com.skillstorm.hotelreservationsystem.repositories.UserRepository;
 import com.stripe.model.Refund;
+import com.stripe.net.RequestOptions;
 import com.stripe.param.RefundCreateParams;
 
 /**
@@ -30,6 +34,16 @@ import com.stripe.param.RefundCreateParams;
  * reservations. It coordinates between repositories, manages room availability, processes
  * payments via Stripe, and sends confirmation emails.
  * </p>
+ * <p>
+ * The database writes of each booking flow run in one MongoDB transaction through
+ * {@link TransactionRunner}, so a reservation is never saved without its room calendar and night
+ * claims (or the reverse), and a flow that hits a transient transaction error is replayed. The
+ * confirmation email is written to the outbox inside the same transaction, so it is queued exactly
+ * when the booking change commits. Stripe refunds for a cancelled or changed stay are only issued
+ * once the change has committed, so a rolled-back or rejected change never leaves the guest
+ * refunded, and they carry an idempotency key fixed for the whole call, so a repeated request
+ * never refunds twice.
+ * </p>
  *
  * @author SkillStorm
  * @version 1.0
@@ -40,8 +54,26 @@ public class ReservationService {
     private final ReservationRepository reservationRepository;
     private final RoomRepository roomRepository;
     private final UserRepository userRepository;
-    private final RoomTypeRepository roomTypeRepository;
+    private final RoomTypeCatalog roomTypeCatalog;
     private final EmailService emailService;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomNightService roomNightService;
+    private final ReservationHydrator reservationHydrator;
+    private final RevenueRollupService revenueRollupService;
+    private final SearchResultCache searchResultCache;
+    private final TransactionRunner transactionRunner;
+
+    /**
+     * A Stripe refund decided inside a booking transaction and issued after it commits.
+     *
+     * @param description What the refund is for, used in log messages.
+     * @param paymentIntentId The payment intent being refunded.
+     * @param params The refund parameters.
+     * @param idempotencyKey The Stripe idempotency key, fixed for the whole call.
+     * @param recordOn The reservation whose transaction records the refund ID, or null to not record it.
+     */
+    private record PendingRefund(String description, String paymentIntentId, RefundCreateParams params, String idempotencyKey, String recordOn) {
+    }
 
     /**
      * Constructs a new ReservationService with the required repositories and services.
@@ -49,15 +81,27 @@ public class ReservationService {
      * @param reservationRepository The repository for reservation data access.
      * @param roomRepository The repository for room data access.
      * @param userRepository The repository for user data access.
-     * @param roomTypeRepository The repository for room type data access.
+     * @param roomTypeCatalog The cached room type catalog.
      * @param emailService The service for sending email notifications.
+     * @param availabilityIndex The in-memory availability index kept in sync with room calendars.
+     * @param roomNightService The service for per-night room claims.
+     * @param reservationHydrator The hydrator for transient user and room data.
+     * @param revenueRollupService The service maintaining the daily revenue rollup.
+     * @param searchResultCache The room search cache, invalidated whenever a calendar changes.
+     * @param transactionRunner The runner that executes booking writes in retried transactions.
      */
-    public ReservationService(ReservationRepository reservationRepository, RoomRepository roomRepository, UserRepository userRepository, RoomTypeRepository roomTypeRepository, EmailService emailService) {
+    public ReservationService(ReservationRepository reservationRepository, RoomRepository roomRepository, UserRepository userRepository, RoomTypeCatalog roomTypeCatalog, EmailService emailService, RoomAvailabilityIndex availabilityIndex, RoomNightService roomNightService, ReservationHydrator reservationHydrator, RevenueRollupService revenueRollupService, SearchResultCache searchResultCache, TransactionRunner transactionRunner) {
         this.reservationRepository = reservationRepository;
         this.roomRepository = roomRepository;
         this.userRepository = userRepository;
-        this.roomTypeRepository = roomTypeRepository;
+        this.roomTypeCatalog = roomTypeCatalog;
         this.emailService = emailService;
+        this.availabilityIndex = availabilityIndex;
+        this.roomNightService = roomNightService;
+        this.reservationHydrator = reservationHydrator;
+        this.revenueRollupService = revenueRollupService;
+        this.searchResultCache = searchResultCache;
+        this.transactionRunner = transactionRunner;
     }
 
     /**
@@ -72,8 +116,8 @@ public class ReservationService {
      * @param userEmail The email address of the user making the reservation.
      * @return The created reservation with all associated data populated.
      * @throws RuntimeException if the room, user, or room type is not found.
+     * @throws ResponseStatusException with HTTP 409 if the room is already booked for any of the requested nights.
      */
-    @Transactional
     public Reservation createReservation(ReservationRequest request, String userEmail) {
 
         // 1. Fetch Entities
@@ -84,7 +128,7 @@ public class ReservationService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // 2. Fetch Price (Need to load RoomType manualy now!)
-        RoomType type = roomTypeRepository.findById(room.getRoomTypeId())
+        RoomType type = roomTypeCatalog.findById(room.getRoomTypeId())
                 .orElseThrow(() -> new RuntimeException("Room Type not found"));
         room.setRoomType(type); // Attach for consistency
 
@@ -111,6 +155,11 @@ public class ReservationService {
                 request.getPaymentIntentId()
         );
 
+        // Assign the ID up front so the claimed nights can reference it
+        reservation.setId(new ObjectId().toHexString());
+        reservation.setRoomTypeId(room.getRoomTypeId());
+        reservation.setRoomNumber(room.getRoomNumber());
+
         // Payment snapshot
         reservation.setPaymentStatus(Reservation.PaymentStatus.PAID);
         Reservation.PaymentTransaction txn = new Reservation.PaymentTransaction();
@@ -122,27 +171,30 @@ public class ReservationService {
         txn.setPaidAt(Instant.now());
         reservation.setTransaction(txn);
         
-        // 4. Save to DB (Saves "userId": "..." and "roomId": "...")
-        Reservation savedReservation = reservationRepository.save(reservation);
+        // 4+5. Claim the Room Dates and Save to DB in one transaction
+        // Both claims are conditional writes, so of two concurrent checkouts for the same dates only one can win.
+        Reservation savedReservation = transactionRunner.execute("createReservation", () -> {
+            Room bookedRoom = claimStay(room.getId(), reservation.getId(), request.getCheckIn(), request.getCheckOut());
+            if (bookedRoom == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "The selected room is not available for these dates.");
+            }
+
+            // Saves "userId": "..." and "roomId": "..."
+            Reservation saved = reservationRepository.save(reservation);
+            if (revenueRollupService.countsTowardRevenue(saved)) {
+                revenueRollupService.recordPayment(saved.getTransaction());
+            }
 
-        // 5. CRITICAL: Attach Objects for Frontend
-        // This ensures the returned JSON has "user": {...} and "room": {...}
-        savedReservation.setUser(user);
-        savedReservation.setRoom(room);
+            // 6. CRITICAL: Attach Objects for Frontend
+            // This ensures the returned JSON has "user": {...} and "room": {...}
+            bookedRoom.setRoomType(type);
+            saved.setRoom(bookedRoom);
+            saved.setUser(user);
 
-        // 6. Update Room Dates
-        if (room.getUnavailableDates() == null) {
-            room.setUnavailableDates(new ArrayList<>());
-        }
-        room.getUnavailableDates().add(new Room.UnavailableDate(request.getCheckIn(), request.getCheckOut()));
-        roomRepository.save(room);
-
-        try {
-            emailService.sendReservationConfirmation(userEmail, savedReservation);
-        } catch (Exception e) {
-            // Log error but don't fail the reservation just because email failed
-            System.err.println("Failed to send email: " + e.getMessage());
-        }
+            // Queued in the same transaction, so the confirmation exists exactly when the booking does
+            emailService.sendReservationConfirmation(userEmail, saved);
+            return saved;
+        });
 
         return savedReservation;
     }
@@ -165,22 +217,8 @@ public class ReservationService {
         // Find all reservations for this user ID
         List<Reservation> reservations = reservationRepository.findByUserId(user.getId());
 
-        // CRITICAL: Manually populate the Transient objects for the Frontend
-        for (Reservation r : reservations) {
-            // Attach User
-            r.setUser(user);
-
-            // Attach Room & RoomType
-            Room room = roomRepository.findById(r.getRoomId()).orElse(null);
-            if (room != null) {
-                // We need the RoomType for the name/image/price
-                if (room.getRoomTypeId() != null) {
-                    RoomType type = roomTypeRepository.findById(room.getRoomTypeId()).orElse(null);
-                    room.setRoomType(type);
-                }
-                r.setRoom(room);
-            }
-        }
+        // Populate the Transient objects for the Frontend in one batch (the user is already loaded)
+        reservationHydrator.hydrate(reservations, List.of(user));
         return reservations;
     }
 
@@ -193,96 +231,107 @@ public class ReservationService {
      * - Room dates are freed up for future bookings
      * - Cancellation confirmation emails are sent
      * </p>
+     * <p>
+     * The status change and the release of the dates commit together, conditional on the
+     * reservation still being CONFIRMED. The Stripe refund is only issued once that has committed,
+     * and its refund ID is recorded afterwards.
+     * </p>
      *
      * @param reservationId The unique identifier of the reservation to cancel.
-     * @throws RuntimeException if the reservation or room is not found, or if refund processing fails.
+     * @throws RuntimeException if the reservation or room is not found.
+     * @throws ResponseStatusException with HTTP 409 if the reservation stopped being CONFIRMED
+     *                                 (for example it was checked in) while it was being cancelled.
      */
-    @Transactional
     public void cancelReservation(String reservationId) {
         Reservation r = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
 
-        if (r.getStatus() == Reservation.ReservationStatus.CONFIRMED) {
-            
+        if (r.getStatus() != Reservation.ReservationStatus.CONFIRMED) {
+            return;
+        }
+
+        List<PendingRefund> refunds = new ArrayList<>();
+
+        // 1+2+3. Decide the outcome, save the new status and free up the Room Dates in one transaction
+        transactionRunner.run("cancelReservation", () -> {
+            // A replayed attempt decides again from a fresh read
+            refunds.clear();
+            Reservation current = reservationRepository.findById(reservationId)
+                    .orElseThrow(() -> new RuntimeException("Reservation not found"));
+            boolean wasRevenue = revenueRollupService.countsTowardRevenue(current);
+
             // 1. Calculate time until Check-in
             long hoursUntilCheckIn = ChronoUnit.HOURS.between(
-                    LocalDateTime.now(), 
-                    r.getCheckIn().atStartOfDay()
+                    LocalDateTime.now(),
+                    current.getCheckIn().atStartOfDay()
             );
 
             // 2. 72-Hour Rule Check
+            Reservation.ReservationStatus status;
+            Reservation.PaymentStatus paymentStatus = current.getPaymentStatus();
+            Reservation.PaymentTransaction txn = current.getTransaction();
             if (hoursUntilCheckIn >= 72) {
-                
-                String pid = r.getPaymentIntentId();
+                String pid = current.getPaymentIntentId();
+                status = Reservation.ReservationStatus.REFUNDED;
+                paymentStatus = Reservation.PaymentStatus.REFUNDED;
+                if (txn != null && pid != null && !pid.isEmpty()) {
+                    txn.setStatus("REFUNDED");
+                    txn.setRefundedAt(Instant.now());
+                }
 
                 if (pid != null && pid.startsWith("pi_test")) {
                     // Skip Stripe, just update DB
                     System.out.println("Test Reservation Canceled. Skipping Stripe Refund for: " + pid);
-                    r.setStatus(Reservation.ReservationStatus.REFUNDED);
-                    r.setPaymentStatus(Reservation.PaymentStatus.REFUNDED);
-                    if (r.getTransaction() != null) {
-                        r.getTransaction().setStatus("REFUNDED");
-                        r.getTransaction().setRefundedAt(Instant.now());
-                    }
-                } 
-                // --- REAL STRIPE REFUND ---
+                }
+                // --- REAL STRIPE REFUND, issued once the cancellation commits ---
                 else if (pid != null && !pid.isEmpty()) {
-                    try {
-                        RefundCreateParams params = RefundCreateParams.builder()
-                                .setPaymentIntent(pid)
-                                .build();
-                        
-                        Refund refund = Refund.create(params);
-                        System.out.println("Stripe Refund Successful: " + refund.getId());
-                        r.setStatus(Reservation.ReservationStatus.REFUNDED);
-                        r.setPaymentStatus(Reservation.PaymentStatus.REFUNDED);
-                        if (r.getTransaction() != null) {
-                            r.getTransaction().setStatus("REFUNDED");
-                            r.getTransaction().setRefundedAt(Instant.now());
-                            r.getTransaction().setRefundId(refund.getId());
-                        }
-                        
-                    } catch (Exception e) {
-                        e.printStackTrace();
-                        throw new RuntimeException("Failed to process Stripe refund: " + e.getMessage());
-                    }
-                } 
-                else {
-                    // No Payment ID found? Just mark as Refunded/Cancelled
-                    r.setStatus(Reservation.ReservationStatus.REFUNDED);
-                    r.setPaymentStatus(Reservation.PaymentStatus.REFUNDED);
+                    RefundCreateParams params = RefundCreateParams.builder()
+                            .setPaymentIntent(pid)
+                            .build();
+                    refunds.add(new PendingRefund("Stripe refund", pid, params, "cancel-refund-" + reservationId, reservationId));
                 }
-
+                // No Payment ID found? Just mark as Refunded
             } else {
                 // Less than 72 hours = No Refund
                 // Keep paymentStatus as PAID since the money is retained
-                r.setStatus(Reservation.ReservationStatus.CANCELLED);
-                // Do NOT change paymentStatus—money stays with us
+                status = Reservation.ReservationStatus.CANCELLED;
             }
 
-            // 3. Free up the Room Dates
-            Room room = roomRepository.findById(r.getRoomId()).orElseThrow();
-            if (room.getUnavailableDates() != null) {
-                room.getUnavailableDates().removeIf(date -> 
-                    date.getStart().equals(r.getCheckIn()) && date.getEnd().equals(r.getCheckOut())
-                );
+            // 3. Conditional on the reservation still being CONFIRMED, so a concurrent cancellation
+            // or a check-in that got there first is never overwritten
+            Reservation cancelled = reservationRepository.markCancelled(reservationId, status, paymentStatus, txn);
+            if (cancelled == null) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "The reservation can no longer be cancelled.");
             }
-            
-            roomRepository.save(room);
-            reservationRepository.save(r);
 
-            try {
-                // Ensure User is attached so we can get the email/name
-                User user = userRepository.findById(r.getUserId()).orElse(null);
-                if (user != null) {
-                    r.setUser(user);
-                    r.setRoom(room); // Ensure room is attached for the email body
-                    emailService.sendCancellationConfirmation(user.getEmail(), r);
-                }
-            } catch (Exception e) {
-                System.err.println("Failed to send cancellation email: " + e.getMessage());
+            Room room = roomRepository.releaseDates(cancelled.getRoomId(), cancelled.getId(),
+                    cancelled.getCheckIn(), cancelled.getCheckOut());
+            if (room == null) {
+                throw new RuntimeException("Room not found");
             }
-        }
+            roomNightService.releaseNights(room.getId(), cancelled.getCheckIn(), cancelled.getCheckOut());
+
+            // Cancelled and refunded reservations both drop out of revenue on the day they were paid
+            if (wasRevenue && !revenueRollupService.countsTowardRevenue(cancelled)) {
+                revenueRollupService.reversePayment(cancelled.getTransaction());
+            }
+
+            transactionRunner.afterCommit(() -> {
+                availabilityIndex.update(room);
+                searchResultCache.invalidate();
+            });
+
+            // Ensure User is attached so we can get the email/name
+            User user = userRepository.findById(cancelled.getUserId()).orElse(null);
+            if (user != null) {
+                cancelled.setUser(user);
+                cancelled.setRoom(room); // Ensure room is attached for the email body
+                emailService.sendCancellationConfirmation(user.getEmail(), cancelled);
+            }
+        });
+
+        // 4. Issue the Refund now that the cancellation is committed
+        issueRefunds(refunds);
     }
 
     /**
@@ -300,10 +349,59 @@ public class ReservationService {
      * @param empReq Whether this is an employee request (affects payment handling).
      * @return The updated reservation with all associated data populated.
      * @throws RuntimeException if the reservation, room, or room type is not found,
-     *                        if the new room is not available, or if payment processing fails.
+     *                        if the new room is not available (HTTP 409), or if payment processing fails.
      */
-    @Transactional
     public Reservation updateReservation(String reservationId, ReservationRequest request, boolean empReq) {
+        // Stripe idempotency keys are fixed for this call, so a retried refund reuses the first one
+        String idempotencyPrefix = "update-" + reservationId + "-" + UUID.randomUUID() + "-";
+        List<PendingRefund> refunds = new ArrayList<>();
+
+        Reservation updated = transactionRunner.execute("updateReservation", () -> {
+            // A replayed attempt decides its refunds again from the re-read reservation
+            refunds.clear();
+            Reservation savedReservation = applyUpdate(reservationId, request, empReq, idempotencyPrefix, refunds);
+            Room targetRoom = savedReservation.getRoom();
+
+            // 6. Queue the Confirmation Email in the same transaction
+            User user = userRepository.findById(savedReservation.getUserId()).orElse(null);
+            if (user != null) {
+                savedReservation.setUser(user);
+
+                // Hydrate Room Type for the email template
+                if (targetRoom.getRoomType() == null) {
+                    roomTypeCatalog.findById(targetRoom.getRoomTypeId()).ifPresent(targetRoom::setRoomType);
+                }
+
+                emailService.sendUpdateConfirmation(user.getEmail(), savedReservation);
+            } else {
+                System.err.println("No user for Reservation " + savedReservation.getId() + "; update email not sent.");
+            }
+            return savedReservation;
+        });
+
+        // 7. Issue Refunds now that the change is committed
+        issueRefunds(refunds);
+        return updated;
+    }
+
+    /**
+     * Applies a reservation update inside the update transaction.
+     * <p>
+     * Runs steps 1 to 5 of {@link #updateReservation(String, ReservationRequest, boolean)}: it
+     * re-reads the reservation, moves the stay, works out the price difference and saves. Refunds
+     * are only added to {@code refunds}, to be issued after the commit. It may run more than once
+     * if the transaction is replayed.
+     * </p>
+     *
+     * @param reservationId The unique identifier of the reservation to update.
+     * @param request The updated reservation details.
+     * @param empReq Whether this is an employee request (affects payment handling).
+     * @param idempotencyPrefix The prefix of the Stripe idempotency keys for this update.
+     * @param refunds Receives the refunds to issue once the update commits.
+     * @return The saved reservation, with its room attached.
+     */
+    private Reservation applyUpdate(String reservationId, ReservationRequest request, boolean empReq, String idempotencyPrefix,
+            List<PendingRefund> refunds) {
         // 1. Fetch Existing Reservation
         Reservation r = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new RuntimeException("Reservation not found"));
@@ -312,6 +410,8 @@ public class ReservationService {
         double oldTotalPrice = r.getTotalPrice();
         String oldPaymentIntentId = r.getPaymentIntentId();
         String oldRoomId = r.getRoomId();
+        Reservation.PaymentTransaction oldTransaction = r.getTransaction();
+        boolean oldTransactionCounted = revenueRollupService.countsTowardRevenue(r);
 
         // 2. Handle Room/Date Changes
         // Check if the dates or room actually changed to avoid unnecessary database work
@@ -324,13 +424,15 @@ public class ReservationService {
             // A. Release the Old Room Dates
             // We must clear the calendar for the old room so that if the user is 
             // just changing dates in the same room, we don't block ourselves.
-            Room oldRoom = roomRepository.findById(oldRoomId).orElseThrow();
-            if (oldRoom.getUnavailableDates() != null) {
-                oldRoom.getUnavailableDates().removeIf(date -> 
-                    date.getStart().equals(r.getCheckIn()) && date.getEnd().equals(r.getCheckOut())
-                );
+            Room oldRoom = roomRepository.releaseDates(oldRoomId, reservationId, r.getCheckIn(), r.getCheckOut());
+            if (oldRoom == null) {
+                throw new RuntimeException("Room not found");
             }
-            roomRepository.save(oldRoom);
+            transactionRunner.afterCommit(() -> {
+                availabilityIndex.update(oldRoom);
+                searchResultCache.invalidate();
+            });
+            roomNightService.releaseNights(oldRoomId, r.getCheckIn(), r.getCheckOut());
 
             // B. Determine Target Room
             if (roomChanged) {
@@ -341,39 +443,29 @@ public class ReservationService {
                 targetRoom = oldRoom;
             }
 
-            // C. Check Availability on Target Room
-            boolean isAvailable = true;
-            if (targetRoom.getUnavailableDates() != null) {
-                for (Room.UnavailableDate date : targetRoom.getUnavailableDates()) {
-                    // Standard Date Overlap Check
-                    if (request.getCheckIn().isBefore(date.getEnd()) && request.getCheckOut().isAfter(date.getStart())) {
-                        isAvailable = false;
-                        break;
-                    }
+            // C+D. Atomically Check Availability and Book the Target Room
+            Room bookedRoom = claimStay(targetRoom.getId(), reservationId, request.getCheckIn(), request.getCheckOut());
+            if (bookedRoom == null) {
+                // Put the original stay back on the old room before rejecting the change
+                // (inside a transaction the rollback restores it instead)
+                if (!transactionRunner.inTransaction()
+                        && claimStay(oldRoomId, reservationId, r.getCheckIn(), r.getCheckOut()) == null) {
+                    System.err.println("Failed to restore original dates for Reservation " + reservationId);
                 }
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "The selected room is not available for these dates.");
             }
-
-            if (!isAvailable) {
-                // Throwing RuntimeException triggers @Transactional rollback, 
-                // restoring the old room's calendar automatically.
-                throw new RuntimeException("The selected room is not available for these dates.");
-            }
-
-            // D. Book the Target Room
-            if (targetRoom.getUnavailableDates() == null) {
-                targetRoom.setUnavailableDates(new ArrayList<>());
-            }
-            targetRoom.getUnavailableDates().add(new Room.UnavailableDate(request.getCheckIn(), request.getCheckOut()));
-            roomRepository.save(targetRoom);
+            targetRoom = bookedRoom;
 
             // E. Update Reservation Data
             r.setRoomId(targetRoom.getId());
+            r.setRoomTypeId(targetRoom.getRoomTypeId());
+            r.setRoomNumber(targetRoom.getRoomNumber());
             r.setCheckIn(request.getCheckIn());
             r.setCheckOut(request.getCheckOut());
             
             // F. Recalculate Total Price
             // Must fetch RoomType to get the correct nightly rate
-            RoomType type = roomTypeRepository.findById(targetRoom.getRoomTypeId()).orElseThrow();
+            RoomType type = roomTypeCatalog.findById(targetRoom.getRoomTypeId()).orElseThrow();
             long nights = java.time.temporal.ChronoUnit.DAYS.between(request.getCheckIn(), request.getCheckOut());
             if (nights < 1) nights = 1;
             
@@ -395,20 +487,13 @@ public class ReservationService {
         // We do this for both Employees AND Guests (returning money is always good)
         if (priceDiffCents < 0) {
             long refundAmount = Math.abs(priceDiffCents);
-            try {
-                // If it's a real Stripe transaction (not a test seed), process refund
-                if (oldPaymentIntentId != null && !oldPaymentIntentId.startsWith("pi_test_seed")) {
-                    RefundCreateParams params = RefundCreateParams.builder()
-                            .setPaymentIntent(oldPaymentIntentId)
-                            .setAmount(refundAmount)
-                            .build();
-                    Refund refund = Refund.create(params);
-                    System.out.println("Partial refund successful: " + refund.getId());
-                }
-            } catch (Exception e) {
-                // Log but don't fail the reservation update if refund fails? 
-                // Alternatively, throw exception to rollback everything.
-                System.err.println("Failed to process partial refund: " + e.getMessage());
+            // If it's a real Stripe transaction (not a test seed), refund once the update commits
+            if (oldPaymentIntentId != null && !oldPaymentIntentId.startsWith("pi_test_seed")) {
+                RefundCreateParams params = RefundCreateParams.builder()
+                        .setPaymentIntent(oldPaymentIntentId)
+                        .setAmount(refundAmount)
+                        .build();
+                refunds.add(new PendingRefund("Partial refund", oldPaymentIntentId, params, idempotencyPrefix + "partial-refund", null));
             }
         } 
         // CASE B: MORE EXPENSIVE (Upgrade)
@@ -432,53 +517,114 @@ public class ReservationService {
                     throw new RuntimeException("Price increased. New payment required.");
                 }
 
-                try {
-                    // 1. Refund the OLD transaction entirely (Clean slate)
-                    if (oldPaymentIntentId != null && !oldPaymentIntentId.startsWith("pi_test_seed")) {
-                        RefundCreateParams params = RefundCreateParams.builder()
-                                .setPaymentIntent(oldPaymentIntentId)
-                                .build();
-                        Refund.create(params);
-                    }
-
-                    // 2. Attach the NEW transaction to the reservation
-                    r.setPaymentIntentId(newPaymentIntentId);
-                    
-                    Reservation.PaymentTransaction txn = new Reservation.PaymentTransaction();
-                    txn.setProvider("STRIPE");
-                    txn.setTransactionId(newPaymentIntentId);
-                    txn.setAmountCents(Math.round(r.getTotalPrice() * 100));
-                    txn.setCurrency("usd");
-                    txn.setStatus("SUCCEEDED");
-                    txn.setPaidAt(Instant.now());
-                    r.setTransaction(txn);
-
-                } catch (Exception e) {
-                    throw new RuntimeException("Failed to swap payment transactions: " + e.getMessage());
+                // 1. Refund the OLD transaction entirely (Clean slate), once the swap commits
+                if (oldPaymentIntentId != null && !oldPaymentIntentId.startsWith("pi_test_seed")) {
+                    RefundCreateParams params = RefundCreateParams.builder()
+                            .setPaymentIntent(oldPaymentIntentId)
+                            .build();
+                    refunds.add(new PendingRefund("Swap refund", oldPaymentIntentId, params, idempotencyPrefix + "swap-refund", null));
                 }
+
+                // 2. Attach the NEW transaction to the reservation
+                r.setPaymentIntentId(newPaymentIntentId);
+
+                Reservation.PaymentTransaction txn = new Reservation.PaymentTransaction();
+                txn.setProvider("STRIPE");
+                txn.setTransactionId(newPaymentIntentId);
+                txn.setAmountCents(Math.round(r.getTotalPrice() * 100));
+                txn.setCurrency("usd");
+                txn.setStatus("SUCCEEDED");
+                txn.setPaidAt(Instant.now());
+                r.setTransaction(txn);
             }
         }
 
         // 5. Save Changes
         Reservation savedReservation = reservationRepository.save(r);
 
-        // 6. Send Confirmation Email
-        try {
-            User user = userRepository.findById(r.getUserId()).orElseThrow();
-            r.setUser(user);
-            r.setRoom(targetRoom);
-            
-            // Hydrate Room Type for the email template
-            if (targetRoom.getRoomType() == null) {
-                RoomType type = roomTypeRepository.findById(targetRoom.getRoomTypeId()).orElse(null);
-                targetRoom.setRoomType(type);
+        // Payment swap: move revenue from the old transaction's day to the new one
+        if (savedReservation.getTransaction() != oldTransaction) {
+            if (oldTransactionCounted) {
+                revenueRollupService.reversePayment(oldTransaction);
+            }
+            if (revenueRollupService.countsTowardRevenue(savedReservation)) {
+                revenueRollupService.recordPayment(savedReservation.getTransaction());
             }
-            
-            emailService.sendUpdateConfirmation(user.getEmail(), r);
-        } catch (Exception e) {
-            System.err.println("Failed to send update email: " + e.getMessage());
         }
 
+        savedReservation.setRoom(targetRoom);
         return savedReservation;
     }
-}
\ No newline at end of file
+
+    /**
+     * Claims a stay on a room in both the per-night claims collection and the room calendar.
+     * <p>
+     * The nights are claimed first under their unique (roomId, night) index, then the range is
+     * pushed onto {@code Room.unavailableDates} with a conditional update. If either claim loses
+     * to another booking, whatever was already claimed for this reservation is released again.
+     * </p>
+     *
+     * @param roomId The unique identifier of the room to book.
+     * @param reservationId The unique identifier of the reservation holding the stay.
+     * @param checkIn The first night of the stay.
+     * @param checkOut The check-out date.
+     * @return The room with its updated calendar, or null if the dates are not available.
+     */
+    private Room claimStay(String roomId, String reservationId, LocalDate checkIn, LocalDate checkOut) {
+        if (!roomNightService.claimNights(roomId, reservationId, checkIn, checkOut)) {
+            return null;
+        }
+
+        Room bookedRoom = roomRepository.claimDates(roomId, reservationId, checkIn, checkOut);
+        if (bookedRoom == null) {
+            roomNightService.releaseReservationNights(roomId, reservationId);
+            return null;
+        }
+
+        transactionRunner.afterCommit(() -> {
+            availabilityIndex.update(bookedRoom);
+            searchResultCache.invalidate();
+        });
+        return bookedRoom;
+    }
+
+    /**
+     * Issues the refunds a cancellation or update decided on, after it has committed.
+     * <p>
+     * A failure is logged with its idempotency key and does not undo the committed change;
+     * repeating the refund with the same key is safe. Where requested, the refund ID is then
+     * written to the reservation's payment transaction.
+     * </p>
+     *
+     * @param refunds The refunds to issue.
+     */
+    private void issueRefunds(List<PendingRefund> refunds) {
+        for (PendingRefund pending : refunds) {
+            try {
+                Refund refund = Refund.create(pending.params(), idempotent(pending.idempotencyKey()));
+                System.out.println(pending.description() + " successful: " + refund.getId());
+                if (pending.recordOn() != null
+                        && !reservationRepository.recordRefundId(pending.recordOn(), pending.paymentIntentId(), refund.getId())) {
+                    System.err.println("Refund " + refund.getId() + " not recorded on Reservation " + pending.recordOn());
+                }
+            } catch (Exception e) {
+                System.err.println(pending.description() + " failed (idempotency key " + pending.idempotencyKey()
+                        + "): " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Builds Stripe request options carrying an idempotency key.
+     * <p>
+     * Stripe returns the original result for a repeated request with the same key, so a
+     * replayed transaction or a retried cancellation does not refund a payment twice.
+     * </p>
+     *
+     * @param key The idempotency key.
+     * @return The request options.
+     */
+    private static RequestOptions idempotent(String key) {
+        return RequestOptions.builder().setIdempotencyKey(key).build();
+    }
+}
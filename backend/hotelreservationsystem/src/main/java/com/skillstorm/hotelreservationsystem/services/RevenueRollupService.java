@@ -0,0 +1,175 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotelreservationsystem.dto.RevenueReportResponse;
+import com.skillstorm.hotelreservationsystem.models.Reservation;
+import com.skillstorm.hotelreservationsystem.models.RevenueDaily;
+import com.skillstorm.hotelreservationsystem.repositories.ReservationRepository;
+
+/**
+ * Service class for the {@code revenue_daily} rollup.
+ * <p>
+ * The rollup holds one tiny document per UTC day with the revenue retained for payments made on
+ * that day. Booking flows adjust it with an atomic {@code $inc} whenever a payment starts or stops
+ * counting, so a revenue report reads at most one document per day in its range instead of scanning
+ * reservations. A reservation counts toward revenue when it is PAID and in CONFIRMED, CHECKED_IN or
+ * COMPLETED status, the same rule used by the on-demand aggregation.
+ * </p>
+ * <p>
+ * Every booking on a given day increments the same document, so the {@code $inc} is applied after
+ * the booking transaction commits rather than inside it; otherwise concurrent bookings would abort
+ * each other with write conflicts on that one document. An increment that fails after the commit is
+ * logged, and {@link #rebuild()} repairs the drift.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class RevenueRollupService {
+
+    private static final String COLLECTION = "revenue_daily";
+
+    private final MongoTemplate mongoTemplate;
+    private final ReservationRepository reservationRepository;
+    private final TransactionRunner transactionRunner;
+
+    /**
+     * Constructs a new RevenueRollupService with the required dependencies.
+     *
+     * @param mongoTemplate The MongoTemplate used for rollup updates and reads.
+     * @param reservationRepository The repository used to rebuild the rollup from reservations.
+     * @param transactionRunner The runner used to defer increments until the booking commits.
+     */
+    public RevenueRollupService(MongoTemplate mongoTemplate, ReservationRepository reservationRepository,
+            TransactionRunner transactionRunner) {
+        this.mongoTemplate = mongoTemplate;
+        this.reservationRepository = reservationRepository;
+        this.transactionRunner = transactionRunner;
+    }
+
+    /**
+     * Indicates whether a reservation currently counts toward retained revenue.
+     *
+     * @param r The reservation to check.
+     * @return True if the reservation's transaction should be included in revenue.
+     */
+    public boolean countsTowardRevenue(Reservation r) {
+        if (r == null || r.getTransaction() == null || r.getTransaction().getPaidAt() == null) return false;
+        if (r.getPaymentStatus() != Reservation.PaymentStatus.PAID) return false;
+        return r.getStatus() == Reservation.ReservationStatus.CONFIRMED
+                || r.getStatus() == Reservation.ReservationStatus.CHECKED_IN
+                || r.getStatus() == Reservation.ReservationStatus.COMPLETED;
+    }
+
+    /**
+     * Adds a payment to the rollup on the UTC day it was made, once the current transaction commits.
+     *
+     * @param txn The payment transaction to add.
+     */
+    public void recordPayment(Reservation.PaymentTransaction txn) {
+        increment(txn, 1);
+    }
+
+    /**
+     * Removes a payment from the rollup on the UTC day it was originally made, once the current
+     * transaction commits.
+     *
+     * @param txn The payment transaction to remove.
+     */
+    public void reversePayment(Reservation.PaymentTransaction txn) {
+        increment(txn, -1);
+    }
+
+    /**
+     * Builds a revenue report from the rollup.
+     *
+     * @param from The first payment date to include (optional, null for all time).
+     * @param to The payment date to stop before (optional, null for all time).
+     * @return A revenue report with total and monthly breakdowns.
+     */
+    public RevenueReportResponse report(LocalDate from, LocalDate to) {
+        Criteria day = Criteria.where("_id");
+        if (from != null) day = day.gte(from.toString());
+        if (to != null) day = day.lt(to.toString());
+
+        Query query = (from == null && to == null) ? new Query() : new Query(day);
+        query.with(Sort.by("_id"));
+
+        long total = 0L;
+        Map<String, Long> byMonth = new TreeMap<>();
+        for (RevenueDaily d : mongoTemplate.find(query, RevenueDaily.class)) {
+            if (d.getAmountCents() == 0L) continue;
+            total += d.getAmountCents();
+            byMonth.merge(d.getDay().substring(0, 7), d.getAmountCents(), Long::sum);
+        }
+        return new RevenueReportResponse(total, byMonth);
+    }
+
+    /**
+     * Recomputes the rollup from the reservations collection.
+     * <p>
+     * The new rollup is written by a single aggregation and swapped in atomically. Increments
+     * applied by bookings while the aggregation is running may be lost, so run this during quiet
+     * periods or to verify the rollup against the source data.
+     * </p>
+     *
+     * @return A report of all-time revenue from the rebuilt rollup.
+     */
+    public RevenueReportResponse rebuild() {
+        reservationRepository.writeRevenueByDay(COLLECTION);
+        System.out.println("Revenue rollup rebuilt from reservations.");
+        return report(null, null);
+    }
+
+    /**
+     * Builds the rollup on startup if it has never been populated.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        if (!mongoTemplate.collectionExists(COLLECTION) || mongoTemplate.estimatedCount(COLLECTION) == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Applies a signed {@code $inc} for a payment to its day's rollup document, creating it if needed.
+     * <p>
+     * Inside a transaction the update is deferred until the commit, and dropped if it rolls back.
+     * </p>
+     *
+     * @param txn The payment transaction.
+     * @param sign 1 to add the payment, -1 to remove it.
+     */
+    private void increment(Reservation.PaymentTransaction txn, int sign) {
+        if (txn == null || txn.getPaidAt() == null || txn.getAmountCents() == 0L) return;
+
+        String day = txn.getPaidAt().atZone(ZoneOffset.UTC).toLocalDate().toString();
+        long deltaCents = sign * txn.getAmountCents();
+        transactionRunner.afterCommit(() -> {
+            try {
+                mongoTemplate.upsert(
+                        new Query(Criteria.where("_id").is(day)),
+                        new Update().inc("amountCents", deltaCents),
+                        RevenueDaily.class
+                );
+            } catch (Exception e) {
+                // The booking has already committed; a rebuild will correct the rollup
+                System.err.println("Failed to update revenue rollup for " + day + ": " + e.getMessage());
+            }
+        });
+    }
+}
@@ -1,9 +1,8 @@
 package com.skillstorm.hotelreservationsystem.services;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.http.HttpStatus;
@@ -12,9 +11,7 @@ import org.springframework.web.server.ResponseStatusException;
 
 import com.skillstorm.hotelreservationsystem.dto.RoomUpsertRequest;
 import com.skillstorm.hotelreservationsystem.models.Room;
-import com.skillstorm.hotelreservationsystem.models.RoomType;
 import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
-import com.skillstorm.hotelreservationsystem.repositories.RoomTypeRepository;
 
 /**
  * Service class for employee room administration operations.
@@ -30,17 +27,32 @@ import com.skillstorm.hotelreservationsystem.repositories.RoomTypeRepository;
 public class RoomAdminService {
 
     private final RoomRepository roomRepository;
-    private final RoomTypeRepository roomTypeRepository;
+    private final RoomTypeCatalog roomTypeCatalog;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomNightService roomNightService;
+    private final ReservationHydrator reservationHydrator;
+    private final SearchResultCache searchResultCache;
+    private final ReservationRoomDetailsService reservationRoomDetailsService;
 
     /**
      * Constructs a new RoomAdminService with the required repositories.
      *
      * @param roomRepository The repository for room data access.
-     * @param roomTypeRepository The repository for room type data access.
+     * @param roomTypeCatalog The cached room type catalog.
+     * @param availabilityIndex The in-memory availability index kept in sync with room changes.
+     * @param roomNightService The service for per-night room claims.
+     * @param reservationHydrator The hydrator used to populate room types.
+     * @param searchResultCache The room search cache, invalidated after every room write.
+     * @param reservationRoomDetailsService The service keeping room details on reservations in sync.
      */
-    public RoomAdminService(RoomRepository roomRepository, RoomTypeRepository roomTypeRepository) {
+    public RoomAdminService(RoomRepository roomRepository, RoomTypeCatalog roomTypeCatalog, RoomAvailabilityIndex availabilityIndex, RoomNightService roomNightService, ReservationHydrator reservationHydrator, SearchResultCache searchResultCache, ReservationRoomDetailsService reservationRoomDetailsService) {
         this.roomRepository = roomRepository;
-        this.roomTypeRepository = roomTypeRepository;
+        this.roomTypeCatalog = roomTypeCatalog;
+        this.availabilityIndex = availabilityIndex;
+        this.roomNightService = roomNightService;
+        this.reservationHydrator = reservationHydrator;
+        this.searchResultCache = searchResultCache;
+        this.reservationRoomDetailsService = reservationRoomDetailsService;
     }
 
     /**
@@ -64,7 +76,7 @@ public class RoomAdminService {
                 .filter(r -> occupied == null || r.isOccupied() == occupied)
                 .collect(Collectors.toList());
 
-        hydrateRoomTypes(rooms);
+        reservationHydrator.hydrateRoomTypes(rooms);
         return rooms;
     }
 
@@ -78,7 +90,7 @@ public class RoomAdminService {
     public Room getRoom(String id) {
         Room room = roomRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found: " + id));
-        hydrateRoomTypes(List.of(room));
+        reservationHydrator.hydrateRoomTypes(List.of(room));
         return room;
     }
 
@@ -93,7 +105,7 @@ public class RoomAdminService {
         if (roomRepository.existsByRoomNumber(req.roomNumber())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Room number already exists: " + req.roomNumber());
         }
-        if (!roomTypeRepository.existsById(req.roomTypeId())) {
+        if (!roomTypeCatalog.existsById(req.roomTypeId())) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "RoomType not found: " + req.roomTypeId());
         }
 
@@ -107,7 +119,9 @@ public class RoomAdminService {
         room.setOccupied(Boolean.TRUE.equals(req.occupied()));
 
         Room saved = roomRepository.save(room);
-        hydrateRoomTypes(List.of(saved));
+        availabilityIndex.update(saved);
+        searchResultCache.invalidate();
+        reservationHydrator.hydrateRoomTypes(List.of(saved));
         return saved;
     }
 
@@ -123,27 +137,46 @@ public class RoomAdminService {
         Room existing = roomRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found: " + id));
 
+        // Only the changed fields are written, so concurrent calendar updates are never overwritten
+        Map<String, Object> changes = new LinkedHashMap<>();
+        boolean detailsChanged = false;
         if (req.roomNumber() != null && !req.roomNumber().equals(existing.getRoomNumber())) {
             if (roomRepository.existsByRoomNumber(req.roomNumber())) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Room number already exists: " + req.roomNumber());
             }
-            existing.setRoomNumber(req.roomNumber());
+            changes.put("roomNumber", req.roomNumber());
+            detailsChanged = true;
         }
 
         if (req.roomTypeId() != null && !req.roomTypeId().equals(existing.getRoomTypeId())) {
-            if (!roomTypeRepository.existsById(req.roomTypeId())) {
+            if (!roomTypeCatalog.existsById(req.roomTypeId())) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "RoomType not found: " + req.roomTypeId());
             }
-            existing.setRoomTypeID(req.roomTypeId());
+            changes.put("roomTypeId", req.roomTypeId());
+            detailsChanged = true;
         }
 
-        if (req.accessible() != null) existing.setAccessible(req.accessible());
-        if (req.petFriendly() != null) existing.setPetFriendly(req.petFriendly());
-        if (req.nonSmoking() != null) existing.setNonSmoking(req.nonSmoking());
-        if (req.occupied() != null) existing.setOccupied(req.occupied());
+        if (req.accessible() != null) changes.put("accessible", req.accessible());
+        if (req.petFriendly() != null) changes.put("petFriendly", req.petFriendly());
+        if (req.nonSmoking() != null) changes.put("nonSmoking", req.nonSmoking());
+        if (req.occupied() != null) changes.put("occupied", req.occupied());
 
-        Room saved = roomRepository.save(existing);
-        hydrateRoomTypes(List.of(saved));
+        if (changes.isEmpty()) {
+            reservationHydrator.hydrateRoomTypes(List.of(existing));
+            return existing;
+        }
+
+        Room saved = roomRepository.setFields(id, changes);
+        if (saved == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Room not found: " + id);
+        }
+        availabilityIndex.update(saved);
+        searchResultCache.invalidate();
+        if (detailsChanged) {
+            // Keep the room type and number copied onto reservations in step with the room
+            reservationRoomDetailsService.syncRoom(saved);
+        }
+        reservationHydrator.hydrateRoomTypes(List.of(saved));
         return saved;
     }
 
@@ -165,28 +198,8 @@ public class RoomAdminService {
         }
 
         roomRepository.deleteById(id);
-    }
-
-    /**
-     * Populates room type information for a list of rooms.
-     *
-     * @param rooms The list of rooms to hydrate with room type data.
-     */
-    private void hydrateRoomTypes(List<Room> rooms) {
-        Set<String> typeIds = rooms.stream()
-                .map(Room::getRoomTypeId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        if (typeIds.isEmpty()) return;
-
-        List<RoomType> types = roomTypeRepository.findAllById(typeIds);
-        Map<String, RoomType> byId = types.stream().collect(Collectors.toMap(RoomType::getId, t -> t));
-
-        for (Room r : rooms) {
-            if (r.getRoomTypeId() != null) {
-                r.setRoomType(byId.get(r.getRoomTypeId()));
-            }
-        }
+        availabilityIndex.remove(id);
+        roomNightService.deleteRoom(id);
+        searchResultCache.invalidate();
     }
 }
@@ -0,0 +1,228 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotelreservationsystem.models.Room;
+import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
+
+/**
+ * In-memory availability index used to narrow date-range searches before they query MongoDB.
+ * <p>
+ * Each room is represented by a day-granularity {@link BitSet} where bit {@code n} is set when
+ * the room is unavailable on the night starting {@code ORIGIN + n} days. A room is free for
+ * {@code [checkIn, checkOut)} when its calendar does not intersect the mask of requested nights,
+ * which {@link BitSet#intersects(BitSet)} evaluates one 64-bit word at a time.
+ * </p>
+ * <p>
+ * Calendars are loaded when the application starts, replaced whenever a booking flow or room
+ * admin operation saves a room, and periodically reloaded so changes made by other application
+ * nodes are picked up. Calendars are never mutated once published; updates swap in a new copy.
+ * Each snapshot carries the room's {@code calendarVersion} as returned by the write that produced
+ * it, and an older snapshot never replaces a newer one, whatever order the updates arrive in.
+ * </p>
+ * <p>
+ * Between reloads the index does not see changes made on other nodes, so its answers are only
+ * candidates: searches re-check them against MongoDB before returning a room. A room released on
+ * another node can be left out of this node's searches until the next reload.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class RoomAvailabilityIndex {
+
+    /**
+     * The first night tracked by the index. Nights before this date are ignored.
+     */
+    public static final LocalDate ORIGIN = LocalDate.of(2020, 1, 1);
+
+    private static final long ORIGIN_EPOCH_DAY = ORIGIN.toEpochDay();
+
+    private final RoomRepository roomRepository;
+
+    /**
+     * Published calendars keyed by room ID.
+     */
+    private final Map<String, Calendar> calendars = new ConcurrentHashMap<>();
+
+    /**
+     * Monotonic counter used to tell which rooms were indexed after a reload began.
+     */
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Whether the initial load has completed.
+     */
+    private volatile boolean ready = false;
+
+    /**
+     * Immutable snapshot of a single room's booked nights.
+     *
+     * @param nights The booked nights, relative to {@code ORIGIN_EPOCH_DAY}.
+     * @param version The room's {@code calendarVersion} when the snapshot was read.
+     * @param indexedAt The sequence number at which the snapshot was published.
+     */
+    private record Calendar(BitSet nights, long version, long indexedAt) {
+    }
+
+    /**
+     * Constructs a new RoomAvailabilityIndex with the required repository.
+     *
+     * @param roomRepository The repository used to load room calendars.
+     */
+    public RoomAvailabilityIndex(RoomRepository roomRepository) {
+        this.roomRepository = roomRepository;
+    }
+
+    /**
+     * Loads every room calendar once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Reloads every room calendar from MongoDB.
+     * <p>
+     * Runs on a fixed delay so that bookings made through other application nodes become
+     * visible to this node's searches. Rooms updated locally while the reload is running keep
+     * their calendar if it is newer than the one read.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${app.availability-index.refresh-ms:300000}",
+            initialDelayString = "${app.availability-index.refresh-ms:300000}")
+    public void reload() {
+        long startedAt = sequence.incrementAndGet();
+        List<Room> rooms = roomRepository.findAll();
+
+        Set<String> seen = new HashSet<>();
+        for (Room room : rooms) {
+            seen.add(room.getId());
+            publish(room, startedAt);
+        }
+
+        // Drop rooms that were deleted, unless they were (re)indexed after this reload began
+        calendars.entrySet().removeIf(e -> !seen.contains(e.getKey()) && e.getValue().indexedAt() <= startedAt);
+
+        ready = true;
+        System.out.println("Availability index loaded " + rooms.size() + " room calendars.");
+    }
+
+    /**
+     * Indicates whether the index has completed its initial load and can answer searches.
+     *
+     * @return True if the index is ready; false otherwise.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Replaces the indexed calendar for a room with its current unavailable dates.
+     * <p>
+     * The room must be the document returned by the write, so that its {@code calendarVersion}
+     * matches its calendar. The update is ignored if a newer calendar is already indexed.
+     * </p>
+     *
+     * @param room The room whose calendar changed.
+     */
+    public void update(Room room) {
+        if (room == null || room.getId() == null) return;
+        publish(room, sequence.incrementAndGet());
+    }
+
+    /**
+     * Publishes a room's calendar unless the index already holds a newer version of it.
+     *
+     * @param room The room as read from MongoDB.
+     * @param indexedAt The current sequence number.
+     */
+    private void publish(Room room, long indexedAt) {
+        Calendar fresh = new Calendar(toNights(room.getUnavailableDates()), room.getCalendarVersion(), indexedAt);
+        calendars.merge(room.getId(), fresh, (current, candidate) -> current.version() > candidate.version() ? current : candidate);
+    }
+
+    /**
+     * Removes a room from the index.
+     *
+     * @param roomId The unique identifier of the deleted room.
+     */
+    public void remove(String roomId) {
+        if (roomId == null) return;
+        calendars.remove(roomId);
+    }
+
+    /**
+     * Finds the IDs of all rooms that are free for every night in {@code [checkIn, checkOut)}.
+     *
+     * @param checkIn The requested check-in date.
+     * @param checkOut The requested check-out date.
+     * @return The IDs of the rooms with no booked night in the requested range.
+     * @throws IllegalArgumentException if the range is empty or starts before {@link #ORIGIN}.
+     */
+    public List<String> findAvailableRoomIds(LocalDate checkIn, LocalDate checkOut) {
+        if (!checkIn.isBefore(checkOut) || checkIn.isBefore(ORIGIN)) {
+            throw new IllegalArgumentException("Invalid availability range: " + checkIn + " to " + checkOut);
+        }
+        BitSet requested = new BitSet();
+        requested.set(offset(checkIn), offset(checkOut));
+
+        List<String> available = new ArrayList<>();
+        for (Map.Entry<String, Calendar> entry : calendars.entrySet()) {
+            if (!entry.getValue().nights().intersects(requested)) {
+                available.add(entry.getKey());
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Builds the booked-night bitset for a list of unavailable date ranges.
+     * <p>
+     * Ranges are treated as {@code [start, end)}: the end date is the check-out day and is
+     * bookable by the next guest, matching {@code RoomRepository.findAvailableRooms}.
+     * </p>
+     *
+     * @param ranges The room's unavailable date ranges (may be null).
+     * @return The bitset of booked nights.
+     */
+    private BitSet toNights(List<Room.UnavailableDate> ranges) {
+        BitSet nights = new BitSet();
+        if (ranges == null) return nights;
+
+        for (Room.UnavailableDate range : ranges) {
+            if (range.getStart() == null || range.getEnd() == null) continue;
+            int from = offset(range.getStart());
+            int to = offset(range.getEnd());
+            if (from < to) {
+                nights.set(from, to);
+            }
+        }
+        return nights;
+    }
+
+    /**
+     * Converts a date to its bit position, clamping dates before the origin to zero.
+     *
+     * @param date The date to convert.
+     * @return The bit position for the night starting on that date.
+     */
+    private int offset(LocalDate date) {
+        return (int) Math.max(0L, date.toEpochDay() - ORIGIN_EPOCH_DAY);
+    }
+}
@@ -0,0 +1,229 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.mongodb.MongoClientSettings;
+import com.skillstorm.hotelreservationsystem.dto.CalendarCompactionResult;
+import com.skillstorm.hotelreservationsystem.models.JobRun;
+import com.skillstorm.hotelreservationsystem.models.Room;
+import com.skillstorm.hotelreservationsystem.models.RoomCalendarHistory;
+
+/**
+ * Service class for compacting room calendars.
+ * <p>
+ * Every booking appends a range to {@code Room.unavailableDates} and nothing ever removes the
+ * ranges of completed stays, so room documents grow without bound and every room read and
+ * calendar update pays for years of history. This job moves ranges that ended before a
+ * configurable horizon into the {@code room_calendar_history} collection and removes them from
+ * their rooms.
+ * </p>
+ * <p>
+ * Rooms are streamed with only their calendar projected. Each batch is archived with one unordered
+ * bulk of idempotent upserts, then trimmed with one unordered bulk of {@code $pullAll} updates that
+ * remove exactly the entries that were archived, so ranges added concurrently are never lost and a
+ * run interrupted between the two steps is completed by the next one.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class RoomCalendarCompactionService {
+
+    /**
+     * Lease name of the compaction job.
+     */
+    private static final String JOB_NAME = "calendar-compaction";
+
+    /**
+     * Longest time a node may hold the job's lease before another node can take over.
+     */
+    private static final Duration LOCK_AT_MOST_FOR = Duration.ofHours(1);
+
+    /**
+     * Shortest time the lease is held, so late-firing nodes skip a run that already finished.
+     */
+    private static final Duration LOCK_AT_LEAST_FOR = Duration.ofMinutes(5);
+
+    private final MongoTemplate mongoTemplate;
+    private final JobLockService jobLockService;
+    private final int retainDays;
+    private final int batchSize;
+
+    /**
+     * Constructs a new RoomCalendarCompactionService with the required dependencies.
+     *
+     * @param mongoTemplate The MongoTemplate used for projected reads and bulk writes.
+     * @param jobLockService The service that lets only one node run the job.
+     * @param retainDays How many days of past ranges stay on the room document.
+     * @param batchSize The number of rooms archived and trimmed per bulk write.
+     */
+    public RoomCalendarCompactionService(
+            MongoTemplate mongoTemplate,
+            JobLockService jobLockService,
+            @Value("${app.calendar.compaction.retain-days:30}") int retainDays,
+            @Value("${app.calendar.compaction.batch-size:200}") int batchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobLockService = jobLockService;
+        this.retainDays = Math.max(0, retainDays);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Scheduled task that runs daily at 2:30 AM to compact room calendars.
+     * <p>
+     * Only the node that takes the job's lease runs the compaction; the run is recorded in {@code job_runs}.
+     * </p>
+     * <p>
+     * Cron expression: "0 30 2 * * ?" = Every day at 2:30 AM.
+     * </p>
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    public void runNightly() {
+        compactExclusive();
+    }
+
+    /**
+     * Runs the compaction under the job's lease and records the run.
+     *
+     * @return The result of the run, or null if another node holds the lease.
+     * @throws IllegalStateException if the run failed.
+     */
+    public CalendarCompactionResult compactExclusive() {
+        AtomicReference<CalendarCompactionResult> result = new AtomicReference<>();
+        JobRun run = jobLockService.runExclusive(JOB_NAME, LOCK_AT_MOST_FOR, LOCK_AT_LEAST_FOR, () -> {
+            result.set(compact());
+            return result.get().rangesArchived();
+        });
+        if (run == null) {
+            return null;
+        }
+        if (run.getOutcome() == JobRun.Outcome.FAILED) {
+            throw new IllegalStateException("Calendar compaction failed: " + run.getError());
+        }
+        return result.get();
+    }
+
+    /**
+     * Moves every calendar range that ended before the retention horizon to {@code room_calendar_history}.
+     *
+     * @return The counts, approximate bytes reclaimed and duration of this run.
+     */
+    public CalendarCompactionResult compact() {
+        long startedAt = System.currentTimeMillis();
+        LocalDate horizon = LocalDate.now().minusDays(retainDays);
+        Instant archivedAt = Instant.now();
+
+        Query stale = new Query(Criteria.where("unavailableDates.end").lt(horizon));
+        stale.fields().include("_id").include("unavailableDates");
+
+        int roomsCompacted = 0;
+        long rangesArchived = 0;
+        long bytesReclaimed = 0;
+
+        try (Stream<Document> rooms = mongoTemplate.stream(stale, Document.class, mongoTemplate.getCollectionName(Room.class))) {
+            BulkOperations archive = null;
+            BulkOperations trim = null;
+            int pending = 0;
+            for (Document room : (Iterable<Document>) rooms::iterator) {
+                String roomId = room.get("_id").toString();
+                List<Document> expired = new ArrayList<>();
+                List<?> calendar = room.getList("unavailableDates", Object.class, List.of());
+                for (int i = 0; i < calendar.size(); i++) {
+                    if (!(calendar.get(i) instanceof Document element)) continue;
+                    Room.UnavailableDate range = mongoTemplate.getConverter().read(Room.UnavailableDate.class, element);
+                    if (range.getEnd() == null || !range.getEnd().isBefore(horizon)) continue;
+
+                    if (archive == null) {
+                        archive = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomCalendarHistory.class);
+                        trim = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Room.class);
+                    }
+                    archive.upsert(
+                            new Query(Criteria.where("_id").is(historyId(roomId, range))),
+                            new Update()
+                                    .setOnInsert("roomId", roomId)
+                                    .setOnInsert("start", range.getStart())
+                                    .setOnInsert("end", range.getEnd())
+                                    .setOnInsert("reservationId", range.getReservationId())
+                                    .setOnInsert("archivedAt", archivedAt)
+                    );
+                    expired.add(element);
+                    bytesReclaimed += arrayElementSize(i, element);
+                }
+                if (expired.isEmpty()) continue;
+
+                trim.updateOne(
+                        new Query(Criteria.where("_id").is(room.get("_id"))),
+                        new Update().pullAll("unavailableDates", expired.toArray()).inc("calendarVersion", 1)
+                );
+                roomsCompacted++;
+                rangesArchived += expired.size();
+
+                if (++pending == batchSize) {
+                    archive.execute();
+                    trim.execute();
+                    archive = null;
+                    trim = null;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                archive.execute();
+                trim.execute();
+            }
+        }
+
+        CalendarCompactionResult result = new CalendarCompactionResult(
+                horizon, roomsCompacted, rangesArchived, bytesReclaimed, System.currentTimeMillis() - startedAt);
+        System.out.println("Calendar compaction archived " + rangesArchived + " range(s) ending before " + horizon
+                + " from " + roomsCompacted + " room(s), reclaiming ~" + bytesReclaimed + " byte(s) in "
+                + result.durationMs() + " ms.");
+        return result;
+    }
+
+    /**
+     * Builds the archive ID of a range, so archiving the same entry again is a no-op.
+     *
+     * @param roomId The unique identifier of the room.
+     * @param range The calendar range.
+     * @return The archive ID.
+     */
+    private String historyId(String roomId, Room.UnavailableDate range) {
+        return roomId + ":" + range.getStart() + ":" + range.getEnd() + ":"
+                + (range.getReservationId() == null ? "-" : range.getReservationId());
+    }
+
+    /**
+     * Estimates the bytes an array element takes in its room document: the element's BSON size
+     * plus its type byte and null-terminated index key.
+     *
+     * @param index The element's position in the array.
+     * @param element The element.
+     * @return The approximate size in bytes.
+     */
+    private long arrayElementSize(int index, Document element) {
+        BsonDocument bson = element.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+        int size = new RawBsonDocument(bson, new BsonDocumentCodec()).getByteBuffer().remaining();
+        return 1L + String.valueOf(index).length() + 1 + size;
+    }
+}
@@ -0,0 +1,266 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.skillstorm.hotelreservationsystem.models.JobCheckpoint;
+import com.skillstorm.hotelreservationsystem.models.Room;
+import com.skillstorm.hotelreservationsystem.models.RoomNight;
+import com.skillstorm.hotelreservationsystem.repositories.RoomNightRepository;
+import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
+
+/**
+ * Service class for per-night room claims.
+ * <p>
+ * Each booked night is a {@link RoomNight} document under a unique (roomId, night) index,
+ * so a stay is claimed with a single {@code insertMany} and a duplicate-key failure means
+ * another booking already holds one of the nights. Availability for a date range is an
+ * indexed range scan over {@code night} instead of an array scan over every room's calendar.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class RoomNightService {
+
+    /**
+     * Checkpoint name of the one-off backfill from room calendars.
+     */
+    private static final String BACKFILL_JOB = "room-night-backfill";
+
+    private final RoomNightRepository roomNightRepository;
+    private final RoomRepository roomRepository;
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Whether the startup backfill from room calendars has completed.
+     */
+    private volatile boolean ready = false;
+
+    /**
+     * Constructs a new RoomNightService with the required repositories.
+     *
+     * @param roomNightRepository The repository for room night claims.
+     * @param roomRepository The repository for room data access (used for backfill).
+     * @param mongoTemplate The MongoTemplate used for the backfill's bulk upserts and checkpoint.
+     */
+    public RoomNightService(RoomNightRepository roomNightRepository, RoomRepository roomRepository, MongoTemplate mongoTemplate) {
+        this.roomNightRepository = roomNightRepository;
+        this.roomRepository = roomRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Claims every night of a stay for a reservation.
+     * <p>
+     * The nights are inserted in one ordered {@code insertMany}. If any night is already taken,
+     * the nights inserted before the conflict are removed again (or rolled back with the enclosing
+     * transaction) and the claim fails as a whole.
+     * </p>
+     *
+     * @param roomId The unique identifier of the room.
+     * @param reservationId The unique identifier of the reservation claiming the nights.
+     * @param checkIn The first night of the stay.
+     * @param checkOut The check-out date (not claimed).
+     * @return True if all nights were claimed; false if any night is already booked.
+     */
+    public boolean claimNights(String roomId, String reservationId, LocalDate checkIn, LocalDate checkOut) {
+        List<RoomNight> nights = new ArrayList<>();
+        for (long night = checkIn.toEpochDay(); night < checkOut.toEpochDay(); night++) {
+            nights.add(new RoomNight(roomId, night, reservationId));
+        }
+        if (nights.isEmpty()) return true;
+
+        try {
+            roomNightRepository.insert(nights);
+            return true;
+        } catch (DuplicateKeyException e) {
+            // Inside a transaction the failed insert aborts it, and the rollback removes the partial claim
+            if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                roomNightRepository.releaseReservationNights(roomId, reservationId);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Releases the nights of a stay so they can be booked again.
+     *
+     * @param roomId The unique identifier of the room.
+     * @param checkIn The first night of the stay.
+     * @param checkOut The check-out date.
+     */
+    public void releaseNights(String roomId, LocalDate checkIn, LocalDate checkOut) {
+        roomNightRepository.releaseNights(roomId, checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /**
+     * Releases every night of a room held by a reservation.
+     *
+     * @param roomId The unique identifier of the room.
+     * @param reservationId The unique identifier of the reservation.
+     */
+    public void releaseReservationNights(String roomId, String reservationId) {
+        roomNightRepository.releaseReservationNights(roomId, reservationId);
+    }
+
+    /**
+     * Deletes every claim belonging to a room that has been removed.
+     *
+     * @param roomId The unique identifier of the deleted room.
+     */
+    public void deleteRoom(String roomId) {
+        roomNightRepository.deleteByRoomId(roomId);
+    }
+
+    /**
+     * Finds the rooms that have at least one booked night in {@code [checkIn, checkOut)}.
+     *
+     * @param checkIn The requested check-in date.
+     * @param checkOut The requested check-out date.
+     * @return The IDs of the rooms that are not available for the whole range.
+     */
+    public Set<String> findBookedRoomIds(LocalDate checkIn, LocalDate checkOut) {
+        return roomNightRepository.findBookedInRange(checkIn.toEpochDay(), checkOut.toEpochDay()).stream()
+                .map(RoomNight::getRoomId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Indicates whether the claims collection has been backfilled and can answer searches.
+     *
+     * @return True if ready; false otherwise.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Backfills claims for every current and future night found in room calendars, once.
+     * <p>
+     * This is a one-off migration: when it finishes it records a completed {@link JobCheckpoint},
+     * and later startups only mark the service ready. Nights are written with unordered bulk upserts
+     * keyed on (roomId, night), so several nodes starting together produce the same rows. Past nights
+     * are skipped because they can no longer be booked. Nights take the reservation ID recorded on
+     * their calendar entry; entries without one produce nights with no reservation ID, which are
+     * released by date range.
+     * </p>
+     * <p>
+     * Rooms are read before the upserts run, so a stay cancelled or moved in between would have its
+     * nights released and then recreated by the upsert. Every night this run inserted is therefore
+     * checked against a fresh read of its room's calendar afterwards, and removed unless an entry with
+     * the same reservation ID still covers it.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        JobCheckpoint checkpoint = mongoTemplate.findById(BACKFILL_JOB, JobCheckpoint.class);
+        if (checkpoint != null && checkpoint.isCompleted()) {
+            ready = true;
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomNight.class);
+        List<RoomNight> planned = new ArrayList<>();
+
+        for (Room room : roomRepository.findAll()) {
+            if (room.getUnavailableDates() == null) continue;
+            for (Room.UnavailableDate range : room.getUnavailableDates()) {
+                if (range.getStart() == null || range.getEnd() == null) continue;
+                long from = Math.max(today.toEpochDay(), range.getStart().toEpochDay());
+                for (long night = from; night < range.getEnd().toEpochDay(); night++) {
+                    bulk.upsert(
+                            new Query(Criteria.where("roomId").is(room.getId()).and("night").is(night)),
+                            new Update().setOnInsert("reservationId", range.getReservationId())
+                    );
+                    planned.add(new RoomNight(room.getId(), night, range.getReservationId()));
+                }
+            }
+        }
+
+        List<BulkWriteUpsert> inserted = List.of();
+        if (!planned.isEmpty()) {
+            try {
+                inserted = bulk.execute().getUpserts();
+            } catch (BulkOperationException e) {
+                // Another node backfilling the same nights races on the unique index; its copy is equivalent
+                System.err.println("Room night backfill finished with errors: " + e.getMessage());
+                inserted = e.getResult().getUpserts();
+            } catch (DataAccessException e) {
+                System.err.println("Room night backfill failed, will retry on next startup: " + e.getMessage());
+                return;
+            }
+        }
+
+        for (BulkWriteUpsert upsert : inserted) {
+            planned.get(upsert.getIndex()).setId(upsert.getId().asObjectId().getValue().toHexString());
+        }
+        long removed = removeReleasedNights(inserted.stream().map(u -> planned.get(u.getIndex())).toList());
+
+        checkpoint = new JobCheckpoint(BACKFILL_JOB, today);
+        checkpoint.setProcessed(inserted.size() - removed);
+        checkpoint.setCompletedAt(Instant.now());
+        mongoTemplate.save(checkpoint);
+
+        ready = true;
+        System.out.println("Room night claims backfilled: " + (inserted.size() - removed) + " night(s) inserted, "
+                + removed + " released during the backfill removed again.");
+    }
+
+    /**
+     * Deletes backfilled nights that no calendar entry of their room covers any more.
+     *
+     * @param nights The nights the backfill inserted, with their IDs set.
+     * @return The number of nights deleted.
+     */
+    private long removeReleasedNights(List<RoomNight> nights) {
+        if (nights.isEmpty()) return 0;
+
+        Map<String, List<RoomNight>> byRoom = nights.stream().collect(Collectors.groupingBy(RoomNight::getRoomId));
+        Query rooms = new Query(Criteria.where("_id").in(byRoom.keySet()));
+        rooms.fields().include("_id").include("unavailableDates");
+
+        Set<String> covered = new HashSet<>();
+        for (Room room : mongoTemplate.find(rooms, Room.class)) {
+            if (room.getUnavailableDates() == null) continue;
+            for (RoomNight night : byRoom.get(room.getId())) {
+                for (Room.UnavailableDate range : room.getUnavailableDates()) {
+                    if (range.getStart() != null && range.getEnd() != null
+                            && Objects.equals(range.getReservationId(), night.getReservationId())
+                            && range.getStart().toEpochDay() <= night.getNight()
+                            && night.getNight() < range.getEnd().toEpochDay()) {
+                        covered.add(night.getId());
+                        break;
+                    }
+                }
+            }
+        }
+
+        List<String> released = nights.stream().map(RoomNight::getId).filter(id -> !covered.contains(id)).toList();
+        if (released.isEmpty()) return 0;
+        return mongoTemplate.remove(new Query(Criteria.where("_id").in(released)), RoomNight.class).getDeletedCount();
+    }
+}
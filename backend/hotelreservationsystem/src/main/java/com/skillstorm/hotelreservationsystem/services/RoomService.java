@@ -1,18 +1,22 @@
 package com.skillstorm.hotelreservationsystem.services;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.skillstorm.hotelreservationsystem.dto.BookingSearchRequest;
 import com.skillstorm.hotelreservationsystem.dto.BookingSearchResult;
+import com.skillstorm.hotelreservationsystem.dto.RoomSearchFilter;
 import com.skillstorm.hotelreservationsystem.models.Room;
 import com.skillstorm.hotelreservationsystem.models.RoomType;
 import com.skillstorm.hotelreservationsystem.repositories.RoomRepository;
-import com.skillstorm.hotelreservationsystem.repositories.RoomTypeRepository;
 
 /**
  * Service class for managing room operations and searches.
@@ -28,17 +32,29 @@ import com.skillstorm.hotelreservationsystem.repositories.RoomTypeRepository;
 public class RoomService {
 
     private final RoomRepository roomRepository;
-    private final RoomTypeRepository roomTypeRepository;
+    private final RoomTypeCatalog roomTypeCatalog;
+    private final RoomAvailabilityIndex availabilityIndex;
+    private final RoomNightService roomNightService;
+    private final ReservationHydrator reservationHydrator;
+    private final SearchResultCache searchResultCache;
 
     /**
      * Constructs a new RoomService with the required repositories.
      *
      * @param roomRepository The repository for room data access.
-     * @param roomTypeRepository The repository for room type data access.
+     * @param roomTypeCatalog The cached room type catalog.
+     * @param availabilityIndex The in-memory index used to narrow date-range candidates.
+     * @param roomNightService The per-night claims that availability is checked against.
+     * @param reservationHydrator The hydrator used to populate room types.
+     * @param searchResultCache The cache of recent search results.
      */
-    public RoomService(RoomRepository roomRepository, RoomTypeRepository roomTypeRepository) {
+    public RoomService(RoomRepository roomRepository, RoomTypeCatalog roomTypeCatalog, RoomAvailabilityIndex availabilityIndex, RoomNightService roomNightService, ReservationHydrator reservationHydrator, SearchResultCache searchResultCache) {
         this.roomRepository = roomRepository;
-        this.roomTypeRepository = roomTypeRepository;
+        this.roomTypeCatalog = roomTypeCatalog;
+        this.availabilityIndex = availabilityIndex;
+        this.roomNightService = roomNightService;
+        this.reservationHydrator = reservationHydrator;
+        this.searchResultCache = searchResultCache;
     }
 
     /**
@@ -52,10 +68,7 @@ public class RoomService {
         Room room = roomRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Room not found with ID: " + id));
 
-        if (room.getRoomTypeId() != null) {
-            RoomType type = roomTypeRepository.findById(room.getRoomTypeId()).orElse(null);
-            room.setRoomType(type); // This fills the @Transient field
-        }
+        reservationHydrator.hydrateRoomTypes(List.of(room)); // This fills the @Transient field
 
         return room;
     }
@@ -64,43 +77,50 @@ public class RoomService {
      * Searches for available rooms matching the specified criteria.
      * <p>
      * This method performs a comprehensive search by:
-     * 1. Finding rooms available for the requested date range
-     * 2. Filtering by room attributes (accessible, pet-friendly, non-smoking)
-     * 3. Grouping rooms by room type
-     * 4. Filtering room types by specifications, amenities, and gaming equipment
-     * 5. Returning results grouped by room type with available room instances
+     * 1. Filtering room types by specifications, amenities, and gaming equipment (from {@link RoomTypeCatalog})
+     * 2. Narrowing the candidates for the requested date range with {@link RoomAvailabilityIndex} once loaded
+     * 3. Loading only the matching rooms with one MongoDB query that applies the room type, attribute
+     *    (accessible, pet-friendly, non-smoking) and availability predicates server-side. Availability is
+     *    always checked against MongoDB here, using the {@code room_nights} claims once backfilled (or the
+     *    room calendars before that), so a room booked on another node since the index last reloaded is
+     *    never returned
+     * 4. Returning results grouped by room type with available room instances
+     * </p>
+     * <p>
+     * The rooms in the results do not include their {@code unavailableDates}. Results are served
+     * from {@link SearchResultCache} when the same search ran recently and no inventory has changed
+     * since; the returned list must not be modified.
      * </p>
      *
      * @param request The search request containing all filter criteria.
      * @return A list of search results, each containing a room type and its available rooms.
+     * @throws ResponseStatusException if the check-out date is not after the check-in date, or the
+     *         check-in date is before {@link RoomAvailabilityIndex#ORIGIN}.
      */
     public List<BookingSearchResult> searchRoomTypes(BookingSearchRequest request) {
-        
-        // 1. Find physical rooms available for dates
-        List<Room> availableRooms;
-        if (request.getCheckInDate() != null && request.getCheckOutDate() != null) {
-            availableRooms = roomRepository.findAvailableRooms(request.getCheckInDate(), request.getCheckOutDate());
-        } else {
-            availableRooms = roomRepository.findAll();
+        LocalDate checkIn = request.getCheckInDate();
+        LocalDate checkOut = request.getCheckOutDate();
+        if (checkIn != null && checkOut != null) {
+            if (!checkIn.isBefore(checkOut)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Check-out date must be after check-in date.");
+            }
+            if (checkIn.isBefore(RoomAvailabilityIndex.ORIGIN)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Check-in date must not be before " + RoomAvailabilityIndex.ORIGIN + ".");
+            }
         }
+        return searchResultCache.get(request, () -> runSearch(request));
+    }
 
-        // 2. Filter physical rooms by "Hard" attributes (Pet Friendly, etc.)
-        availableRooms = availableRooms.stream()
-            .filter(room -> request.getAccessible() == null || room.isAccessible() == request.getAccessible())
-            .filter(room -> request.getPetFriendly() == null || room.isPetFriendly() == request.getPetFriendly())
-            .filter(room -> request.getNonSmoking() == null || room.isNonSmoking() == request.getNonSmoking())
-            .collect(Collectors.toList());
-
-        // 3. GROUP rooms by their RoomType ID
-        // Map<String, List<Room>> -> "type-123" : [Room 101, Room 102]
-        Map<String, List<Room>> roomsByType = availableRooms.stream()
-            .collect(Collectors.groupingBy(room -> room.getRoomTypeId()));
-
-        // 4. Fetch the Definitions for these types
-        List<RoomType> matchingTypes = roomTypeRepository.findAllById(roomsByType.keySet());
-
-        // 5. Filter the Types by "Soft" attributes (Price, PC Specs)
-        matchingTypes = matchingTypes.stream()
+    /**
+     * Runs a room search against the catalog and database, bypassing the result cache.
+     *
+     * @param request The search request containing all filter criteria.
+     * @return A list of search results, each containing a room type and its available rooms.
+     */
+    private List<BookingSearchResult> runSearch(BookingSearchRequest request) {
+        
+        // 1. Filter the Types by "Soft" attributes (Price, PC Specs) from the in-memory catalog
+        List<RoomType> matchingTypes = roomTypeCatalog.findAll().stream()
             .filter(type -> request.getMinPrice() == null || type.getPricePerNight() >= request.getMinPrice())
             .filter(type -> request.getMaxPrice() == null || type.getPricePerNight() <= request.getMaxPrice())
             .filter(type -> request.getGuestCount() == null || type.getCapacity() >= request.getGuestCount())
@@ -112,7 +132,52 @@ public class RoomService {
             .filter(type -> request.getConsoles() == null || type.getConsoles().containsAll(request.getConsoles()))
             .collect(Collectors.toList());
 
-        // 6. BUILD THE DTOs
+        if (matchingTypes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // 2. Work out availability for the dates
+        Collection<String> includeIds = null;
+        Collection<String> excludeIds = null;
+        LocalDate availableFrom = null;
+        LocalDate availableTo = null;
+        if (request.getCheckInDate() != null && request.getCheckOutDate() != null) {
+            if (availabilityIndex.isReady()) {
+                // The in-memory calendars narrow the candidates; they may miss bookings made on other nodes
+                includeIds = availabilityIndex.findAvailableRoomIds(request.getCheckInDate(), request.getCheckOutDate());
+                if (includeIds.isEmpty()) {
+                    return new ArrayList<>();
+                }
+            }
+            if (roomNightService.isReady()) {
+                // Re-check with an indexed range scan over booked nights instead of every room's calendar
+                excludeIds = roomNightService.findBookedRoomIds(request.getCheckInDate(), request.getCheckOutDate());
+            } else {
+                // Until room_nights is backfilled, re-check against the room calendars in the same query
+                availableFrom = request.getCheckInDate();
+                availableTo = request.getCheckOutDate();
+            }
+        }
+
+        // 3. Load the physical rooms, with the "Hard" attributes (Pet Friendly, etc.) applied by MongoDB
+        RoomSearchFilter filter = new RoomSearchFilter(
+            matchingTypes.stream().map(RoomType::getId).collect(Collectors.toList()),
+            request.getAccessible(),
+            request.getPetFriendly(),
+            request.getNonSmoking(),
+            includeIds,
+            excludeIds,
+            availableFrom,
+            availableTo
+        );
+        List<Room> availableRooms = roomRepository.searchRooms(filter);
+
+        // 4. GROUP rooms by their RoomType ID
+        // Map<String, List<Room>> -> "type-123" : [Room 101, Room 102]
+        Map<String, List<Room>> roomsByType = availableRooms.stream()
+            .collect(Collectors.groupingBy(room -> room.getRoomTypeId()));
+
+        // 5. BUILD THE DTOs
         // Combine the filtered Type with the specific list of Rooms we found in Step 3
         List<BookingSearchResult> results = new ArrayList<>();
         
@@ -26,16 +26,22 @@ public class RoomTypeAdminService {
 
     private final RoomTypeRepository roomTypeRepository;
     private final RoomRepository roomRepository;
+    private final RoomTypeCatalog roomTypeCatalog;
+    private final SearchResultCache searchResultCache;
 
     /**
      * Constructs a new RoomTypeAdminService with the required repositories.
      *
      * @param roomTypeRepository The repository for room type data access.
      * @param roomRepository The repository for room data access (used for validation).
+     * @param roomTypeCatalog The cached room type catalog, rebuilt after every write.
+     * @param searchResultCache The room search cache, invalidated after every write.
      */
-    public RoomTypeAdminService(RoomTypeRepository roomTypeRepository, RoomRepository roomRepository) {
+    public RoomTypeAdminService(RoomTypeRepository roomTypeRepository, RoomRepository roomRepository, RoomTypeCatalog roomTypeCatalog, SearchResultCache searchResultCache) {
         this.roomTypeRepository = roomTypeRepository;
         this.roomRepository = roomRepository;
+        this.roomTypeCatalog = roomTypeCatalog;
+        this.searchResultCache = searchResultCache;
     }
 
     /**
@@ -44,18 +50,21 @@ public class RoomTypeAdminService {
      * @return A list of all room types in the system.
      */
     public List<RoomType> list() {
-        return roomTypeRepository.findAll();
+        return roomTypeCatalog.findAll();
     }
 
     /**
      * Retrieves a room type by its unique identifier.
+     * <p>
+     * The returned instance is shared with the catalog and must not be modified.
+     * </p>
      *
      * @param id The unique identifier of the room type.
      * @return The room type details.
      * @throws ResponseStatusException if the room type is not found.
      */
     public RoomType get(String id) {
-        return roomTypeRepository.findById(id)
+        return roomTypeCatalog.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "RoomType not found: " + id));
     }
 
@@ -81,7 +90,10 @@ public class RoomTypeAdminService {
                 req.consoles(),
                 req.images()
         );
-        return roomTypeRepository.save(rt);
+        RoomType saved = roomTypeRepository.save(rt);
+        roomTypeCatalog.reload();
+        searchResultCache.invalidate();
+        return saved;
     }
 
     /**
@@ -110,7 +122,10 @@ public class RoomTypeAdminService {
         existing.setConsoles(req.consoles());
         existing.setImages(req.images());
 
-        return roomTypeRepository.save(existing);
+        RoomType saved = roomTypeRepository.save(existing);
+        roomTypeCatalog.reload();
+        searchResultCache.invalidate();
+        return saved;
     }
 
     /**
@@ -137,6 +152,8 @@ public class RoomTypeAdminService {
         }
 
         roomTypeRepository.deleteById(id);
+        roomTypeCatalog.reload();
+        searchResultCache.invalidate();
     }
 
     /**
@@ -158,6 +175,9 @@ public class RoomTypeAdminService {
         images.add(imageUrl);
         existing.setImages(images);
 
-        return roomTypeRepository.save(existing);
+        RoomType saved = roomTypeRepository.save(existing);
+        roomTypeCatalog.reload();
+        searchResultCache.invalidate();
+        return saved;
     }
 }
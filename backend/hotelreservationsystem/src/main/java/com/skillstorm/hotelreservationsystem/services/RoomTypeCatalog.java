@@ -0,0 +1,185 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.skillstorm.hotelreservationsystem.dto.RoomTypeCatalogStats;
+import com.skillstorm.hotelreservationsystem.models.RoomType;
+import com.skillstorm.hotelreservationsystem.repositories.RoomTypeRepository;
+
+/**
+ * In-process cache of every {@link RoomType} document.
+ * <p>
+ * Room types change a few times a month but are read on almost every request, so the whole
+ * catalog is held as an immutable snapshot behind a volatile reference. Reads are lock-free map
+ * lookups. {@code RoomTypeAdminService} rebuilds the snapshot after each write and swaps it in
+ * atomically (copy-on-write), and a periodic reload picks up changes made through other
+ * application nodes. The cached {@code RoomType} objects are shared and must be treated as read-only.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class RoomTypeCatalog {
+
+    private final RoomTypeRepository roomTypeRepository;
+
+    /**
+     * The current snapshot; null until the first load.
+     */
+    private volatile Snapshot snapshot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+
+    /**
+     * Immutable view of the catalog at one point in time.
+     *
+     * @param byId The room types keyed by ID, in load order.
+     * @param loadedAt The time the snapshot was built.
+     */
+    private record Snapshot(Map<String, RoomType> byId, Instant loadedAt) {
+    }
+
+    /**
+     * Constructs a new RoomTypeCatalog with the required repository.
+     *
+     * @param roomTypeRepository The repository used to load room types.
+     */
+    public RoomTypeCatalog(RoomTypeRepository roomTypeRepository) {
+        this.roomTypeRepository = roomTypeRepository;
+    }
+
+    /**
+     * Loads the catalog once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the snapshot from MongoDB and publishes it atomically.
+     * <p>
+     * Runs on a fixed delay so that changes made through other application nodes become visible.
+     * </p>
+     */
+    @Scheduled(fixedDelayString = "${app.room-type-catalog.refresh-ms:60000}",
+            initialDelayString = "${app.room-type-catalog.refresh-ms:60000}")
+    public synchronized void reload() {
+        Map<String, RoomType> byId = new LinkedHashMap<>();
+        for (RoomType type : roomTypeRepository.findAll()) {
+            byId.put(type.getId(), type);
+        }
+        snapshot = new Snapshot(Collections.unmodifiableMap(byId), Instant.now());
+        reloads.increment();
+    }
+
+    /**
+     * Finds a room type by ID.
+     * <p>
+     * An ID missing from the snapshot is looked up in MongoDB; if it exists there (for example it
+     * was just created on another node), the snapshot is rebuilt.
+     * </p>
+     *
+     * @param id The unique identifier of the room type.
+     * @return The room type, or empty if it does not exist.
+     */
+    public Optional<RoomType> findById(String id) {
+        if (id == null) return Optional.empty();
+
+        RoomType type = current().byId().get(id);
+        if (type != null) {
+            hits.increment();
+            return Optional.of(type);
+        }
+
+        misses.increment();
+        Optional<RoomType> loaded = roomTypeRepository.findById(id);
+        if (loaded.isPresent()) {
+            reload();
+        }
+        return loaded;
+    }
+
+    /**
+     * Finds the room types with the given IDs. IDs that do not exist are skipped.
+     *
+     * @param ids The unique identifiers of the room types.
+     * @return The matching room types.
+     */
+    public List<RoomType> findAllById(Collection<String> ids) {
+        List<RoomType> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    /**
+     * Lists every room type.
+     *
+     * @return All room types, as a new list.
+     */
+    public List<RoomType> findAll() {
+        hits.increment();
+        return new ArrayList<>(current().byId().values());
+    }
+
+    /**
+     * Checks whether a room type exists.
+     *
+     * @param id The unique identifier of the room type.
+     * @return True if the room type exists; false otherwise.
+     */
+    public boolean existsById(String id) {
+        return findById(id).isPresent();
+    }
+
+    /**
+     * Reports cache size and hit/miss counts.
+     *
+     * @return The current catalog statistics.
+     */
+    public RoomTypeCatalogStats stats() {
+        Snapshot s = current();
+        long h = hits.sum();
+        long m = misses.sum();
+        return new RoomTypeCatalogStats(
+                s.byId().size(),
+                h,
+                m,
+                (h + m) == 0 ? 0.0 : (double) h / (h + m),
+                reloads.sum(),
+                s.loadedAt()
+        );
+    }
+
+    /**
+     * Returns the current snapshot, loading it on first use.
+     *
+     * @return The current snapshot.
+     */
+    private Snapshot current() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            reload();
+            s = snapshot;
+        }
+        return s;
+    }
+}
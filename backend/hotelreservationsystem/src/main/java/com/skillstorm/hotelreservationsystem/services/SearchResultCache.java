@@ -0,0 +1,287 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.skillstorm.hotelreservationsystem.dto.BookingSearchRequest;
+import com.skillstorm.hotelreservationsystem.dto.BookingSearchResult;
+import com.skillstorm.hotelreservationsystem.dto.SearchCacheStats;
+
+/**
+ * Cache of room search results keyed by the normalized search request, with single-flight
+ * coalescing of concurrent identical searches.
+ * <p>
+ * Every write on this node that can change what a search returns (bookings, cancellations,
+ * reservation updates, and room or room type admin changes) calls {@link #invalidate()}, which
+ * bumps an inventory version counter. Each cached entry remembers the version that was current
+ * when its search started and is only served while that version is still current, so a search
+ * that raced with a local booking is never reused. The cache is bounded with least-recently-used
+ * eviction.
+ * </p>
+ * <p>
+ * The version counter is per node: writes made on other application nodes do not invalidate this
+ * cache. Searches check availability against MongoDB rather than only the node-local
+ * {@link RoomAvailabilityIndex}, so a cached entry is correct as of when it was computed, and the
+ * short TTL ({@code app.search-cache.ttl}) is how long it can go on showing a room that another
+ * node has since booked. That is acceptable for search results because a booking always claims
+ * its dates with a conditional update and fails with a conflict if they were taken.
+ * </p>
+ * <p>
+ * When several callers miss on the same search at the same time (for example right after a
+ * marketing email), only the first runs it; the others wait on the same in-flight
+ * {@link CompletableFuture} and share its result. In-flight searches are keyed by inventory version
+ * as well, so a caller never joins a search that started before the latest booking. A caller only
+ * waits up to {@code join-timeout} for the shared search; if it is still running by then (for
+ * example because its query is stuck), the caller runs the search itself rather than hanging with it.
+ * </p>
+ * <p>
+ * Cached result lists are shared between callers and must be treated as read-only.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Component
+public class SearchResultCache {
+
+    private final long ttlNanos;
+    private final long joinTimeoutNanos;
+    private final int maxEntries;
+
+    private final AtomicLong inventoryVersion = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder joinTimeouts = new LongAdder();
+
+    /**
+     * Cached results keyed by normalized request, in least-recently-used order.
+     */
+    private final LinkedHashMap<SearchKey, CachedResult> cache;
+
+    /**
+     * Searches currently running, keyed by request and the inventory version they started under.
+     */
+    private final ConcurrentHashMap<InFlightKey, CompletableFuture<List<BookingSearchResult>>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * The parts of a search request that affect its results, in a canonical form.
+     * <p>
+     * Console lists are sorted and de-duplicated (and an empty list treated as no filter),
+     * and a date range is kept only when both ends are present, matching how the search uses them.
+     * </p>
+     */
+    private record SearchKey(
+            LocalDate checkIn,
+            LocalDate checkOut,
+            Integer guestCount,
+            Double minPrice,
+            Double maxPrice,
+            Integer minBeds,
+            Integer minBedrooms,
+            Boolean accessible,
+            Boolean petFriendly,
+            Boolean nonSmoking,
+            Boolean hasJacuzzi,
+            Integer pcCount,
+            String pcTier,
+            List<String> consoles
+    ) {
+    }
+
+    /**
+     * A cached search result and the conditions under which it may be served.
+     *
+     * @param results The search results.
+     * @param version The inventory version the search started under.
+     * @param expiresAtNanos The {@link System#nanoTime()} after which the entry is stale.
+     */
+    private record CachedResult(List<BookingSearchResult> results, long version, long expiresAtNanos) {
+    }
+
+    /**
+     * Identifies a running search that later callers may join.
+     *
+     * @param key The normalized search request.
+     * @param version The inventory version the search started under.
+     */
+    private record InFlightKey(SearchKey key, long version) {
+    }
+
+    /**
+     * Constructs a new SearchResultCache.
+     *
+     * @param ttl How long a search result stays cached.
+     * @param joinTimeout How long a caller waits for an identical in-flight search before running its own.
+     * @param maxEntries The maximum number of cached searches.
+     */
+    public SearchResultCache(
+            @Value("${app.search-cache.ttl:PT30S}") Duration ttl,
+            @Value("${app.search-cache.join-timeout:PT2S}") Duration joinTimeout,
+            @Value("${app.search-cache.max-entries:500}") int maxEntries
+    ) {
+        this.ttlNanos = ttl.toNanos();
+        this.joinTimeoutNanos = joinTimeout.toNanos();
+        this.maxEntries = Math.max(1, maxEntries);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SearchKey, CachedResult> eldest) {
+                return size() > SearchResultCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached results for a search, running the search on a miss.
+     * <p>
+     * Concurrent misses for the same request share one execution of {@code search}, for up to
+     * the join timeout; a caller still waiting after that runs {@code search} directly.
+     * </p>
+     *
+     * @param request The search request.
+     * @param search Runs the search against the database.
+     * @return The search results, possibly shared with other callers.
+     */
+    public List<BookingSearchResult> get(BookingSearchRequest request, Supplier<List<BookingSearchResult>> search) {
+        SearchKey key = keyOf(request);
+        long version = inventoryVersion.get();
+        long now = System.nanoTime();
+
+        synchronized (cache) {
+            CachedResult cached = cache.get(key);
+            if (cached != null) {
+                if (cached.version() == version && now - cached.expiresAtNanos() < 0) {
+                    hits.increment();
+                    return cached.results();
+                }
+                cache.remove(key);
+            }
+        }
+
+        // Join an identical search that is already running, or become the one that runs it
+        InFlightKey flightKey = new InFlightKey(key, version);
+        CompletableFuture<List<BookingSearchResult>> flight = new CompletableFuture<>();
+        CompletableFuture<List<BookingSearchResult>> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return existing.get(joinTimeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // The shared search is taking too long; don't tie this request's fate to it
+                joinTimeouts.increment();
+                return Collections.unmodifiableList(search.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for an in-flight search", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                if (e.getCause() instanceof Error cause) throw cause;
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        misses.increment();
+        try {
+            List<BookingSearchResult> results = Collections.unmodifiableList(search.get());
+
+            // Only keep the result if nothing changed while the search was running
+            if (inventoryVersion.get() == version) {
+                synchronized (cache) {
+                    cache.put(key, new CachedResult(results, version, now + ttlNanos));
+                }
+            }
+            flight.complete(results);
+            return results;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * Marks every cached search as stale.
+     * <p>
+     * Call after any write that changes room availability, room attributes, or room types.
+     * </p>
+     */
+    public void invalidate() {
+        inventoryVersion.incrementAndGet();
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Reports cache size, hit/miss/coalesced/join-timeout counts and the current inventory version.
+     *
+     * @return The current cache statistics.
+     */
+    public SearchCacheStats stats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
+        }
+        long h = hits.sum();
+        long m = misses.sum();
+        return new SearchCacheStats(
+                size,
+                h,
+                m,
+                (h + m) == 0 ? 0.0 : (double) h / (h + m),
+                coalesced.sum(),
+                joinTimeouts.sum(),
+                inFlight.size(),
+                inventoryVersion.get()
+        );
+    }
+
+    /**
+     * Builds the normalized cache key for a search request.
+     *
+     * @param request The search request.
+     * @return The cache key.
+     */
+    private SearchKey keyOf(BookingSearchRequest request) {
+        boolean hasDates = request.getCheckInDate() != null && request.getCheckOutDate() != null;
+
+        List<String> consoles = null;
+        if (request.getConsoles() != null && !request.getConsoles().isEmpty()) {
+            consoles = List.copyOf(new TreeSet<>(request.getConsoles()));
+        }
+
+        return new SearchKey(
+                hasDates ? request.getCheckInDate() : null,
+                hasDates ? request.getCheckOutDate() : null,
+                request.getGuestCount(),
+                request.getMinPrice(),
+                request.getMaxPrice(),
+                request.getMinBeds(),
+                request.getMinBedrooms(),
+                request.getAccessible(),
+                request.getPetFriendly(),
+                request.getNonSmoking(),
+                request.getHasJacuzzi(),
+                request.getPcCount(),
+                request.getPcTier(),
+                consoles
+        );
+    }
+}
@@ -0,0 +1,231 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.mongodb.MongoException;
+import com.skillstorm.hotelreservationsystem.dto.TransactionStats;
+
+/**
+ * Runs booking flows in MongoDB transactions and replays them on transient errors.
+ * <p>
+ * A transaction that fails with the {@code TransientTransactionError} label (a write conflict
+ * with a concurrent transaction, a primary election, a dropped connection) was rolled back as a
+ * whole and can safely be run again, so the flow is replayed up to {@code max-attempts} times
+ * with jittered exponential backoff. Commits with an unknown result are retried by the
+ * transaction manager itself. Any other error, such as a 409 for a room that was just booked,
+ * rolls the transaction back and is rethrown immediately.
+ * </p>
+ * <p>
+ * Because a flow may run more than once, its body must only write to MongoDB. In-memory side
+ * effects go through {@link #afterCommit(Runnable)}, and external calls must be idempotent across
+ * attempts. When no transaction manager is configured, or a transaction is already active, the
+ * body simply runs once. Latency, abort and retry counts are kept per flow for the admin
+ * diagnostics endpoint.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@Service
+public class TransactionRunner {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Map<String, FlowMetrics> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new TransactionRunner with the transaction manager, if any, and retry settings.
+     *
+     * @param transactionManager The transaction manager; absent when transactions are disabled.
+     * @param maxAttempts The maximum number of attempts per call, including the first.
+     * @param baseBackoffMs The delay before the first replay, in milliseconds.
+     * @param maxBackoffMs The upper bound on the delay between replays, in milliseconds.
+     */
+    public TransactionRunner(
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            @Value("${app.mongo.transactions.max-attempts:4}") int maxAttempts,
+            @Value("${app.mongo.transactions.base-backoff-ms:10}") long baseBackoffMs,
+            @Value("${app.mongo.transactions.max-backoff-ms:200}") long maxBackoffMs
+    ) {
+        PlatformTransactionManager manager = transactionManager.getIfAvailable();
+        this.transactionTemplate = (manager != null) ? new TransactionTemplate(manager) : null;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseBackoffMs = Math.max(0, baseBackoffMs);
+        this.maxBackoffMs = Math.max(this.baseBackoffMs, maxBackoffMs);
+    }
+
+    /**
+     * Runs a flow in a transaction, replaying it on transient transaction errors.
+     *
+     * @param <T> The result type.
+     * @param flow The flow name used for metrics.
+     * @param body The flow body; it may run more than once.
+     * @return The result of the attempt that committed.
+     */
+    public <T> T execute(String flow, Supplier<T> body) {
+        if (transactionTemplate == null || TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Nothing to manage, or part of an enclosing transaction that owns the retries
+            return body.get();
+        }
+
+        FlowMetrics m = metrics.computeIfAbsent(flow, f -> new FlowMetrics());
+        long startedAt = System.nanoTime();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> body.get());
+                m.recordCommit(System.nanoTime() - startedAt);
+                return result;
+            } catch (RuntimeException e) {
+                m.aborts.increment();
+                if (attempt >= maxAttempts || !isTransient(e)) {
+                    m.failed.increment();
+                    throw e;
+                }
+                m.retries.increment();
+                System.err.println("Transient transaction error in " + flow + " (attempt " + attempt + "/" + maxAttempts
+                        + "), retrying: " + e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Runs a flow without a result in a transaction, replaying it on transient transaction errors.
+     *
+     * @param flow The flow name used for metrics.
+     * @param body The flow body; it may run more than once.
+     */
+    public void run(String flow, Runnable body) {
+        execute(flow, () -> {
+            body.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs an action once the current transaction commits, or immediately if there is none.
+     * <p>
+     * Used for in-memory state such as the availability index and search cache, which must not
+     * see writes from an attempt that is later rolled back.
+     * </p>
+     *
+     * @param action The action to run.
+     */
+    public void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Indicates whether the caller is running inside a transaction.
+     * <p>
+     * Inside a transaction a failed write aborts the whole transaction, so compensating writes
+     * are pointless (the rollback undoes the earlier writes) and would themselves fail.
+     * </p>
+     *
+     * @return True if a transaction is active; false otherwise.
+     */
+    public boolean inTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    /**
+     * Retrieves the transaction metrics of every flow that has run.
+     *
+     * @return One entry per flow.
+     */
+    public List<TransactionStats> stats() {
+        List<TransactionStats> stats = new ArrayList<>();
+        metrics.forEach((flow, m) -> {
+            long committed = m.committed.sum();
+            stats.add(new TransactionStats(
+                    flow,
+                    transactionTemplate != null,
+                    committed,
+                    m.failed.sum(),
+                    m.aborts.sum(),
+                    m.retries.sum(),
+                    committed == 0 ? 0.0 : m.latencyNanos.sum() / 1_000_000.0 / committed,
+                    m.maxLatencyNanos.get() / 1_000_000.0
+            ));
+        });
+        stats.sort((a, b) -> a.flow().compareTo(b.flow()));
+        return stats;
+    }
+
+    /**
+     * Checks whether an error, or any of its causes, is labelled as a transient transaction error.
+     *
+     * @param e The error thrown by the transaction.
+     * @return True if replaying the transaction may succeed; false otherwise.
+     */
+    private static boolean isTransient(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof MongoException me && me.hasErrorLabel(MongoException.TRANSIENT_TRANSACTION_ERROR_LABEL)) {
+                return true;
+            }
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    /**
+     * Sleeps before a replay with exponential backoff and full jitter.
+     *
+     * @param attempt The attempt that just failed (1-based).
+     */
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        long delay = ceiling <= 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (delay == 0) return;
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Counters for one flow.
+     */
+    private static final class FlowMetrics {
+        final LongAdder committed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder aborts = new LongAdder();
+        final LongAdder retries = new LongAdder();
+        final LongAdder latencyNanos = new LongAdder();
+        final AtomicLong maxLatencyNanos = new AtomicLong();
+
+        void recordCommit(long nanos) {
+            committed.increment();
+            latencyNanos.add(nanos);
+            maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.skillstorm.hotelreservationsystem.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.Updates;
+import com.skillstorm.hotelreservationsystem.config.RetryingMongoTransactionManager;
+import com.skillstorm.hotelreservationsystem.dto.TransactionStats;
+
+/**
+ * Integration tests for {@link TransactionRunner} against a real MongoDB replica set.
+ * <p>
+ * Transactions need a replica set, so these tests only run when {@code MONGO_RS_TEST_URI} points
+ * at one, e.g. the single-node set in {@code docker-compose.yml}:
+ * {@code mongodb://localhost:27017/?replicaSet=rs0&directConnection=true}. They use their own
+ * {@code hotel_tx_test} database and drop it afterwards.
+ * </p>
+ *
+ * @author SkillStorm
+ * @version 1.0
+ */
+@EnabledIfEnvironmentVariable(named = "MONGO_RS_TEST_URI", matches = ".+")
+class TransactionRunnerIntegrationTests {
+
+	private static final String DATABASE = "hotel_tx_test";
+	private static final String COLLECTION = "tx_test";
+
+	private static MongoClient client;
+	private static MongoTemplate mongoTemplate;
+	private static TransactionRunner runner;
+
+	/**
+	 * Connects to the replica set and builds the runner on the application's transaction manager.
+	 */
+	@BeforeAll
+	static void connect() {
+		client = MongoClients.create(System.getenv("MONGO_RS_TEST_URI"));
+		SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(client, DATABASE);
+		mongoTemplate = new MongoTemplate(factory);
+
+		StaticListableBeanFactory beans = new StaticListableBeanFactory(
+				Map.of("transactionManager", new RetryingMongoTransactionManager(factory, 3)));
+		runner = new TransactionRunner(beans.getBeanProvider(PlatformTransactionManager.class), 4, 10, 200);
+	}
+
+	/**
+	 * Drops the test database and closes the client.
+	 */
+	@AfterAll
+	static void disconnect() {
+		if (client != null) {
+			client.getDatabase(DATABASE).drop();
+			client.close();
+		}
+	}
+
+	/**
+	 * Recreates the test collection, which must exist before a transaction writes to it on older servers.
+	 */
+	@BeforeEach
+	void resetCollection() {
+		mongoTemplate.dropCollection(COLLECTION);
+		mongoTemplate.createCollection(COLLECTION);
+		mongoTemplate.insert(new Document("_id", "counter").append("value", 0), COLLECTION);
+	}
+
+	/**
+	 * Verifies that every write of a committed flow is visible and after-commit actions run.
+	 */
+	@Test
+	void commitsAllWritesAndRunsAfterCommitActions() {
+		AtomicBoolean afterCommitRan = new AtomicBoolean();
+
+		runner.run("commit", () -> {
+			mongoTemplate.insert(new Document("_id", "a"), COLLECTION);
+			mongoTemplate.insert(new Document("_id", "b"), COLLECTION);
+			runner.afterCommit(() -> afterCommitRan.set(true));
+			assertThat(afterCommitRan).isFalse();
+		});
+
+		assertThat(mongoTemplate.count(new Query(Criteria.where("_id").in("a", "b")), COLLECTION)).isEqualTo(2);
+		assertThat(afterCommitRan).isTrue();
+		assertThat(stats("commit").committed()).isEqualTo(1);
+	}
+
+	/**
+	 * Verifies that a flow failing with a non-transient error is rolled back once and not replayed.
+	 */
+	@Test
+	void rollsBackOnFailureWithoutReplaying() {
+		AtomicInteger attempts = new AtomicInteger();
+		AtomicBoolean afterCommitRan = new AtomicBoolean();
+
+		assertThatThrownBy(() -> runner.run("rollback", () -> {
+			attempts.incrementAndGet();
+			mongoTemplate.insert(new Document("_id", "a"), COLLECTION);
+			runner.afterCommit(() -> afterCommitRan.set(true));
+			throw new IllegalStateException("rejected");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(mongoTemplate.exists(new Query(Criteria.where("_id").is("a")), COLLECTION)).isFalse();
+		assertThat(afterCommitRan).isFalse();
+		assertThat(attempts).hasValue(1);
+		assertThat(stats("rollback").failed()).isEqualTo(1);
+		assertThat(stats("rollback").retries()).isZero();
+	}
+
+	/**
+	 * Verifies that a write conflict with a concurrent write is replayed and then commits once.
+	 */
+	@Test
+	void replaysWriteConflictsAndCommitsOnce() {
+		MongoCollection<Document> outside = client.getDatabase(DATABASE).getCollection(COLLECTION);
+		AtomicInteger attempts = new AtomicInteger();
+
+		runner.run("retry", () -> {
+			// The first read fixes the transaction's snapshot
+			mongoTemplate.findById("counter", Document.class, COLLECTION);
+			if (attempts.incrementAndGet() == 1) {
+				// Committed outside the transaction after its snapshot, so the write below conflicts
+				outside.updateOne(Filters.eq("_id", "counter"), Updates.inc("value", 100));
+			}
+			mongoTemplate.updateFirst(new Query(Criteria.where("_id").is("counter")), new Update().inc("value", 1), COLLECTION);
+		});
+
+		Document counter = mongoTemplate.findById("counter", Document.class, COLLECTION);
+		assertThat(attempts).hasValue(2);
+		assertThat(counter.getInteger("value")).isEqualTo(101);
+		assertThat(stats("retry").retries()).isEqualTo(1);
+		assertThat(stats("retry").committed()).isEqualTo(1);
+	}
+
+	/**
+	 * Finds the runner's metrics for a flow.
+	 *
+	 * @param flow The flow name.
+	 * @return The flow's metrics.
+	 */
+	private TransactionStats stats(String flow) {
+		return runner.stats().stream().filter(s -> s.flow().equals(flow)).findFirst().orElseThrow();
+	}
+}
@@ -46,7 +46,8 @@ export const roomApi = apiSlice.injectEndpoints({
         }
 
         return {
-          url: '/api/rooms/search',
+          // Lean shape: each room type once per group, rooms without calendars
+          url: '/api/rooms/search/lean',
           params: params,
         };
       },
@@ -1,6 +1,22 @@
-import { type Room } from "./Room";
 import { type RoomType } from "./RoomType";
 
+/**
+ * Represents an available room in a search result.
+ * The search endpoint only sends the fields needed to pick a room; calendars and the room type are omitted.
+ */
+export interface AvailableRoom {
+    /** The unique identifier for the room. */
+    id: string;
+    /** The physical room number or identifier (e.g., "101"). */
+    roomNumber: string;
+    /** Indicates if the room meets accessibility standards (ADA compliant). */
+    accessible: boolean;
+    /** Indicates if pets are allowed in this room. */
+    petFriendly: boolean;
+    /** Indicates if this is a non-smoking room. */
+    nonSmoking: boolean;
+}
+
 /**
  * Represents a search result grouping rooms by their type.
  * Used to display available rooms organized by room type in search results.
@@ -9,5 +25,5 @@ export interface RoomTypeSearchResult {
     /** The room type information (specifications, amenities, pricing). */
     roomType: RoomType;
     /** A list of available rooms of this type that match the search criteria. */
-    availableRooms: Room[];
+    availableRooms: AvailableRoom[];
 }
\ No newline at end of file